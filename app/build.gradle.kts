@@ -45,3 +45,184 @@ tasks.test {
     // Use the JUnit Platform framework for testing
     useJUnitPlatform()
 }
+
+// Imagen nativa con GraalVM: native-image se toma de GRAALVM_HOME o del PATH y su configuración está en
+// src/main/resources/META-INF/native-image. nativeCompile usa optimización guiada por perfiles: compila una
+// imagen instrumentada, la entrena con nativeTrain y compila la imagen final con esos perfiles.
+// Con -Ppgo=false se compila sin perfiles (GraalVM Community no soporta PGO)
+val nativeDirectory = layout.buildDirectory.dir("native")
+val nativeImage = providers.environmentVariable("GRAALVM_HOME").map { "$it/bin/native-image" }.orElse("native-image")
+val usePgo = providers.gradleProperty("pgo").map { it.toBoolean() }.orElse(true)
+val appJar = tasks.jar.flatMap { it.archiveFile }
+val testSchemas = fileTree("src/test/resources") { include("*.sql", "*.dump") }
+
+// Esquema de entrenamiento parecido a un pg_dump real: muchas tablas, tipos variados, FKs dentro del
+// CREATE TABLE y agregadas con ALTER TABLE, y bloques COPY que el parser debe saltar
+fun trainingSchema(tables: Int): String = buildString {
+    val types = listOf("BIGINT", "INTEGER", "SMALLINT", "VARCHAR(120)", "TEXT", "BOOLEAN", "NUMERIC(12,2)",
+        "DATE", "TIMESTAMP", "UUID")
+    for (i in 0 until tables) {
+        append("CREATE TABLE public.table_$i (\n    id BIGINT NOT NULL PRIMARY KEY")
+        for (c in 0 until 8) {
+            append(",\n    column_$c ${types[(i + c) % types.size]}${if (c % 3 == 0) " NOT NULL" else ""}")
+        }
+        if (i > 0) {
+            append(",\n    parent_id BIGINT REFERENCES public.table_${i / 2} (id)")
+        }
+        if (i > 1) {
+            append(",\n    sibling_id BIGINT")
+        }
+        append("\n);\n\n")
+        if (i > 1) {
+            append("ALTER TABLE ONLY public.table_$i\n    ADD CONSTRAINT table_${i}_sibling_id_fkey ")
+            append("FOREIGN KEY (sibling_id) REFERENCES public.table_${i - 1}(id);\n\n")
+        }
+        if (i % 10 == 0) {
+            append("COPY public.table_$i (id, column_0) FROM stdin;\n1\tfirst; row\n2\tsecond\n\\.\n\n")
+        }
+    }
+}
+
+// Un proyecto por esquema, con su sqlift.yaml; el esquema se pasa como argumento de generate
+fun sqliftProject(directory: File): File {
+    directory.deleteRecursively()
+    directory.mkdirs()
+    directory.resolve("sqlift.yaml").writeText("""
+        version: "1.0"
+        sql:
+          engine: "postgres"
+          schema: "schema.sql"
+          output:
+            package: "com.example.smoke"
+            lombok: true
+        """.trimIndent() + "\n")
+    return directory
+}
+
+// Ejecuta SQLift y devuelve su salida; un socket inexistente evita que el generate vaya a un daemon corriendo
+fun runSqlift(command: List<String>, directory: File): String {
+    val process = ProcessBuilder(command)
+        .directory(directory)
+        .redirectErrorStream(true)
+        .apply { environment()["SQLIFT_DAEMON_SOCKET"] = directory.resolve("no-daemon.sock").absolutePath }
+        .start()
+    val output = process.inputStream.readAllBytes().toString(Charsets.UTF_8)
+    if (process.waitFor() != 0) {
+        throw GradleException("${command.joinToString(" ")} failed with exit code ${process.exitValue()}:\n$output")
+    }
+    return output
+}
+
+fun generatedSources(project: File): Map<String, String> =
+    project.resolve("src").walkTopDown()
+        .filter { it.isFile }
+        .associate { it.relativeTo(project).invariantSeparatorsPath to it.readText() }
+
+val nativeInstrumentedCompile by tasks.registering(Exec::class) {
+    description = "Builds an instrumented native image used to collect the PGO profiles."
+    group = "native"
+    val output = nativeDirectory.map { it.file("pgo/sqlift-instrumented") }
+    inputs.file(appJar)
+    outputs.file(output)
+    executable = nativeImage.get()
+    argumentProviders.add(CommandLineArgumentProvider {
+        listOf("--pgo-instrument", "-jar", appJar.get().asFile.absolutePath, "-o", output.get().asFile.absolutePath)
+    })
+}
+
+val nativeTrain by tasks.registering {
+    description = "Runs the instrumented native image over the training schemas and collects the PGO profiles."
+    group = "native"
+    dependsOn(nativeInstrumentedCompile)
+    val instrumented = nativeDirectory.map { it.file("pgo/sqlift-instrumented") }
+    val profiles = nativeDirectory.map { it.dir("pgo/profiles") }
+    val training = nativeDirectory.map { it.dir("pgo/training") }
+    inputs.file(instrumented)
+    inputs.files(testSchemas)
+    outputs.dir(profiles)
+    doLast {
+        val profileDirectory = profiles.get().asFile
+        profileDirectory.deleteRecursively()
+        profileDirectory.mkdirs()
+        val representative = training.get().file("representative.sql").asFile
+        representative.parentFile.mkdirs()
+        representative.writeText(trainingSchema(2000))
+        // La primera ejecución parsea el esquema y escribe todas las entidades; la segunda toma el caché
+        // y no escribe nada, que es lo que pasa la mayoría de las veces en un build
+        for (schema in listOf(representative) + testSchemas.files.sorted()) {
+            val project = sqliftProject(training.get().dir(schema.name).asFile)
+            for (run in listOf("cold", "warm")) {
+                val profile = profileDirectory.resolve("${schema.name}-$run.iprof")
+                runSqlift(listOf(instrumented.get().asFile.absolutePath, "-XX:ProfilesDumpFile=${profile.absolutePath}",
+                    "generate", schema.absolutePath), project)
+            }
+        }
+    }
+}
+
+val nativeCompile by tasks.registering(Exec::class) {
+    description = "Builds the sqlift native executable, optimized with the PGO profiles unless -Ppgo=false."
+    group = "native"
+    val output = nativeDirectory.map { it.file("sqlift") }
+    val profiles = nativeDirectory.map { it.dir("pgo/profiles") }
+    inputs.file(appJar)
+    inputs.property("pgo", usePgo)
+    outputs.file(output)
+    if (usePgo.get()) {
+        dependsOn(nativeTrain)
+        inputs.dir(profiles)
+    }
+    executable = nativeImage.get()
+    argumentProviders.add(CommandLineArgumentProvider {
+        val pgo = if (usePgo.get()) {
+            val files = profiles.get().asFile.listFiles().orEmpty().filter { it.name.endsWith(".iprof") }
+            listOf("--pgo=" + files.sorted().joinToString(",") { it.absolutePath })
+        } else {
+            listOf()
+        }
+        pgo + listOf("-jar", appJar.get().asFile.absolutePath, "-o", output.get().asFile.absolutePath)
+    })
+}
+
+// La imagen nativa debe generar exactamente lo mismo que el JAR: si falta configuración de reachability
+// (reflexión, recursos) para algún camino, aparece aquí como una diferencia o una excepción
+val nativeSmokeTest by tasks.registering {
+    description = "Runs the native executable over the test schemas, compares it with the JVM and checks startup time."
+    group = "verification"
+    dependsOn(nativeCompile, tasks.jar)
+    val binary = nativeDirectory.map { it.file("sqlift") }
+    val smoke = nativeDirectory.map { it.dir("smoke") }
+    val javaLauncher = javaToolchains.launcherFor { languageVersion = JavaLanguageVersion.of(17) }
+        .map { it.executablePath.asFile.absolutePath }
+    val startupBudget = providers.gradleProperty("nativeStartupBudgetMs").map { it.toLong() }.orElse(20L)
+    doLast {
+        val native = binary.get().asFile.absolutePath
+        for (schema in testSchemas.files.sorted()) {
+            val nativeProject = sqliftProject(smoke.get().dir("${schema.name}/native").asFile)
+            val jvmProject = sqliftProject(smoke.get().dir("${schema.name}/jvm").asFile)
+            val nativeOutput = runSqlift(listOf(native, "generate", schema.absolutePath), nativeProject)
+            val jvmOutput = runSqlift(listOf(javaLauncher.get(), "-jar", appJar.get().asFile.absolutePath, "generate",
+                schema.absolutePath), jvmProject)
+            if (nativeOutput != jvmOutput) {
+                throw GradleException("Native output differs for ${schema.name}:\n$nativeOutput\nJVM:\n$jvmOutput")
+            }
+            if (generatedSources(nativeProject) != generatedSources(jvmProject)) {
+                throw GradleException("Native image generated different entities for ${schema.name}")
+            }
+            logger.lifecycle("✅ ${schema.name}: ${generatedSources(nativeProject).size} entities")
+        }
+
+        // Mediana de varias ejecuciones de --version: solo el arranque del binario
+        val startup = smoke.get().asFile
+        val times = (1..21).map {
+            val start = System.nanoTime()
+            runSqlift(listOf(native, "--version"), startup)
+            (System.nanoTime() - start) / 1_000_000
+        }.sorted()
+        val median = times[times.size / 2]
+        logger.lifecycle("⏱ Native startup: $median ms (median of ${times.size} runs)")
+        if (median > startupBudget.get()) {
+            throw GradleException("Native startup took $median ms, over the ${startupBudget.get()} ms budget")
+        }
+    }
+}
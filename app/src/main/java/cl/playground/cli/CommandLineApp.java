@@ -1,17 +1,26 @@
 package cl.playground.cli;
 
+import cl.playground.cli.commands.DaemonClient;
+import cl.playground.cli.commands.DaemonCommand;
 import cl.playground.cli.commands.GenerateCommand;
 import cl.playground.cli.commands.InitCommand;
 import cl.playground.exception.ConfigurationException;
 
 import java.util.Map;
+import java.util.function.Consumer;
 
 public class CommandLineApp {
-    private static final String VERSION = "1.0.0";
-    private static final Map<String, Runnable> COMMANDS = Map.of(
-        "--version", () -> System.out.println("Sqlift version " + VERSION),
-        "init", new InitCommand()::run,
-        "generate", new GenerateCommand()::run);
+    public static final String VERSION = "1.0.0";
+    private static final Map<String, Consumer<String[]>> COMMANDS = Map.of(
+        "--version", args -> System.out.println("Sqlift version " + VERSION),
+        "init", args -> new InitCommand().run(),
+        "daemon", args -> new DaemonCommand().run(args),
+        // Con un daemon corriendo el generate se reenvía por su socket; si no, se ejecuta en el proceso
+        "generate", args -> {
+            if (!DaemonClient.forwardGenerate(args)) {
+                new GenerateCommand().run(args);
+            }
+        });
 
     public static void main(String[] args) {
         try {
@@ -20,12 +29,12 @@ public class CommandLineApp {
                 return;
             }
 
-            Runnable command = COMMANDS.get(args[0]);
+            Consumer<String[]> command = COMMANDS.get(args[0]);
             if (command == null) {
                 System.err.println("❌ Unknown command: " + args[0]);
                 printHelp();
             } else {
-                command.run();
+                command.accept(args);
             }
         } catch (ConfigurationException e) {
             System.err.println("❌ Error: " + e.getMessage());
@@ -39,6 +48,13 @@ public class CommandLineApp {
             Usage:
               sqlift --version       Show the tool's version
               sqlift init            Initialize configuration files
-              sqlift generate        Generate Java entity classes from SQL schema""");
+              sqlift generate        Generate Java entity classes from SQL schema
+              sqlift generate <file> Use <file> (.sql, .sql.gz, .sql.zst, pg_dump -Fc .dump) instead of the configured schema
+              sqlift generate <dir>  Replay a Flyway migration directory (V1__init.sql, V2__...) as the schema
+              sqlift generate -      Read the SQL schema from stdin, e.g. pg_dump -s | sqlift generate -
+              sqlift generate --watch Keep running and regenerate the entities whenever the schema changes
+              sqlift generate --archive <file> Write the entities into a -sources.jar or .zip instead of src/main/java
+              sqlift daemon          Keep a warm SQLift running in the background; generate calls are sent to it
+              sqlift daemon stop     Stop the running daemon""");
     }
 }
@@ -0,0 +1,194 @@
+package cl.playground.cli.commands;
+
+import cl.playground.cli.CommandLineApp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Set;
+
+/**
+ * Lado cliente de {@code sqlift daemon}: si hay un daemon escuchando en el socket, le reenvía el
+ * {@code generate} con el directorio actual y muestra su salida. Sin daemon, el comando se ejecuta en el proceso.
+ */
+public class DaemonClient {
+    static final String MAGIC = "SQLIFT-DAEMON";
+    static final byte GENERATE = 1;
+    static final byte STOP = 2;
+    // El daemon rechaza pedidos con más argumentos; generate usa unos pocos
+    static final int MAX_ARGUMENTS = 64;
+    private static final String SOCKET_VARIABLE = "SQLIFT_DAEMON_SOCKET";
+    private static final String RUNTIME_DIRECTORY_VARIABLE = "XDG_RUNTIME_DIR";
+
+    private DaemonClient() {
+    }
+
+    // Un socket por usuario y versión: un cliente nunca habla con un daemon de otra versión
+    static Path socketPath() {
+        String configured = System.getenv(SOCKET_VARIABLE);
+        if (configured != null && !configured.isBlank()) {
+            return Paths.get(configured);
+        }
+        return socketDirectory().resolve("sqlift-" + CommandLineApp.VERSION + ".sock");
+    }
+
+    // $XDG_RUNTIME_DIR ya es privado del usuario; si no existe, un directorio sqlift-<usuario> en el temporal
+    // que el daemon crea solo para su dueño
+    static Path socketDirectory() {
+        String runtimeDirectory = System.getenv(RUNTIME_DIRECTORY_VARIABLE);
+        if (runtimeDirectory != null && !runtimeDirectory.isBlank()) {
+            return Paths.get(runtimeDirectory);
+        }
+        return Paths.get(System.getProperty("java.io.tmpdir"), "sqlift-" + System.getProperty("user.name"));
+    }
+
+    // Crea el directorio con permisos 0700. Si ya existía debe ser un directorio del usuario sin permisos para
+    // nadie más: otro usuario pudo crearlo antes para poner su propio socket
+    static void createPrivateDirectory(Path directory) throws IOException {
+        try {
+            Files.createDirectory(directory,
+                PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        } catch (FileAlreadyExistsException e) {
+            // Se revisa abajo
+        } catch (UnsupportedOperationException e) {
+            // Sistema de archivos sin permisos POSIX
+            Files.createDirectories(directory);
+        }
+        if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS) || !isOwnedByCurrentUser(directory)) {
+            throw new IOException("Socket directory is not owned by the current user: " + directory);
+        }
+        try {
+            Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(directory, LinkOption.NOFOLLOW_LINKS);
+            for (PosixFilePermission permission : permissions) {
+                if (permission.name().startsWith("GROUP_") || permission.name().startsWith("OTHERS_")) {
+                    throw new IOException("Socket directory is accessible by other users: " + directory);
+                }
+            }
+        } catch (UnsupportedOperationException e) {
+            // Sistema de archivos sin permisos POSIX
+        }
+    }
+
+    static boolean isOwnedByCurrentUser(Path path) throws IOException {
+        UserPrincipal user = path.getFileSystem().getUserPrincipalLookupService()
+            .lookupPrincipalByName(System.getProperty("user.name"));
+        return user.equals(Files.getOwner(path, LinkOption.NOFOLLOW_LINKS));
+    }
+
+    // true si el daemon atendió el pedido. --watch y stdin se quedan en el proceso: el daemon no ve la terminal
+    public static boolean forwardGenerate(String[] args) {
+        if (args.length > MAX_ARGUMENTS) {
+            return false;
+        }
+        for (int i = 1; i < args.length; i++) {
+            if ("--watch".equals(args[i]) || "-".equals(args[i])) {
+                return false;
+            }
+        }
+        // Si el daemon se cae a mitad del pedido se genera en el proceso: generar dos veces deja el mismo resultado
+        try (SocketChannel channel = connect()) {
+            if (channel == null) {
+                return false;
+            }
+            DataOutputStream request = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            writeHeader(request, GENERATE);
+            request.writeUTF(Paths.get("").toAbsolutePath().toString());
+            request.writeInt(args.length);
+            for (String arg : args) {
+                request.writeUTF(arg);
+            }
+            request.flush();
+
+            DataInputStream response = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            String output = readText(response);
+            String errors = readText(response);
+            print(System.out, output);
+            print(System.err, errors);
+            return true;
+
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    static boolean stop() throws IOException {
+        try (SocketChannel channel = connect()) {
+            if (channel == null) {
+                return false;
+            }
+            DataOutputStream request = new DataOutputStream(Channels.newOutputStream(channel));
+            writeHeader(request, STOP);
+            request.flush();
+            // El daemon cierra la conexión cuando deja de aceptar pedidos
+            Channels.newInputStream(channel).read();
+            return true;
+        }
+    }
+
+    static boolean isRunning() {
+        try (SocketChannel channel = connect()) {
+            return channel != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // null si no hay daemon: sin archivo de socket ni siquiera se intenta conectar. Un socket de otro usuario
+    // recibiría los pedidos y podría responderlos; en ese caso se genera en el proceso
+    private static SocketChannel connect() throws IOException {
+        Path socket = socketPath();
+        if (!Files.exists(socket, LinkOption.NOFOLLOW_LINKS) || !isOwnedByCurrentUser(socket)) {
+            return null;
+        }
+        SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            channel.connect(UnixDomainSocketAddress.of(socket));
+            return channel;
+        } catch (IOException e) {
+            // Un socket que quedó de un daemon que terminó sin limpiar
+            channel.close();
+            return null;
+        }
+    }
+
+    private static void writeHeader(DataOutputStream request, byte type) throws IOException {
+        request.writeUTF(MAGIC);
+        request.writeUTF(CommandLineApp.VERSION);
+        request.writeByte(type);
+    }
+
+    static void writeText(DataOutputStream output, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    static String readText(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            throw new IOException("Invalid response from daemon");
+        }
+        return new String(input.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static void print(PrintStream stream, String text) {
+        stream.print(text);
+        stream.flush();
+    }
+}
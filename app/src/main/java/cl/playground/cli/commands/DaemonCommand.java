@@ -0,0 +1,175 @@
+package cl.playground.cli.commands;
+
+import cl.playground.cli.CommandLineApp;
+import cl.playground.exception.ConfigurationException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code sqlift daemon}: un proceso que queda escuchando en un socket Unix y atiende los {@code generate}
+ * que le reenvía {@link DaemonClient}. Mantiene el JIT caliente y una {@link GenerationSession} por proyecto,
+ * así cada pedido solo paga lo que cambió. {@code sqlift daemon stop} lo detiene.
+ */
+public class DaemonCommand {
+    private final Map<String, GenerationSession> sessions = new ConcurrentHashMap<>();
+
+    public void run(String[] args) {
+        try {
+            if (args.length > 1 && "stop".equals(args[1])) {
+                System.out.println(DaemonClient.stop() ? "🛑 Daemon stopped" : "No daemon is running");
+                return;
+            }
+            serve(DaemonClient.socketPath());
+
+        } catch (IOException e) {
+            throw new ConfigurationException("Daemon error: " + e.getMessage(), e);
+        }
+    }
+
+    private void serve(Path socket) throws IOException {
+        if (DaemonClient.isRunning()) {
+            throw new ConfigurationException("A daemon is already listening on " + socket);
+        }
+        // Sin SQLIFT_DAEMON_SOCKET el socket nace dentro de un directorio privado: nadie más alcanza a
+        // conectarse antes de que se ajusten sus permisos
+        if (socket.getParent() != null && socket.getParent().equals(DaemonClient.socketDirectory())) {
+            DaemonClient.createPrivateDirectory(socket.getParent());
+        }
+        // Lo que quede es el socket de un daemon que terminó sin limpiar
+        Files.deleteIfExists(socket);
+
+        ExecutorService workers = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "sqlift-daemon-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            // El daemon escribe archivos en nombre de quien se conecte: solo el dueño puede usar el socket
+            try {
+                Files.setPosixFilePermissions(socket, PosixFilePermissions.fromString("rw-------"));
+            } catch (UnsupportedOperationException e) {
+                // Sistema de archivos sin permisos POSIX
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> deleteSocket(socket)));
+            System.out.println("🚀 SQLift daemon listening on " + socket);
+
+            while (server.isOpen()) {
+                SocketChannel client;
+                try {
+                    client = server.accept();
+                } catch (ClosedChannelException e) {
+                    // sqlift daemon stop cerró el socket
+                    break;
+                }
+                workers.execute(() -> handle(client, server));
+            }
+        } finally {
+            // Los pedidos en curso terminan de escribir sus entidades antes de salir
+            workers.shutdown();
+            awaitWorkers(workers);
+            deleteSocket(socket);
+        }
+    }
+
+    private void handle(SocketChannel client, ServerSocketChannel server) {
+        try (client) {
+            DataInputStream request = new DataInputStream(new BufferedInputStream(Channels.newInputStream(client)));
+            if (!DaemonClient.MAGIC.equals(request.readUTF()) || !CommandLineApp.VERSION.equals(request.readUTF())) {
+                return;
+            }
+            byte type = request.readByte();
+            if (type == DaemonClient.STOP) {
+                server.close();
+                return;
+            }
+            if (type != DaemonClient.GENERATE) {
+                return;
+            }
+
+            Path projectDirectory = Paths.get(request.readUTF());
+            String[] args = readArguments(request);
+            if (args == null) {
+                return;
+            }
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            ByteArrayOutputStream errors = new ByteArrayOutputStream();
+            try (PrintStream out = new PrintStream(output, true, StandardCharsets.UTF_8);
+                 PrintStream err = new PrintStream(errors, true, StandardCharsets.UTF_8)) {
+                generate(projectDirectory, args, out, err);
+            }
+
+            DataOutputStream response = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(client)));
+            DaemonClient.writeText(response, output.toString(StandardCharsets.UTF_8));
+            DaemonClient.writeText(response, errors.toString(StandardCharsets.UTF_8));
+            response.flush();
+
+        } catch (IOException e) {
+            // El cliente se desconectó: generará en su propio proceso
+        }
+    }
+
+    // null si la cantidad de argumentos no es válida: se rechaza igual que un pedido de otra versión, sin
+    // reservar un arreglo del tamaño que mande quien se conectó
+    static String[] readArguments(DataInputStream request) throws IOException {
+        int count = request.readInt();
+        if (count < 0 || count > DaemonClient.MAX_ARGUMENTS) {
+            return null;
+        }
+        String[] args = new String[count];
+        for (int i = 0; i < count; i++) {
+            args[i] = request.readUTF();
+        }
+        return args;
+    }
+
+    // Los mismos mensajes que CommandLineApp muestra cuando el comando falla dentro del proceso
+    private void generate(Path projectDirectory, String[] args, PrintStream out, PrintStream err) {
+        try {
+            new GenerateCommand(projectDirectory, out, err, sessions).run(args);
+        } catch (ConfigurationException e) {
+            err.println("❌ Error: " + e.getMessage());
+        } catch (Exception e) {
+            err.println("❌ An unexpected error occurred. Please contact support.");
+        }
+    }
+
+    private static void awaitWorkers(ExecutorService workers) {
+        try {
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void deleteSocket(Path socket) {
+        try {
+            Files.deleteIfExists(socket);
+        } catch (IOException e) {
+            // Se borrará al iniciar el próximo daemon
+        }
+    }
+}
@@ -4,27 +4,50 @@ import cl.playground.config.model.SqliftConfig;
 import cl.playground.config.reader.YamlReader;
 import cl.playground.core.engine.PostgresEngine;
 import cl.playground.core.engine.SchemaProcessor;
-import cl.playground.core.generator.EntityGenerator;
-import cl.playground.core.generator.factory.UtilsFactory;
-import cl.playground.core.model.TableMetadata;
+import cl.playground.core.generator.EntityWriter;
+import cl.playground.core.generator.factory.NamingService;
+import cl.playground.core.model.SchemaCatalog;
 import cl.playground.core.reader.SqlReader;
+import cl.playground.core.types.TypeResolver;
 import cl.playground.exception.ConfigurationException;
+import cl.playground.exception.FileReadException;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.PrintStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class GenerateCommand {
     private static final String CONFIG_FILE = "sqlift.yaml";
+    private static final String WATCH_OPTION = "--watch";
+    private static final String ARCHIVE_OPTION = "--archive";
 
-    public void run() {
+    private final Path projectDirectory;
+    private final PrintStream out;
+    private final PrintStream err;
+    private final Map<String, GenerationSession> sessions; // null: cada ejecución empieza sin estado
+
+    public GenerateCommand() {
+        this(Paths.get(""), System.out, System.err, null);
+    }
+
+    // El daemon ejecuta cada pedido en el directorio del cliente, con su salida, y conserva las sesiones entre pedidos
+    GenerateCommand(Path projectDirectory, PrintStream out, PrintStream err, Map<String, GenerationSession> sessions) {
+        this.projectDirectory = projectDirectory;
+        this.out = out;
+        this.err = err;
+        this.sessions = sessions;
+    }
+
+    // sqlift generate [schema] [--watch | --archive <file>]: el argumento reemplaza al schema de sqlift.yaml
+    // y "-" lee desde stdin
+    public void run(String[] args) {
         try {
-            String currentDir = System.getProperty("user.dir");
+            String currentDir = projectDirectory.toAbsolutePath().toString();
             File yamlFile = new File(currentDir, CONFIG_FILE);
 
             if (!yamlFile.exists()) {
@@ -32,33 +55,123 @@ public class GenerateCommand {
             }
 
             Map<String, Object> context = extractConfigContext(yamlFile.getPath());
-            String sqlContent = SqlReader.readSql((String) context.get("schema"));
-            context.put("sqlContent", sqlContent);
-
-            PostgresEngine engine = new PostgresEngine();
-            SchemaProcessor schemaProcessor = new SchemaProcessor(engine);
-            List<TableMetadata> tables = schemaProcessor.processSchema(sqlContent);
-
-            EntityGenerator generator = new EntityGenerator((boolean) context.get("useLombok"));
-            String packageName = (String) context.get("outputPackage");
-            for (TableMetadata table : tables) {
-                String entity = generator.generateEntity(table, packageName);
-                writeEntityFile(packageName, UtilsFactory.generateClassName(table.getTableName()), entity);
+            String schema = (String) context.get("schema");
+            boolean watch = false;
+            String archive = null;
+            for (int i = 1; i < args.length; i++) {
+                if (WATCH_OPTION.equals(args[i])) {
+                    watch = true;
+                } else if (ARCHIVE_OPTION.equals(args[i])) {
+                    if (++i == args.length) {
+                        throw new ConfigurationException("--archive needs the .jar or .zip file to write");
+                    }
+                    archive = args[i];
+                } else {
+                    schema = args[i];
+                }
+            }
+            if (watch && SqlReader.isStdin(schema)) {
+                throw new ConfigurationException("--watch needs a schema file or migration directory, not stdin");
+            }
+            if (watch && archive != null) {
+                throw new ConfigurationException("--watch and --archive cannot be used together");
+            }
+
+            GenerationSession session = session(context, schema);
+            if (watch) {
+                watch(session, schema);
+                return;
             }
 
-            System.out.println("✅ Entities generated successfully!");
+            // Solo se regeneran las entidades cuya huella cambió desde la última ejecución
+            synchronized (session) {
+                SchemaCatalog tables = session.loadSchema(out);
+                if (archive != null) {
+                    out.printf("📦 Wrote %d entities to %s%n", session.writeArchive(tables, archive), archive);
+                } else {
+                    int generated = session.writeEntities(tables);
+                    out.printf("📝 Regenerated %d of %d entities%n", generated, tables.size());
+                }
+            }
+            out.println("✅ Entities generated successfully!");
 
         } catch (ConfigurationException e) {
-            System.err.println("❌ Configuration Error: " + e.getMessage());
+            err.println("❌ Configuration Error: " + e.getMessage());
+
+        } catch (FileReadException e) {
+            err.println("❌ Input Error: " + e.getMessage());
 
         } catch (IllegalArgumentException e) {
-            System.err.println("❌ Schema Error: " + e.getMessage());
+            err.println("❌ Schema Error: " + e.getMessage());
 
         } catch (Exception e) {
             throw new ConfigurationException("An unexpected error occurred during generation", e);
         }
     }
 
+    // Sin daemon la sesión vive lo que dura el comando; el daemon reutiliza la del mismo proyecto y configuración
+    private GenerationSession session(Map<String, Object> context, String schema) {
+        Integer parallelism = (Integer) context.get("parallelism");
+        String packageName = (String) context.get("outputPackage");
+        boolean useLombok = (boolean) context.get("useLombok");
+        @SuppressWarnings("unchecked")
+        Map<String, String> plurals = (Map<String, String>) context.get("plurals");
+        @SuppressWarnings("unchecked")
+        Map<String, String> types = (Map<String, String>) context.get("types");
+        if (sessions == null || SqlReader.isStdin(schema)) {
+            return newSession(parallelism, schema, packageName, useLombok, plurals, types);
+        }
+        String key = String.join("\n", projectDirectory.toString(), schema, packageName,
+            String.valueOf(useLombok), String.valueOf(parallelism), String.valueOf(plurals), String.valueOf(types));
+        return sessions.computeIfAbsent(key,
+            ignored -> newSession(parallelism, schema, packageName, useLombok, plurals, types));
+    }
+
+    private GenerationSession newSession(Integer parallelism, String schema, String packageName, boolean useLombok,
+                                         Map<String, String> plurals, Map<String, String> types) {
+        PostgresEngine engine = new PostgresEngine();
+        int threads = parallelism != null ? parallelism : Runtime.getRuntime().availableProcessors();
+        SchemaProcessor schemaProcessor = new SchemaProcessor(engine, threads);
+        return new GenerationSession(engine, schemaProcessor, new EntityWriter(threads), new NamingService(plurals),
+            new TypeResolver(types), projectDirectory, schema, packageName, useLombok);
+    }
+
+    // El modelo queda en memoria entre ediciones: cada cambio relee el esquema, parsea solo las sentencias
+    // editadas y reescribe solo las entidades afectadas. Un error no detiene la vigilancia
+    private void watch(GenerationSession session, String schema) throws IOException {
+        try (SchemaWatcher watcher = new SchemaWatcher(session.getSchemaPath())) {
+            regenerate(session);
+            out.println("👀 Watching " + schema + " for changes (Ctrl+C to stop)");
+            while (true) {
+                watcher.awaitChange();
+                regenerate(session);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Un esquema que el editor borra y vuelve a crear al guardar, o una entidad que no se pudo escribir, se
+    // informan y se vuelve a intentar en el siguiente cambio
+    void regenerate(GenerationSession session) {
+        long start = System.nanoTime();
+        try {
+            SchemaCatalog tables = session.reloadSchema();
+            int generated = session.writeEntities(tables);
+            out.printf("📝 Regenerated %d of %d entities in %d ms%n", generated, tables.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        } catch (FileReadException e) {
+            err.println("❌ Input Error: " + e.getMessage());
+
+        } catch (IllegalArgumentException e) {
+            err.println("❌ Schema Error: " + e.getMessage());
+
+        } catch (IOException e) {
+            err.println("❌ I/O Error: " + e.getMessage());
+        }
+    }
+
     private Map<String, Object> extractConfigContext(String configPath) {
         Map<String, Object> context = new HashMap<>();
         SqliftConfig config = YamlReader.readConfig(configPath);
@@ -72,21 +185,12 @@ public class GenerateCommand {
         context.put("config", config);
         context.put("engine", config.getSql().getEngine());
         context.put("schema", config.getSql().getSchema());
+        context.put("parallelism", config.getSql().getParallelism());
         context.put("outputPackage", config.getSql().getOutput().getPackageName());
         context.put("useLombok", config.getSql().getOutput().isUseLombok());
+        context.put("plurals", config.getSql().getOutput().getPlurals());
+        context.put("types", config.getSql().getOutput().getTypes());
 
         return context;
     }
-
-    private void writeEntityFile(String packageName, String className, String content) throws Exception {
-        String packagePath = packageName.replace('.', '/');
-        Path directory = Paths.get("src/main/java".replace("/", File.separator),
-            packagePath.replace("/", File.separator));
-
-        Files.createDirectories(directory);
-        Files.writeString(directory.resolve(className + ".java"), content);
-        if (!Files.isWritable(directory)) {
-            throw new IOException("Write permission denied for: " + directory);
-        }
-    }
 }
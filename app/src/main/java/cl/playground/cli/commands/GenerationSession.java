@@ -0,0 +1,231 @@
+package cl.playground.cli.commands;
+
+import cl.playground.cli.CommandLineApp;
+import cl.playground.core.engine.PostgresEngine;
+import cl.playground.core.engine.SchemaCache;
+import cl.playground.core.engine.SchemaProcessor;
+import cl.playground.core.generator.EntityGenerator;
+import cl.playground.core.generator.EntitySource;
+import cl.playground.core.generator.EntityWriter;
+import cl.playground.core.generator.GenerationManifest;
+import cl.playground.core.generator.SourceArchive;
+import cl.playground.core.generator.factory.NamingService;
+import cl.playground.core.types.TypeResolver;
+import cl.playground.core.migration.MigrationDirectory;
+import cl.playground.core.migration.MigrationReplayer;
+import cl.playground.core.model.SchemaCatalog;
+import cl.playground.core.model.TableMetadata;
+import cl.playground.core.parser.DdlScript;
+import cl.playground.core.parser.IncrementalDdlParser;
+import cl.playground.core.reader.SqlReader;
+import cl.playground.exception.FileReadException;
+
+import java.io.CharArrayWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Lo que se conserva entre una generación y la siguiente: el procesador, el esquema ya parseado y las huellas
+ * de las entidades escritas. Así, en el modo --watch, cada edición solo vuelve a parsear las sentencias
+ * que cambiaron y solo reescribe las entidades afectadas; el daemon conserva una sesión por proyecto.
+ */
+class GenerationSession {
+    private static final String MIGRATION_SNAPSHOT = ".sqlift/migrations.snapshot";
+    private static final String SCHEMA_CACHE = ".sqlift/schema.cache";
+    private static final String ENTITY_MANIFEST = ".sqlift/entities.manifest";
+
+    private final PostgresEngine engine;
+    private final SchemaProcessor schemaProcessor;
+    private final Path projectDirectory;
+    private final String schema;     // tal como aparece en sqlift.yaml o en la línea de comandos
+    private final String schemaPath; // resuelto contra el directorio del proyecto
+    private final String packageName;
+    private final NamingService naming;
+    private final EntityGenerator generator;
+    private final EntityWriter writer;
+    private final String generationKey;
+    private final Path manifestFile;
+    private final IncrementalDdlParser parser = new IncrementalDdlParser();
+
+    // Último modelo cargado de un archivo y la huella de su contenido
+    private SchemaCatalog schemaCatalog;
+    private long schemaFingerprint;
+    private GenerationManifest manifest;
+    private FileTime manifestModified;
+
+    GenerationSession(PostgresEngine engine, SchemaProcessor schemaProcessor, EntityWriter writer, NamingService naming,
+                      TypeResolver types, Path projectDirectory, String schema, String packageName, boolean useLombok) {
+        this.engine = engine;
+        this.schemaProcessor = schemaProcessor;
+        this.projectDirectory = projectDirectory;
+        this.schema = schema;
+        this.schemaPath = SqlReader.isStdin(schema) ? schema : projectDirectory.resolve(schema).toString();
+        this.packageName = packageName;
+        this.naming = naming;
+        this.generator = new EntityGenerator(useLombok, naming, types);
+        this.writer = writer;
+        // Cambiar la versión, el código que se genera, el paquete, Lombok, los plurales o los tipos configurados
+        // invalida todas las entidades generadas
+        StringBuilder key = new StringBuilder(String.join("\n", CommandLineApp.VERSION,
+            String.valueOf(EntityGenerator.OUTPUT_VERSION), packageName, String.valueOf(useLombok)));
+        if (!naming.getConfiguredPlurals().isEmpty()) {
+            key.append('\n').append(naming.getConfiguredPlurals());
+        }
+        if (!types.getConfiguredOverrides().isEmpty()) {
+            key.append("\ntypes ").append(types.getConfiguredOverrides());
+        }
+        this.generationKey = key.toString();
+        this.manifestFile = projectDirectory.resolve(ENTITY_MANIFEST);
+    }
+
+    Path getSchemaPath() {
+        return Paths.get(schemaPath);
+    }
+
+    // stdin, los dumps comprimidos y los .sql de más de 2 GB se parsean a medida que llegan; un .sql normal se
+    // mapea en memoria y un directorio se trata como migraciones, reproduciendo solo las que no están en el snapshot.
+    // El modelo de un archivo se guarda en el caché y se reutiliza mientras su contenido no cambie
+    SchemaCatalog loadSchema(PrintStream out) throws IOException {
+        if (MigrationDirectory.isMigrationDirectory(schemaPath)) {
+            MigrationReplayer replayer = new MigrationReplayer(engine, projectDirectory.resolve(MIGRATION_SNAPSHOT));
+            DdlScript script = replayer.replay(Paths.get(schemaPath));
+            out.printf("🔁 Replayed %d of %d migrations%n", replayer.getReplayed(), replayer.getTotal());
+            return schemaProcessor.processSchema(script);
+        }
+        if (SqlReader.isStdin(schemaPath) || !Files.isRegularFile(Paths.get(schemaPath))) {
+            return parseSchema();
+        }
+
+        // Un archivo que no cambió desde la última ejecución se lee del caché sin parsearlo; si la sesión ya lo
+        // tiene en memoria (el daemon) ni siquiera se lee el caché, salvo que lo hayan borrado para forzar el parseo
+        Path cacheFile = projectDirectory.resolve(SCHEMA_CACHE);
+        long fingerprint = SchemaCache.fingerprint(Paths.get(schemaPath));
+        if (schemaCatalog != null && schemaFingerprint == fingerprint && Files.isRegularFile(cacheFile)) {
+            out.println("⚡ Schema unchanged, using the cached model");
+            return schemaCatalog;
+        }
+        SchemaCache cache = new SchemaCache(cacheFile, CommandLineApp.VERSION);
+        SchemaCatalog catalog = cache.read(schema, fingerprint);
+        if (catalog != null) {
+            out.println("⚡ Schema unchanged, using the cached model");
+        } else {
+            catalog = parseSchema();
+            cache.write(schema, fingerprint, catalog);
+        }
+        schemaCatalog = catalog;
+        schemaFingerprint = fingerprint;
+        return catalog;
+    }
+
+    // Para --watch: relee el esquema reutilizando lo parseado en la lectura anterior; un directorio de
+    // migraciones solo reproduce las migraciones nuevas o modificadas
+    SchemaCatalog reloadSchema() throws IOException {
+        if (MigrationDirectory.isMigrationDirectory(schemaPath)) {
+            MigrationReplayer replayer = new MigrationReplayer(engine, projectDirectory.resolve(MIGRATION_SNAPSHOT));
+            return schemaProcessor.processSchema(replayer.replay(Paths.get(schemaPath)));
+        }
+        DdlScript script = parser.parse(readSchema());
+        return schemaProcessor.processSchema(script);
+    }
+
+    // Genera solo las entidades cuya huella cambió desde la última generación y escribe las que quedaron
+    // distintas a lo que hay en disco; devuelve cuántos archivos cambiaron. Cada entidad se genera recién
+    // cuando el escritor llega a ella
+    int writeEntities(SchemaCatalog tables) throws IOException {
+        GenerationManifest previous = currentManifest();
+        GenerationManifest updated = new GenerationManifest(projectDirectory, generationKey);
+        Map<Path, EntitySource> changed = new LinkedHashMap<>();
+        Map<String, String> classes = new HashMap<>();
+        for (TableMetadata table : tables) {
+            Path entityFile = entityFile(className(classes, table));
+            long fingerprint = GenerationManifest.fingerprint(table);
+            if (!previous.isUpToDate(entityFile, fingerprint)) {
+                changed.put(entityFile, buffer -> generator.generateEntity(table, packageName, buffer));
+            }
+            updated.put(entityFile, fingerprint);
+        }
+        int written = writer.write(changed);
+        // Si todas estaban al día y son las mismas entidades, el manifiesto no cambió
+        if (!changed.isEmpty() || updated.size() != previous.size()) {
+            updated.write(manifestFile);
+            manifest = updated;
+            manifestModified = Files.getLastModifiedTime(manifestFile);
+        }
+        return written;
+    }
+
+    // Todas las entidades a un -sources.jar o ZIP, sin archivos sueltos ni manifiesto; devuelve cuántas escribió.
+    // Las entradas quedan en el orden de las tablas aunque se generen en paralelo
+    int writeArchive(SchemaCatalog tables, String archive) throws IOException {
+        List<Map.Entry<String, EntitySource>> entities = new ArrayList<>(tables.size());
+        Map<String, String> classes = new HashMap<>();
+        for (TableMetadata table : tables) {
+            entities.add(Map.entry(className(classes, table),
+                buffer -> generator.generateEntity(table, packageName, buffer)));
+        }
+        try (SourceArchive sources = new SourceArchive(projectDirectory.resolve(archive))) {
+            writer.write(sources, packageName, entities);
+            sources.commit();
+        }
+        return tables.size();
+    }
+
+    // El nombre de la clase de la tabla; dos tablas que generan la misma clase se pisarían el archivo
+    private String className(Map<String, String> classes, TableMetadata table) {
+        String className = naming.className(table.getTableName());
+        String previous = classes.putIfAbsent(className, table.getTableName());
+        if (previous != null) {
+            throw new IllegalArgumentException("Las tablas " + previous + " y " + table.getTableName()
+                + " generan la misma clase: " + className);
+        }
+        return className;
+    }
+
+    // Otro proceso (la CLI sin daemon, otro --watch) pudo reescribir el manifiesto: si cambió en disco se relee
+    private GenerationManifest currentManifest() throws IOException {
+        FileTime modified = Files.isRegularFile(manifestFile) ? Files.getLastModifiedTime(manifestFile) : null;
+        if (manifest == null || !Objects.equals(modified, manifestModified)) {
+            manifest = GenerationManifest.read(projectDirectory, manifestFile, generationKey);
+            manifestModified = modified;
+        }
+        return manifest;
+    }
+
+    private SchemaCatalog parseSchema() throws IOException {
+        if (!SqlReader.isStream(schemaPath)) {
+            return schemaProcessor.processSchema(SqlReader.mapSql(schemaPath));
+        }
+        try (Reader reader = SqlReader.openSql(schemaPath)) {
+            return schemaProcessor.processSchema(reader);
+        }
+    }
+
+    private char[] readSchema() throws IOException {
+        try (Reader reader = SqlReader.openSql(schemaPath)) {
+            CharArrayWriter content = new CharArrayWriter();
+            reader.transferTo(content);
+            return content.toCharArray();
+        } catch (IOException e) {
+            throw new FileReadException("Error reading SQL input: " + schemaPath, e);
+        }
+    }
+
+    private Path entityFile(String className) {
+        String packagePath = packageName.replace('.', '/');
+        Path directory = projectDirectory.resolve(Paths.get("src/main/java".replace("/", File.separator),
+            packagePath.replace("/", File.separator)));
+        return directory.resolve(className + ".java");
+    }
+}
@@ -47,12 +47,13 @@ public class InitCommand {
             
             **Field descriptions**:
             - `engine`: Defines the database engine (e.g., `postgres`, `mysql`).
-            - `schema`: Path to the `.sql` file containing the database schema.
+            - `schema`: Path to the `.sql` file containing the database schema, or to a directory of Flyway migrations (`V1__init.sql`, `V2__add_orders.sql`, ...). Migrations are replayed in version order and the resulting schema is saved in `.sqlift/migrations.snapshot`, so later runs only replay new migrations. The model parsed from a schema file is cached in `.sqlift/schema.cache` and reused while the file does not change.
+            - `parallelism` (optional): Number of threads used to process the schema tables. Defaults to the number of available processors; `1` processes them sequentially.
             - `output`: Defines the package where the Java entities will be generated and whether Lombok annotations are enabled.
             
             ## SQL Schema Structure
             
-            For SQLift to work properly, the SQL schema must have the relationships between tables defined within the `CREATE TABLE` statements, not through `ALTER TABLE` commands.
+            SQLift reads primary keys and relationships declared inside the `CREATE TABLE` statements, as well as those added afterwards with `ALTER TABLE [ONLY] ... ADD CONSTRAINT`, which is how `pg_dump` writes them.
             
             Here is an example of a compatible SQL schema:
             
@@ -83,11 +84,19 @@ public class InitCommand {
             );
             ```
             
+            The same relationships can also be declared after the tables, as in a `pg_dump` output:
+            
+            ```sql
+            ALTER TABLE ONLY branch_stock
+                ADD CONSTRAINT branch_stock_branch_id_fkey FOREIGN KEY (branch_id) REFERENCES branches(id);
+            ```
+            
             **Important points**:
-            - Relationships between tables must be defined within the `CREATE TABLE` statement, as shown in the examples above.
+            - Relationships can be defined within the `CREATE TABLE` statement or with `ALTER TABLE ... ADD CONSTRAINT`; other `ALTER TABLE` actions are ignored.
+            - A constraint added with `ALTER TABLE` must target a table created in the same schema file.
             - Be sure to use foreign keys (`FOREIGN KEY`) in the appropriate place to establish relationships between tables.
             
-            With this configuration and the correct schema, you can run `sqlift generate` to generate the corresponding Java entity classes.
+            With this configuration and the correct schema, you can run `sqlift generate` to generate the corresponding Java entity classes, or `sqlift generate --watch` to regenerate them every time the schema changes.
             
             Ready to get started!
             """;
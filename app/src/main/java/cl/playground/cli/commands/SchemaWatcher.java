@@ -0,0 +1,97 @@
+package cl.playground.cli.commands;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Espera cambios en el esquema con {@link WatchService}. Un archivo se vigila a través de su directorio
+ * (los editores suelen guardar escribiendo otro archivo y renombrándolo); un directorio de migraciones se vigila
+ * completo, incluidos los subdirectorios que se creen después. Las ráfagas de eventos de un mismo guardado
+ * se agrupan: solo se avisa cuando pasa la ventana de espera sin eventos nuevos.
+ */
+class SchemaWatcher implements Closeable {
+    private static final long DEBOUNCE_MILLIS = 50;
+
+    private final WatchService watchService;
+    private final Path schemaFile; // null si se vigila un directorio de migraciones
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+
+    SchemaWatcher(Path schema) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        Path absolute = schema.toAbsolutePath().normalize();
+        if (Files.isDirectory(absolute)) {
+            this.schemaFile = null;
+            registerTree(absolute);
+        } else {
+            this.schemaFile = absolute;
+            register(absolute.getParent());
+        }
+    }
+
+    // Bloquea hasta que el esquema cambie y los eventos se calmen
+    void awaitChange() throws IOException, InterruptedException {
+        boolean changed = false;
+        while (!changed) {
+            changed = drain(watchService.take());
+        }
+        WatchKey key;
+        while ((key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+            drain(key);
+        }
+    }
+
+    private boolean drain(WatchKey key) throws IOException {
+        Path directory = directories.get(key);
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            // Si se perdieron eventos no se sabe qué cambió: se regenera igual
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || directory == null) {
+                relevant = true;
+                continue;
+            }
+            Path changed = directory.resolve((Path) event.context());
+            if (schemaFile != null) {
+                relevant |= changed.equals(schemaFile);
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(changed)) {
+                registerTree(changed);
+                relevant = true;
+            } else {
+                relevant |= changed.getFileName().toString().toLowerCase().endsWith(".sql");
+            }
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+        return relevant;
+    }
+
+    private void registerTree(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path directory : (Iterable<Path>) paths.filter(Files::isDirectory)::iterator) {
+                register(directory);
+            }
+        }
+    }
+
+    private void register(Path directory) throws IOException {
+        WatchKey key = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        directories.put(key, directory);
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
@@ -1,5 +1,8 @@
 package cl.playground.config.model;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class SqliftConfig {
     private String version;
     private SqlConfig sql;
@@ -34,6 +37,7 @@ public class SqliftConfig {
     public static class SqlConfig {
         private String engine;
         private String schema;
+        private Integer parallelism;
         private OutputConfig output;
 
         public SqlConfig() {
@@ -55,6 +59,15 @@ public class SqliftConfig {
             this.schema = schema;
         }
 
+        // Hilos para procesar el esquema; null usa todos los procesadores disponibles
+        public Integer getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(Integer parallelism) {
+            this.parallelism = parallelism;
+        }
+
         public OutputConfig getOutput() {
             return output;
         }
@@ -68,6 +81,7 @@ public class SqliftConfig {
             return "SqlConfig{" +
                     "engine='" + engine + '\'' +
                     ", schema='" + schema + '\'' +
+                    ", parallelism=" + parallelism +
                     ", output=" + output +
                     '}';
         }
@@ -76,6 +90,8 @@ public class SqliftConfig {
     public static class OutputConfig {
         private String packageName;
         private boolean useLombok;
+        private Map<String, String> plurals = new LinkedHashMap<>();
+        private Map<String, String> types = new LinkedHashMap<>();
 
         public OutputConfig() {
         }
@@ -96,11 +112,31 @@ public class SqliftConfig {
             this.useLombok = useLombok;
         }
 
+        // Plurales irregulares: singular -> plural, para los nombres de tabla y de las colecciones OneToMany
+        public Map<String, String> getPlurals() {
+            return plurals;
+        }
+
+        public void setPlurals(Map<String, String> plurals) {
+            this.plurals = plurals;
+        }
+
+        // Tipos Java que reemplazan a los de siempre: tipo de PostgreSQL -> tipo Java, simple o calificado
+        public Map<String, String> getTypes() {
+            return types;
+        }
+
+        public void setTypes(Map<String, String> types) {
+            this.types = types;
+        }
+
         @Override
         public String toString() {
             return "OutputConfig{" +
                     "packageName='" + packageName + '\'' +
                     ", useLombok=" + useLombok +
+                    ", plurals=" + plurals +
+                    ", types=" + types +
                     '}';
         }
     }
@@ -3,12 +3,14 @@ package cl.playground.config.parser;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.Map;
 
 import cl.playground.config.model.SqliftConfig;
 import cl.playground.exception.ConfigurationException;
 
 public class YamlParser {
     private static final String INDENT = "  ";
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
 
     public SqliftConfig parse(String filePath) throws IOException {
 
@@ -38,19 +40,23 @@ public class YamlParser {
 
     private void parseSqlConfig(BufferedReader br, SqliftConfig.SqlConfig sqlConfig) throws IOException {
         String line;
-        while ((line = br.readLine()) != null) {
+        while ((line = nextLine(br)) != null) {
+            if (isSkippable(line.trim())) {
+                continue;
+            }
             if (!line.startsWith(INDENT)) {
+                // La línea pertenece al nivel superior: se devuelve para que la lea quien llamó
+                br.reset();
                 break;
             }
             line = line.trim();
-            if (isSkippable(line)) {
-                continue;
-            }
 
             if (line.startsWith("engine:")) {
                 sqlConfig.setEngine(extractValue(line));
             } else if (line.startsWith("schema:")) {
                 sqlConfig.setSchema(extractValue(line));
+            } else if (line.startsWith("parallelism:")) {
+                sqlConfig.setParallelism(parsePositiveInt(extractValue(line), "Parallelism must be a positive integer"));
             } else if (line.startsWith("output:")) {
                 SqliftConfig.OutputConfig outputConfig = new SqliftConfig.OutputConfig();
                 sqlConfig.setOutput(outputConfig);
@@ -61,22 +67,68 @@ public class YamlParser {
 
     private void parseOutputConfig(BufferedReader br, SqliftConfig.OutputConfig outputConfig) throws IOException {
         String line;
-        while ((line = br.readLine()) != null) {
+        while ((line = nextLine(br)) != null) {
+            if (isSkippable(line.trim())) {
+                continue;
+            }
             if (!line.startsWith(INDENT + INDENT)) {
+                br.reset();
                 break;
             }
             line = line.trim();
-            if (isSkippable(line)) {
-                continue;
-            }
 
             if (line.startsWith("package:")) {
                 outputConfig.setPackageName(extractValue(line));
             } else if (line.startsWith("lombok:")) {
                 // Llamada al método parseOptions si necesitas parsear más opciones
                 outputConfig.setUseLombok(Boolean.parseBoolean(extractValue(line)));
+            } else if (line.startsWith("plurals:")) {
+                parseMappings(br, outputConfig.getPlurals(), "Plurals must be written as 'singular: plural': ");
+            } else if (line.startsWith("types:")) {
+                parseMappings(br, outputConfig.getTypes(), "Types must be written as 'sql_type: JavaType': ");
+            }
+        }
+    }
+
+    // Un par por línea, un nivel más adentro: "person: people" o "jsonb: com.example.Json"
+    private void parseMappings(BufferedReader br, Map<String, String> mappings, String errorMessage)
+        throws IOException {
+        String line;
+        while ((line = nextLine(br)) != null) {
+            if (isSkippable(line.trim())) {
+                continue;
+            }
+            if (!line.startsWith(INDENT + INDENT + INDENT)) {
+                br.reset();
+                break;
+            }
+            line = line.trim();
+
+            String key = line.split(":", 2)[0].trim().replace("\"", "");
+            String value = extractValue(line);
+            if (key.isEmpty() || value.isEmpty()) {
+                throw new ConfigurationException(errorMessage + line);
+            }
+            mappings.put(key, value);
+        }
+    }
+
+    // Marca la posición antes de cada línea para poder devolverla con reset()
+    private String nextLine(BufferedReader br) throws IOException {
+        br.mark(MAX_LINE_LENGTH);
+        return br.readLine();
+    }
+
+    private int parsePositiveInt(String value, String errorMessage) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
             }
+        } catch (NumberFormatException e) {
+            // Se informa igual que un valor fuera de rango
         }
+        throw new ConfigurationException(errorMessage + ": " + value);
     }
 
     private String extractValue(String line) {
@@ -0,0 +1,103 @@
+package cl.playground.core.engine;
+
+import cl.playground.core.model.SchemaCatalog;
+import cl.playground.exception.FileReadException;
+
+import java.io.ByteArrayInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+
+/**
+ * Modelo procesado del último esquema leído, guardado junto a la huella de su contenido.
+ * Mientras el archivo y la versión de SQLift no cambien, el modelo se lee del caché sin parsear el esquema.
+ */
+public class SchemaCache {
+    private static final String MAGIC = "SQLIFT-SCHEMA";
+    private static final int FORMAT_VERSION = 2;
+
+    private final Path cacheFile;
+    private final String toolVersion;
+
+    public SchemaCache(Path cacheFile, String toolVersion) {
+        this.cacheFile = cacheFile;
+        this.toolVersion = toolVersion;
+    }
+
+    // CRC32C y CRC32 usan polinomios distintos y la JVM calcula ambos con instrucciones del procesador:
+    // juntos dan una huella de 64 bits por una fracción de lo que cuesta un SHA-256
+    public static long fingerprint(Path input) throws FileReadException {
+        CRC32C crc32c = new CRC32C();
+        CRC32 crc32 = new CRC32();
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += Integer.MAX_VALUE) {
+                long length = Math.min(Integer.MAX_VALUE, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                crc32c.update(buffer.duplicate());
+                crc32.update(buffer);
+            }
+        } catch (IOException e) {
+            throw new FileReadException("Error reading SQL input: " + input, e);
+        }
+        return crc32c.getValue() << 32 | crc32.getValue();
+    }
+
+    // Un caché ausente, de otra versión, de otro esquema o dañado no es un error: solo obliga a parsear
+    public SchemaCatalog read(String schema, long fingerprint) {
+        if (!Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(cacheFile)))) {
+            if (!MAGIC.equals(input.readUTF()) || input.readInt() != FORMAT_VERSION
+                || !toolVersion.equals(input.readUTF()) || !schema.equals(input.readUTF())
+                || input.readLong() != fingerprint) {
+                return null;
+            }
+            return SchemaCatalog.read(input);
+
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // Se escribe en un archivo temporal y se reemplaza de una vez, así un proceso interrumpido no deja un caché a medias
+    public void write(String schema, long fingerprint, SchemaCatalog catalog) throws FileReadException {
+        try {
+            Path parent = cacheFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temporary = Files.createTempFile(parent, cacheFile.getFileName().toString(), ".tmp");
+
+            try {
+                try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                    output.writeUTF(MAGIC);
+                    output.writeInt(FORMAT_VERSION);
+                    output.writeUTF(toolVersion);
+                    output.writeUTF(schema);
+                    output.writeLong(fingerprint);
+                    catalog.write(output);
+                }
+
+                try {
+                    Files.move(temporary, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporary, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new FileReadException("Error writing schema cache: " + cacheFile, e);
+        }
+    }
+}
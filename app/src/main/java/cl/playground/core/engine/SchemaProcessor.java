@@ -1,119 +1,214 @@
 package cl.playground.core.engine;
 
+import java.io.Reader;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.stream.Collectors;
 
 import cl.playground.core.model.ColumnMetadata;
 import cl.playground.core.model.RelationMetadata;
+import cl.playground.core.model.SchemaCatalog;
+import cl.playground.core.model.SymbolTable;
 import cl.playground.core.model.TableMetadata;
+import cl.playground.core.parser.AlterTableStatement;
+import cl.playground.core.parser.CreateTableStatement;
+import cl.playground.core.parser.DdlScript;
+import cl.playground.core.parser.TableConstraint;
 
+// Sin estado entre llamadas: una misma instancia se puede reutilizar y compartir entre hilos
 public class SchemaProcessor {
+    // Con pocas tablas, repartir la primera pasada entre hilos cuesta más de lo que ahorra
+    private static final int SEQUENTIAL_THRESHOLD = 256;
+    private static final int TASK_SIZE = 64;
+
     private final PostgresEngine engine;
-    private Map<String, List<RelationMetadata>> inverseRelationsMap;
+    private final int parallelism;
+    // Se crea una sola vez; sus hilos nacen bajo demanda y terminan solos cuando quedan inactivos
+    private final ForkJoinPool pool;
 
     public SchemaProcessor(PostgresEngine engine) {
+        this(engine, Runtime.getRuntime().availableProcessors());
+    }
+
+    // parallelism es el número de hilos del pool fork/join de la primera pasada; 1 la hace secuencial
+    public SchemaProcessor(PostgresEngine engine, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("El nivel de paralelismo debe ser mayor que cero: " + parallelism);
+        }
         this.engine = engine;
-        this.inverseRelationsMap = new HashMap<>();
-    }
-
-    public List<TableMetadata> processSchema(String schema) {
-        List<TableMetadata> tables = new ArrayList<>();
-        List<String> statements = engine.extractCreateTableStatements(schema);
-
-        // Primera pasada: procesar estructura básica y relaciones directas
-        statements.forEach(statement -> {
-            TableMetadata table = new TableMetadata();
-            String tableName = engine.extractTableName(statement).toLowerCase(); // Normalizar nombres
-            table.setTableName(tableName);
-
-            // Procesar columnas
-            List<ColumnMetadata> columns = new ArrayList<>();
-            engine.extractColumnDefinitions(statement).forEach(columnDef -> {
-                ColumnMetadata column = new ColumnMetadata();
-                column.setColumnName(engine.extractColumnName(columnDef).toLowerCase());
-                column.setColumnType(engine.extractColumnType(columnDef));
-                column.setNotNull(engine.isNotNullColumn(columnDef));
-                column.setUnique(engine.isUniqueColumn(columnDef));
-                column.setDefaultValue(engine.extractDefaultValue(columnDef));
-                columns.add(column);
-            });
-            table.setColumns(columns);
-
-            // Procesar claves primarias
-            List<String> primaryKeys = engine.extractPrimaryKeyColumns(statement).stream()
-                .map(String::toLowerCase) // Normalizar claves primarias
-                .toList();
-
-            // Validar claves primarias con las columnas
-            primaryKeys.forEach(pk -> {
-                boolean exists = columns.stream()
-                    .anyMatch(column -> column.getColumnName().equals(pk));
-                if (!exists) {
-                    throw new IllegalArgumentException(
-                        String.format("La clave primaria '%s' no coincide con ninguna columna en la tabla '%s'. Columnas disponibles: %s",
-                            pk, tableName,
-                            columns.stream()
-                                .map(ColumnMetadata::getColumnName)
-                                .collect(Collectors.joining(", "))));
-                }
-            });
-            table.setPrimaryKeys(primaryKeys);
-
-            // Procesar relaciones directas
-            List<RelationMetadata> relations = new ArrayList<>();
-            engine.extractTableRelations(statement).forEach(relation -> {
-                String sourceColumn = relation.getSourceColumn().toLowerCase();
-                String targetTable = relation.getTargetTable().toLowerCase();
-                String targetColumn = relation.getTargetColumn().toLowerCase();
-
-                // Agregar relación directa
-                relations.add(new RelationMetadata(
-                    sourceColumn,
-                    targetTable,
-                    targetColumn,
-                    relation.isManyToOne()));
-
-                // Registrar relación inversa (One-to-Many)
-                inverseRelationsMap
-                    .computeIfAbsent(targetTable, k -> new ArrayList<>())
-                    .add(new RelationMetadata(
-                        targetColumn,
-                        tableName,
-                        sourceColumn,
-                        !relation.isManyToOne())); // Relación inversa cambia el tipo
-            });
-            table.setRelations(relations);
-            tables.add(table);
-        });
+        this.parallelism = parallelism;
+        this.pool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
+    }
+
+    public SchemaCatalog processSchema(CharSequence schema) {
+        return processStatements(engine.parseSchema(schema));
+    }
+
+    public SchemaCatalog processSchema(Reader schema) {
+        return processStatements(engine.parseSchema(schema));
+    }
+
+    // Tablas ya parseadas, p. ej. el catálogo que resulta de reproducir un directorio de migraciones
+    public SchemaCatalog processSchema(DdlScript script) {
+        return processStatements(script);
+    }
 
-        // Segunda pasada: agregar relaciones inversas
-        tables.forEach(table -> {
-            List<RelationMetadata> inverseRelations = inverseRelationsMap.get(table.getTableName());
-            if (inverseRelations != null && !inverseRelations.isEmpty()) {
+    private SchemaCatalog processStatements(DdlScript script) {
+        // Identificadores, columnas y relaciones repetidas se comparten dentro de este esquema
+        SymbolTable symbols = new SymbolTable();
+
+        // Primera pasada: estructura básica y relaciones directas de cada tabla, en paralelo y sin estado compartido
+        ProcessedTable[] processedTables = processTables(script.getCreateTables(), symbols);
+
+        // Tablas por nombre para aplicar los ALTER TABLE antes de congelar el modelo
+        Map<String, ProcessedTable> tablesByName = new HashMap<>(processedTables.length * 4 / 3 + 1);
+        // Relaciones inversas por tabla destino, propias de esta llamada
+        Map<String, List<RelationMetadata>> inverseRelationsMap = new HashMap<>();
+
+        // Se combinan en el orden de las sentencias, así los errores y las relaciones inversas
+        // son los mismos que en una ejecución secuencial
+        for (ProcessedTable processed : processedTables) {
+            if (processed.error != null) {
+                throw processed.error;
+            }
+            processed.relations.forEach(relation -> addInverseRelation(inverseRelationsMap, processed, relation, symbols));
+            tablesByName.put(processed.tableName, processed);
+        }
+
+        // Restricciones agregadas con ALTER TABLE, que pg_dump deja después de todos los CREATE TABLE
+        applyAlterStatements(script.getAlterTables(), tablesByName, inverseRelationsMap, symbols);
+
+        // Segunda pasada: agregar relaciones inversas y congelar cada tabla
+        List<TableMetadata> tables = new ArrayList<>(processedTables.length);
+        for (ProcessedTable processed : processedTables) {
+            List<RelationMetadata> inverseRelations = inverseRelationsMap.get(processed.tableName);
+            if (inverseRelations != null) {
                 // Agregar las relaciones inversas a las relaciones existentes
-                table.getRelations().addAll(inverseRelations);
+                processed.relations.addAll(inverseRelations);
             }
-        });
+            tables.add(new TableMetadata(processed.tableName, processed.columns, processed.primaryKeys, processed.relations));
+        }
+        // Índice por nombre de tabla y columna, usado por la validación y los generadores
+        SchemaCatalog catalog = new SchemaCatalog(tables);
 
         // Validar relaciones de claves foráneas
-        validateForeignKeys(tables);
+        validateForeignKeys(catalog);
+
+        return catalog;
+    }
+
+    private ProcessedTable[] processTables(List<CreateTableStatement> statements, SymbolTable symbols) {
+        ProcessedTable[] processedTables = new ProcessedTable[statements.size()];
+        if (parallelism == 1 || statements.size() < SEQUENTIAL_THRESHOLD) {
+            for (int i = 0; i < statements.size(); i++) {
+                processedTables[i] = processTable(statements.get(i), symbols);
+            }
+            return processedTables;
+        }
+
+        pool.invoke(new ProcessTablesTask(statements, processedTables, symbols, 0, statements.size()));
+        return processedTables;
+    }
+
+    // Solo lee la sentencia y crea objetos nuevos (la tabla de símbolos es concurrente), por eso puede correr en cualquier hilo
+    private ProcessedTable processTable(CreateTableStatement statement, SymbolTable symbols) {
+        ProcessedTable table = new ProcessedTable(symbols.lowerCase(statement.getTableName())); // Normalizar nombres
 
-        return tables;
+        // Procesar columnas
+        statement.getColumns().forEach(columnDef -> table.addColumn(symbols.intern(new ColumnMetadata(
+            symbols.lowerCase(columnDef.getName()),
+            symbols.intern(columnDef.getType()),
+            columnDef.isNotNull(),
+            columnDef.isUnique(),
+            symbols.intern(columnDef.getDefaultValue())))));
+
+        // Procesar claves primarias (ya normalizadas a minúsculas)
+        engine.extractPrimaryKeyColumns(statement).forEach(pk -> table.primaryKeys.add(symbols.intern(pk)));
+
+        // Procesar relaciones directas
+        engine.extractTableRelations(statement).forEach(relation -> table.relations.add(directRelation(relation, symbols)));
+
+        // El error se guarda y se lanza al combinar, para informar siempre el de la primera tabla inválida
+        try {
+            validatePrimaryKeys(table, table.primaryKeys);
+        } catch (IllegalArgumentException e) {
+            table.error = e;
+        }
+        return table;
     }
 
-    private void validateForeignKeys(List<TableMetadata> tables) {
-        // Obtener los nombres de las tablas existentes
-        List<String> existingTables = tables.stream()
-            .map(TableMetadata::getTableName)
-            .collect(Collectors.toList());
+    private void applyAlterStatements(List<AlterTableStatement> statements, Map<String, ProcessedTable> tablesByName,
+                                      Map<String, List<RelationMetadata>> inverseRelationsMap, SymbolTable symbols) {
+        for (AlterTableStatement statement : statements) {
+            ProcessedTable table = tablesByName.get(statement.getTableName().toLowerCase());
+            if (table == null) {
+                // Tablas que no se generan, p. ej. particiones creadas con PARTITION OF
+                continue;
+            }
+
+            for (TableConstraint constraint : statement.getConstraints()) {
+                if (constraint.getKind() == TableConstraint.Kind.PRIMARY_KEY) {
+                    Set<String> primaryKeys = new LinkedHashSet<>(table.primaryKeys);
+                    constraint.getColumns().forEach(column -> primaryKeys.add(symbols.lowerCase(column)));
+                    List<String> mergedPrimaryKeys = new ArrayList<>(primaryKeys);
+                    validatePrimaryKeys(table, mergedPrimaryKeys);
+                    table.primaryKeys = mergedPrimaryKeys;
+                } else if (constraint.getForeignKey() != null) {
+                    engine.extractRelations(constraint.getForeignKey())
+                        .forEach(relation -> addRelation(inverseRelationsMap, table, relation, symbols));
+                }
+            }
+        }
+    }
 
-        // Validar cada relación
-        tables.forEach(table -> {
+    private void addRelation(Map<String, List<RelationMetadata>> inverseRelationsMap, ProcessedTable table,
+                             RelationMetadata relation, SymbolTable symbols) {
+        RelationMetadata direct = directRelation(relation, symbols);
+        table.relations.add(direct);
+        addInverseRelation(inverseRelationsMap, table, direct, symbols);
+    }
+
+    private RelationMetadata directRelation(RelationMetadata relation, SymbolTable symbols) {
+        return symbols.intern(new RelationMetadata(
+            symbols.lowerCase(relation.getSourceColumn()),
+            symbols.lowerCase(relation.getTargetTable()),
+            symbols.lowerCase(relation.getTargetColumn()),
+            relation.isManyToOne()));
+    }
+
+    // Registrar relación inversa (One-to-Many) de una relación directa ya normalizada
+    private void addInverseRelation(Map<String, List<RelationMetadata>> inverseRelationsMap, ProcessedTable table,
+                                    RelationMetadata relation, SymbolTable symbols) {
+        inverseRelationsMap
+            .computeIfAbsent(relation.getTargetTable(), k -> new ArrayList<>())
+            .add(symbols.intern(relation.inverse(table.tableName))); // Relación inversa cambia el tipo
+    }
+
+    private void validatePrimaryKeys(ProcessedTable table, List<String> primaryKeys) {
+        primaryKeys.forEach(pk -> {
+            if (!table.hasColumn(pk)) {
+                throw new IllegalArgumentException(
+                    String.format("La clave primaria '%s' no coincide con ninguna columna en la tabla '%s'. Columnas disponibles: %s",
+                        pk, table.tableName,
+                        table.columns.stream()
+                            .map(ColumnMetadata::getColumnName)
+                            .collect(Collectors.joining(", "))));
+            }
+        });
+    }
+
+    private void validateForeignKeys(SchemaCatalog catalog) {
+        // Validar cada relación contra el índice de tablas
+        catalog.forEach(table -> {
             table.getRelations().forEach(relation -> {
-                if (!existingTables.contains(relation.getTargetTable())) {
+                if (!catalog.containsTable(relation.getTargetTable())) {
                     throw new IllegalArgumentException(String.format(
                         "La tabla referenciada '%s' no existe. Referenciada desde: tabla '%s', columna '%s'.",
                         relation.getTargetTable(), table.getTableName(), relation.getSourceColumn()
@@ -122,4 +217,61 @@ public class SchemaProcessor {
             });
         });
     }
+
+    // Tabla en construcción: mutable hasta aplicar los ALTER TABLE y las relaciones inversas
+    private static class ProcessedTable {
+        final String tableName;
+        final List<ColumnMetadata> columns = new ArrayList<>();
+        // Los nombres ya normalizados, para validar cada clave primaria sin recorrer las columnas
+        final Set<String> columnNames = new HashSet<>();
+        List<String> primaryKeys = new ArrayList<>();
+        final List<RelationMetadata> relations = new ArrayList<>();
+        IllegalArgumentException error;
+
+        ProcessedTable(String tableName) {
+            this.tableName = tableName;
+        }
+
+        void addColumn(ColumnMetadata column) {
+            columns.add(column);
+            columnNames.add(column.getColumnName());
+        }
+
+        boolean hasColumn(String columnName) {
+            return columnNames.contains(columnName);
+        }
+    }
+
+    // Divide el rango de sentencias hasta TASK_SIZE; cada tarea escribe solo sus posiciones del arreglo.
+    // ForkJoinTask es Serializable, pero las tareas nunca se serializan
+    @SuppressWarnings("serial")
+    private class ProcessTablesTask extends RecursiveAction {
+        private final List<CreateTableStatement> statements;
+        private final ProcessedTable[] processedTables;
+        private final SymbolTable symbols;
+        private final int start;
+        private final int end;
+
+        ProcessTablesTask(List<CreateTableStatement> statements, ProcessedTable[] processedTables, SymbolTable symbols,
+                          int start, int end) {
+            this.statements = statements;
+            this.processedTables = processedTables;
+            this.symbols = symbols;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= TASK_SIZE) {
+                for (int i = start; i < end; i++) {
+                    processedTables[i] = processTable(statements.get(i), symbols);
+                }
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new ProcessTablesTask(statements, processedTables, symbols, start, middle),
+                new ProcessTablesTask(statements, processedTables, symbols, middle, end));
+        }
+    }
 }
@@ -2,10 +2,20 @@ package cl.playground.core.generator;
 
 import cl.playground.core.generator.factory.*;
 import cl.playground.core.model.TableMetadata;
+import cl.playground.core.types.TypeResolver;
 
+/**
+ * Genera el código de una entidad a partir de su tabla. Ni el generador ni sus factories guardan estado entre
+ * una entidad y otra, así una misma instancia genera entidades desde varios hilos a la vez.
+ */
 public class EntityGenerator {
+    // Sube cada vez que el código generado cambia para un mismo esquema: invalida las entidades registradas
+    // en el manifiesto, que se vuelven a generar
+    public static final int OUTPUT_VERSION = 2;
 
     private final boolean useLombok;
+    private final NamingService naming;
+    private final TypeResolver types;
     private final ImportGenerator importGenerator;
     private final ClassAnnotationGenerator classAnnotationGenerator;
     private final ClassCoreGenerator classCoreGenerator;
@@ -14,7 +24,13 @@ public class EntityGenerator {
     private final CompositeClassGenerator compositeClassGenerator;
 
     public EntityGenerator(boolean useLombok) {
+        this(useLombok, new NamingService(), new TypeResolver());
+    }
+
+    public EntityGenerator(boolean useLombok, NamingService naming, TypeResolver types) {
         this.useLombok = useLombok;
+        this.naming = naming;
+        this.types = types;
         this.importGenerator = new ImportGenerator(useLombok);
         this.classAnnotationGenerator = new ClassAnnotationGenerator(useLombok);
         this.classConstructorsGenerator = new ClassConstructorsGenerator(useLombok);
@@ -25,38 +41,43 @@ public class EntityGenerator {
 
     public String generateEntity(TableMetadata table, String packageName) {
         StringBuilder entityBuilder = new StringBuilder();
+        generateEntity(table, packageName, entityBuilder);
+        return entityBuilder.toString();
+    }
+
+    // Agrega la entidad al final de entityBuilder: quien escribe muchas entidades reutiliza el mismo buffer
+    public void generateEntity(TableMetadata table, String packageName, StringBuilder entityBuilder) {
+        // Lo que todas las factories necesitan saber de la tabla se calcula una sola vez
+        TableAnalysis analysis = new TableAnalysis(table, naming, types);
 
         // 0. Agregar declaración del paquete
         entityBuilder.append("package ").append(packageName).append(";\n\n");
 
         // 1. Generar imports
-        importGenerator.generateImports(table, entityBuilder);
+        importGenerator.generateImports(analysis, entityBuilder);
 
         // 2. Generar anotaciones de clase
         //generateClassAnnotations(table, entityBuilder);
-        classAnnotationGenerator.generateClassAnnotations(table, entityBuilder);
+        classAnnotationGenerator.generateClassAnnotations(analysis, entityBuilder);
 
         // 3. Generar declaración de clase
-        String className = UtilsFactory.generateClassName(table.getTableName());
-        classCoreGenerator.generateClassDeclaration(className, table, entityBuilder);
+        classCoreGenerator.generateClassDeclaration(analysis, entityBuilder);
 
         // 4. Generar campos con sus anotaciones
-        classCoreGenerator.generateFields(table, entityBuilder);
+        classCoreGenerator.generateFields(analysis, entityBuilder);
 
         // 5. Generar constructores
-        classConstructorsGenerator.generateConstructors(table, className, entityBuilder);
+        classConstructorsGenerator.generateConstructors(analysis, entityBuilder);
 
         // 6. Generar getters y setters
-        classGetterAndSetterGenerator.generateGettersAndSetters(table, entityBuilder);
+        classGetterAndSetterGenerator.generateGettersAndSetters(analysis, entityBuilder);
 
         // 7. Si tiene clave primaria compuesta, generar clase estática al final
-        if (UtilsFactory.needsCompositeKey(table)) {
-            compositeClassGenerator.generateCompositeKeyClass(table, entityBuilder);
+        if (analysis.hasCompositeKey()) {
+            compositeClassGenerator.generateCompositeKeyClass(analysis, entityBuilder);
         }
 
         // Cerrar la clase
         entityBuilder.append("}");
-
-        return entityBuilder.toString();
     }
 }
@@ -0,0 +1,10 @@
+package cl.playground.core.generator;
+
+/**
+ * El código de una entidad, que se genera recién cuando se va a escribir y directamente en el buffer del hilo
+ * que la escribe: así las entidades no se acumulan en memoria como {@code String}.
+ */
+@FunctionalInterface
+public interface EntitySource {
+    void render(StringBuilder buffer);
+}
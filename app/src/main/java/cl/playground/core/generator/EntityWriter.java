@@ -0,0 +1,194 @@
+package cl.playground.core.generator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Escribe las entidades generadas. Un archivo cuyo contenido no cambió no se toca, así conserva su fecha y
+ * la compilación incremental de Gradle/javac no recompila el paquete entero. Cada archivo se escribe en un
+ * temporal y se reemplaza de una vez, y con muchos archivos las escrituras se reparten entre hilos.
+ * Cada entidad se genera en el {@link SourceBuffer} del hilo que la escribe y pasa de ahí al archivo.
+ * Hacia un {@link SourceArchive} también se generan en paralelo, pero se agregan en el orden recibido.
+ */
+public class EntityWriter {
+    // Con pocos archivos, repartirlos entre hilos cuesta más de lo que ahorra
+    private static final int SEQUENTIAL_THRESHOLD = 64;
+    private static final int TASK_SIZE = 32;
+
+    private final int parallelism;
+    // Se crea una sola vez; sus hilos nacen bajo demanda y terminan solos cuando quedan inactivos
+    private final ForkJoinPool pool;
+
+    public EntityWriter(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("El nivel de paralelismo debe ser mayor que cero: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.pool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
+    }
+
+    // Escribe cada archivo con su contenido y devuelve cuántos cambiaron en disco
+    public int write(Map<Path, EntitySource> files) throws IOException {
+        // Los directorios se crean y se revisan antes de escribir: todas las entidades suelen ir al mismo paquete
+        Set<Path> directories = new LinkedHashSet<>();
+        for (Path file : files.keySet()) {
+            directories.add(file.toAbsolutePath().getParent());
+        }
+        for (Path directory : directories) {
+            Files.createDirectories(directory);
+            if (!Files.isWritable(directory)) {
+                throw new IOException("Write permission denied for: " + directory);
+            }
+        }
+
+        List<Map.Entry<Path, EntitySource>> entries = new ArrayList<>(files.entrySet());
+        if (parallelism == 1 || entries.size() < SEQUENTIAL_THRESHOLD) {
+            return writeRange(entries, 0, entries.size());
+        }
+
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int start = 0; start < entries.size(); start += TASK_SIZE) {
+            int from = start;
+            int to = Math.min(start + TASK_SIZE, entries.size());
+            tasks.add(() -> writeRange(entries, from, to));
+        }
+        int written = 0;
+        for (Future<Integer> task : pool.invokeAll(tasks)) {
+            written += result(task);
+        }
+        return written;
+    }
+
+    // Agrega las entidades al archivo en el orden de la lista: el resultado es idéntico al de generarlas una por
+    // una, pero se generan en paralelo mientras este hilo comprime las que ya están listas
+    public void write(SourceArchive archive, String packageName, List<Map.Entry<String, EntitySource>> entities)
+            throws IOException {
+        if (parallelism == 1 || entities.size() < SEQUENTIAL_THRESHOLD) {
+            for (Map.Entry<String, EntitySource> entity : entities) {
+                archive.addEntity(packageName, entity.getKey(), entity.getValue());
+            }
+            return;
+        }
+
+        // Como mucho dos tandas por hilo en curso, así no se guardan todas las entidades en memoria
+        Deque<Future<byte[][]>> pending = new ArrayDeque<>();
+        int next = 0;
+        try {
+            for (int start = 0; start < entities.size(); start += TASK_SIZE) {
+                while (next < entities.size() && pending.size() < 2 * parallelism) {
+                    int from = next;
+                    int to = Math.min(next + TASK_SIZE, entities.size());
+                    pending.add(pool.submit(() -> renderRange(entities, from, to)));
+                    next = to;
+                }
+                byte[][] rendered = result(pending.remove());
+                for (int i = 0; i < rendered.length; i++) {
+                    archive.addEntity(packageName, entities.get(start + i).getKey(), rendered[i]);
+                }
+            }
+        } finally {
+            // Tras un error, las tandas que no empezaron no se generan
+            for (Future<byte[][]> task : pending) {
+                task.cancel(true);
+            }
+        }
+    }
+
+    private static byte[][] renderRange(List<Map.Entry<String, EntitySource>> entities, int from, int to) {
+        SourceBuffer buffer = SourceBuffer.get();
+        byte[][] rendered = new byte[to - from][];
+        for (int i = from; i < to; i++) {
+            ByteBuffer content = buffer.render(entities.get(i).getValue());
+            rendered[i - from] = Arrays.copyOfRange(content.array(), content.position(), content.limit());
+        }
+        return rendered;
+    }
+
+    private static int writeRange(List<Map.Entry<Path, EntitySource>> entries, int from, int to) throws IOException {
+        SourceBuffer buffer = SourceBuffer.get();
+        int written = 0;
+        for (int i = from; i < to; i++) {
+            if (writeIfChanged(entries.get(i).getKey(), buffer.render(entries.get(i).getValue()), buffer)) {
+                written++;
+            }
+        }
+        return written;
+    }
+
+    // false si el archivo ya tenía exactamente este contenido
+    private static boolean writeIfChanged(Path file, ByteBuffer content, SourceBuffer buffer) throws IOException {
+        if (Files.isRegularFile(file) && Files.size(file) == content.remaining() && buffer.sameContent(file, content)) {
+            return false;
+        }
+
+        Path temporary = createTemporary(file);
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (content.hasRemaining()) {
+                    channel.write(content);
+                }
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        return true;
+    }
+
+    // Un temporal junto a file. Empieza con punto y no termina en .java, así ni javac ni el IDE lo toman como fuente.
+    // Files.createTempFile lo crearía con permisos 600; así el archivo final queda con los permisos de siempre (umask)
+    static Path createTemporary(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        while (true) {
+            String suffix = Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), Character.MAX_RADIX);
+            Path temporary = directory.resolve("." + file.getFileName() + "." + suffix + ".tmp");
+            try {
+                return Files.createFile(temporary);
+            } catch (FileAlreadyExistsException e) {
+                // Otro hilo eligió el mismo nombre: se prueba con otro
+            }
+        }
+    }
+
+    // El primer error de escritura se propaga tal cual, como si se hubiera escrito en este hilo
+    private static <T> T result(Future<T> task) throws IOException {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing entities", e);
+        }
+    }
+}
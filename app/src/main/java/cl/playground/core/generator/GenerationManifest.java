@@ -0,0 +1,161 @@
+package cl.playground.core.generator;
+
+import cl.playground.core.model.ColumnMetadata;
+import cl.playground.core.model.RelationMetadata;
+import cl.playground.core.model.TableMetadata;
+import cl.playground.exception.FileReadException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+
+/**
+ * Huella de cada entidad generada en la última ejecución. Una tabla se vuelve a generar solo si su huella
+ * cambió, si su archivo ya no existe o si cambió la configuración con que se generó todo (versión, paquete, Lombok).
+ */
+public class GenerationManifest {
+    private static final String MAGIC = "SQLIFT-ENTITIES";
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path projectDirectory;
+    private final String generationKey;
+    private final Map<String, Long> fingerprints = new HashMap<>();
+
+    public GenerationManifest(String generationKey) {
+        this(Paths.get(""), generationKey);
+    }
+
+    // Las entidades se registran relativas al proyecto: el manifiesto sirve igual desde la CLI, que trabaja con
+    // rutas relativas, y desde el daemon, que recibe el directorio del proyecto como ruta absoluta
+    public GenerationManifest(Path projectDirectory, String generationKey) {
+        this.projectDirectory = projectDirectory;
+        this.generationKey = generationKey;
+    }
+
+    // La huella cubre todo lo que usa el generador, incluidas las relaciones inversas que aportan otras tablas:
+    // si una tabla nueva apunta a esta, su OneToMany cambia la huella y la entidad se regenera
+    public static long fingerprint(TableMetadata table) {
+        StringBuilder canonical = new StringBuilder(256);
+        append(canonical, table.getTableName());
+        for (ColumnMetadata column : table.getColumns()) {
+            append(canonical, column.getColumnName());
+            append(canonical, column.getColumnType());
+            append(canonical, column.getDefaultValue());
+            canonical.append(column.isNotNull() ? 'N' : 'n').append(column.isUnique() ? 'U' : 'u');
+        }
+        canonical.append('P');
+        table.getPrimaryKeys().forEach(primaryKey -> append(canonical, primaryKey));
+        canonical.append('R');
+        for (RelationMetadata relation : table.getRelations()) {
+            append(canonical, relation.getSourceColumn());
+            append(canonical, relation.getTargetTable());
+            append(canonical, relation.getTargetColumn());
+            canonical.append(relation.isManyToOne() ? 'M' : 'O');
+        }
+
+        byte[] bytes = canonical.toString().getBytes(StandardCharsets.UTF_8);
+        CRC32C crc32c = new CRC32C();
+        CRC32 crc32 = new CRC32();
+        crc32c.update(bytes);
+        crc32.update(bytes);
+        return crc32c.getValue() << 32 | crc32.getValue();
+    }
+
+    // Con el largo delante, ningún valor se puede confundir con el siguiente
+    private static void append(StringBuilder canonical, String value) {
+        if (value == null) {
+            canonical.append('-');
+        } else {
+            canonical.append(value.length()).append(':').append(value);
+        }
+    }
+
+    public boolean isUpToDate(Path entityFile, long fingerprint) {
+        Long previous = fingerprints.get(key(entityFile));
+        return previous != null && previous == fingerprint && Files.isRegularFile(entityFile);
+    }
+
+    public void put(Path entityFile, long fingerprint) {
+        fingerprints.put(key(entityFile), fingerprint);
+    }
+
+    private String key(Path entityFile) {
+        return entityFile.isAbsolute() == projectDirectory.isAbsolute()
+            ? projectDirectory.relativize(entityFile).toString()
+            : entityFile.toString();
+    }
+
+    public int size() {
+        return fingerprints.size();
+    }
+
+    // Un manifiesto ausente, dañado o de otra configuración equivale a uno vacío: se genera todo
+    public static GenerationManifest read(Path file, String generationKey) {
+        return read(Paths.get(""), file, generationKey);
+    }
+
+    public static GenerationManifest read(Path projectDirectory, Path file, String generationKey) {
+        GenerationManifest manifest = new GenerationManifest(projectDirectory, generationKey);
+        if (!Files.isRegularFile(file)) {
+            return manifest;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (!MAGIC.equals(input.readUTF()) || input.readInt() != FORMAT_VERSION
+                || !generationKey.equals(input.readUTF())) {
+                return manifest;
+            }
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                manifest.fingerprints.put(input.readUTF(), input.readLong());
+            }
+            return manifest;
+
+        } catch (IOException | RuntimeException e) {
+            return new GenerationManifest(projectDirectory, generationKey);
+        }
+    }
+
+    // Se escribe en un archivo temporal y se reemplaza de una vez, así un proceso interrumpido no deja un manifiesto a medias
+    public void write(Path file) throws FileReadException {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+
+            try {
+                try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                    output.writeUTF(MAGIC);
+                    output.writeInt(FORMAT_VERSION);
+                    output.writeUTF(generationKey);
+                    output.writeInt(fingerprints.size());
+                    for (Map.Entry<String, Long> entry : fingerprints.entrySet()) {
+                        output.writeUTF(entry.getKey());
+                        output.writeLong(entry.getValue());
+                    }
+                }
+
+                try {
+                    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new FileReadException("Error writing generation manifest: " + file, e);
+        }
+    }
+}
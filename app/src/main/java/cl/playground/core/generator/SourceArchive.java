@@ -0,0 +1,97 @@
+package cl.playground.core.generator;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Un -sources.jar o ZIP con las entidades generadas, escrito de corrido por un único {@link ZipOutputStream}:
+ * las entidades no pasan por archivos sueltos. Se escribe en un temporal que {@link #commit()} mueve a su lugar,
+ * así un error a mitad de camino deja el archivo anterior intacto.
+ */
+public class SourceArchive implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Fecha fija en todas las entradas: el mismo esquema produce exactamente el mismo archivo
+    private static final LocalDateTime ENTRY_TIME = LocalDateTime.of(1980, 2, 1, 0, 0);
+
+    private final Path file;
+    private final Path temporary;
+    private final ZipOutputStream zip;
+    private final Set<String> entries = new HashSet<>();
+    private boolean committed;
+
+    public SourceArchive(Path file) throws IOException {
+        this.file = file;
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.temporary = EntityWriter.createTemporary(file);
+        this.zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE));
+
+        if (file.getFileName().toString().endsWith(".jar")) {
+            add("META-INF/MANIFEST.MF", buffer -> buffer.append("Manifest-Version: 1.0\r\n\r\n"));
+        }
+    }
+
+    // La entidad className del paquete packageName, en la ruta que le corresponde dentro del archivo.
+    // Se genera en el buffer del hilo y de ahí pasa al ZIP
+    public void addEntity(String packageName, String className, EntitySource source) throws IOException {
+        add(entityName(packageName, className), source);
+    }
+
+    // La entidad ya generada, en UTF-8
+    public void addEntity(String packageName, String className, byte[] source) throws IOException {
+        add(entityName(packageName, className), source, 0, source.length);
+    }
+
+    private void add(String name, EntitySource source) throws IOException {
+        ByteBuffer content = SourceBuffer.get().render(source);
+        add(name, content.array(), content.arrayOffset() + content.position(), content.remaining());
+    }
+
+    private void add(String name, byte[] content, int offset, int length) throws IOException {
+        if (!entries.add(name)) {
+            throw new IllegalArgumentException("Dos tablas generan la misma entidad: " + name);
+        }
+        ZipEntry entry = new ZipEntry(name);
+        entry.setTimeLocal(ENTRY_TIME);
+        zip.putNextEntry(entry);
+        zip.write(content, offset, length);
+        zip.closeEntry();
+    }
+
+    private static String entityName(String packageName, String className) {
+        return packageName.replace('.', '/') + "/" + className + ".java";
+    }
+
+    // Termina el archivo y reemplaza el anterior de una vez
+    public void commit() throws IOException {
+        zip.close();
+        try {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        committed = true;
+    }
+
+    // Sin commit() se descarta lo escrito
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            try {
+                zip.close();
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package cl.playground.core.generator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Buffers de un hilo que se reutilizan de una entidad a la siguiente: el texto generado, su copia en UTF-8 y el
+ * contenido del archivo que ya estaba en disco. Crecen hasta la entidad más grande y después no vuelven a
+ * asignar memoria, así generar miles de entidades no produce basura por cada una.
+ */
+final class SourceBuffer {
+    private static final int INITIAL_CAPACITY = 16 * 1024;
+    private static final ThreadLocal<SourceBuffer> BUFFERS = ThreadLocal.withInitial(SourceBuffer::new);
+
+    private final StringBuilder text = new StringBuilder(INITIAL_CAPACITY);
+    // Igual que String.getBytes: los caracteres inválidos se reemplazan en vez de fallar
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private CharBuffer chars = CharBuffer.allocate(INITIAL_CAPACITY);
+    private ByteBuffer bytes = ByteBuffer.allocate(INITIAL_CAPACITY * 3);
+    private ByteBuffer existing = ByteBuffer.allocate(INITIAL_CAPACITY * 3);
+
+    private SourceBuffer() {
+    }
+
+    static SourceBuffer get() {
+        return BUFFERS.get();
+    }
+
+    // Genera la entidad y devuelve su UTF-8, válido hasta la próxima llamada en este hilo
+    ByteBuffer render(EntitySource source) {
+        text.setLength(0);
+        source.render(text);
+
+        int length = text.length();
+        if (chars.capacity() < length) {
+            chars = CharBuffer.allocate(Math.max(length, chars.capacity() * 2));
+        }
+        chars.clear();
+        text.getChars(0, length, chars.array(), 0);
+        chars.limit(length);
+
+        // Un char nunca ocupa más de 3 bytes en UTF-8 (un par sustituto son 2 chars y 4 bytes)
+        if (bytes.capacity() < length * 3) {
+            bytes = ByteBuffer.allocate(Math.max(length * 3, bytes.capacity() * 2));
+        }
+        bytes.clear();
+        encoder.reset();
+        encoder.encode(chars, bytes, true);
+        encoder.flush(bytes);
+        bytes.flip();
+        return bytes;
+    }
+
+    // true si file tiene exactamente content; quien llama ya comprobó que el tamaño coincide
+    boolean sameContent(Path file, ByteBuffer content) throws IOException {
+        int length = content.remaining();
+        if (existing.capacity() < length) {
+            existing = ByteBuffer.allocate(Math.max(length, existing.capacity() * 2));
+        }
+        existing.clear();
+        existing.limit(length);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (existing.hasRemaining()) {
+                if (channel.read(existing) < 0) {
+                    return false;
+                }
+            }
+        }
+        existing.flip();
+        return existing.equals(content);
+    }
+}
@@ -1,11 +1,11 @@
 package cl.playground.core.generator.factory;
 
+import cl.playground.core.generator.factory.TableAnalysis.ColumnAnalysis;
+import cl.playground.core.generator.factory.TableAnalysis.RelationAnalysis;
 import cl.playground.core.model.ColumnMetadata;
-import cl.playground.core.model.RelationMetadata;
-import cl.playground.core.model.TableMetadata;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class ClassAnnotationGenerator {
 
@@ -15,7 +15,7 @@ public class ClassAnnotationGenerator {
         this.useLombok = useLombok;
     }
 
-    public void generateClassAnnotations(TableMetadata table, StringBuilder builder) {
+    public void generateClassAnnotations(TableAnalysis table, StringBuilder builder) {
         builder.append("@Entity\n");
 
         // Agregar anotaciones de Lombok si está habilitado
@@ -24,21 +24,16 @@ public class ClassAnnotationGenerator {
             builder.append("@Setter\n");
 
             // Generar @ToString con exclude para las relaciones ManyToOne
-            List<String> foreignKeyFields = table.getRelations().stream()
-                .filter(RelationMetadata::isManyToOne)
-                .map(relation -> UtilsFactory.generateFieldName(relation.getSourceColumn())) // Usar generateFieldName para consistencia
-                .collect(Collectors.toList());
-
-            boolean hasMapsId = table.getRelations().stream()
-                .filter(RelationMetadata::isManyToOne)
-                .anyMatch(rel -> table.getPrimaryKeys().contains(rel.getSourceColumn()));
-
-            if (!foreignKeyFields.isEmpty() && !hasMapsId) {
+            if (table.hasManyToOne() && !table.hasManyToOneInPrimaryKey()) {
                 builder.append("@ToString(exclude = {");
-                for (int i = 0; i < foreignKeyFields.size(); i++) {
-                    builder.append("\"").append(foreignKeyFields.get(i)).append("\"");
-                    if (i < foreignKeyFields.size() - 1) {
-                        builder.append(", ");
+                boolean first = true;
+                for (RelationAnalysis relation : table.getRelations()) {
+                    if (relation.isManyToOne()) {
+                        if (!first) {
+                            builder.append(", ");
+                        }
+                        builder.append("\"").append(relation.getFieldName()).append("\"");
+                        first = false;
                     }
                 }
                 builder.append("})\n");
@@ -50,18 +45,20 @@ public class ClassAnnotationGenerator {
             builder.append("@AllArgsConstructor\n");
         }
 
-        // Asegurar que el nombre de la tabla siempre esté en plural
-        String tableName = table.getTableName().toLowerCase();
-        if (!tableName.endsWith("s")) {
-            tableName = UtilsFactory.toPlural(tableName);
-        }
+        // El nombre de la tabla siempre en plural
+        String tableName = table.getPluralTableName();
 
         builder.append("@Table(name = \"").append(tableName).append("\"");
 
         // Agregar restricciones de unicidad si existen
-        List<ColumnMetadata> uniqueColumns = table.getColumns().stream()
-            .filter(ColumnMetadata::isUnique)
-            .collect(Collectors.toList());
+        List<ColumnMetadata> uniqueColumns = new ArrayList<>();
+        if (table.hasUniqueColumns()) {
+            for (ColumnAnalysis column : table.getColumns()) {
+                if (column.getColumn().isUnique()) {
+                    uniqueColumns.add(column.getColumn());
+                }
+            }
+        }
 
         // Añadir restricciones de unicidad (uniqueConstraints)
         if (!uniqueColumns.isEmpty()) {
@@ -1,14 +1,7 @@
 package cl.playground.core.generator.factory;
 
-import cl.playground.core.model.ColumnMetadata;
-import cl.playground.core.model.RelationMetadata;
-import cl.playground.core.model.TableMetadata;
-import cl.playground.core.types.PostgreSQLToJavaType;
-
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Collectors;
+import cl.playground.core.generator.factory.TableAnalysis.ColumnAnalysis;
+import cl.playground.core.generator.factory.TableAnalysis.RelationAnalysis;
 
 public class ClassConstructorsGenerator {
 
@@ -18,111 +11,75 @@ public class ClassConstructorsGenerator {
         this.useLombok = useLombok;
     }
 
-    public void generateConstructors(TableMetadata table, String className, StringBuilder builder) {
+    public void generateConstructors(TableAnalysis table, StringBuilder builder) {
         // Si Lombok está habilitado, no generar constructores
         if (useLombok) {
             return;
         }
+        String className = table.getClassName();
 
         // Constructor vacío
         builder.append("    public ").append(className).append("() {}\n\n");
 
         // Constructor con todos los campos
         builder.append("    public ").append(className).append("(");
+        int parametersStart = builder.length();
 
-        List<String> constructorParams = new ArrayList<>();
-
-        if (UtilsFactory.needsCompositeKey(table)) {
-            constructorParams.add(className + "Id id");
+        if (table.hasCompositeKey()) {
+            builder.append(className).append("Id id");
+        }
 
-            // Agregar campos no-FK y no-PK
-            for (ColumnMetadata column : table.getColumns()) {
-                boolean isForeignKey = table.getRelations().stream()
-                    .anyMatch(rel -> rel.getSourceColumn().equals(column.getColumnName()) && rel.isManyToOne());
-                if (!table.getPrimaryKeys().contains(column.getColumnName()) && !isForeignKey) {
-                    String javaType = PostgreSQLToJavaType.getJavaType(column.getColumnType());
-                    String fieldName = UtilsFactory.generateFieldName(column.getColumnName());
-                    constructorParams.add(javaType + " " + fieldName);
-                }
+        // Agregar campos no-FK (y no-PK si la clave es compuesta)
+        for (ColumnAnalysis column : table.getColumns()) {
+            if (isConstructorField(table, column)) {
+                appendParameter(column.getJavaType(), column.getFieldName(), parametersStart, builder);
             }
+        }
 
-            // Agregar campos FK (relaciones ManyToOne)
-            for (RelationMetadata relation : table.getRelations()) {
-                if (relation.isManyToOne()) {
-                    String targetClass = Arrays.stream(relation.getTargetTable().toLowerCase().split("_"))
-                        .map(word -> Character.toUpperCase(word.charAt(0)) + word.substring(1))
-                        .collect(Collectors.joining());
-                    String fieldName = UtilsFactory.generateFieldName(relation.getSourceColumn());
-                    constructorParams.add(targetClass + " " + fieldName);
-                }
+        // Agregar campos FK (relaciones ManyToOne)
+        for (RelationAnalysis relation : table.getRelations()) {
+            if (relation.isManyToOne()) {
+                appendParameter(relation.getTargetClass(), relation.getFieldName(), parametersStart, builder);
             }
+        }
 
-            builder.append(String.join(", ", constructorParams));
-            builder.append(") {\n");
+        builder.append(") {\n");
 
+        if (table.hasCompositeKey()) {
             builder.append("        this.id = id;\n");
+        }
 
-            // Asignar campos no-FK y no-PK
-            for (ColumnMetadata column : table.getColumns()) {
-                boolean isForeignKey = table.getRelations().stream()
-                    .anyMatch(rel -> rel.getSourceColumn().equals(column.getColumnName()) && rel.isManyToOne());
-                if (!table.getPrimaryKeys().contains(column.getColumnName()) && !isForeignKey) {
-                    String fieldName = UtilsFactory.generateFieldName(column.getColumnName());
-                    builder.append("        this.").append(fieldName).append(" = ").append(fieldName).append(";\n");
-                }
+        // Asignar campos no-FK
+        for (ColumnAnalysis column : table.getColumns()) {
+            if (isConstructorField(table, column)) {
+                appendAssignment(column.getFieldName(), builder);
             }
+        }
 
-            // Asignar campos FK
-            for (RelationMetadata relation : table.getRelations()) {
-                if (relation.isManyToOne()) {
-                    String fieldName = UtilsFactory.generateFieldName(relation.getSourceColumn());
-                    builder.append("        this.").append(fieldName).append(" = ").append(fieldName).append(";\n");
-                }
-            }
-        } else {
-            // Agregar campos no-FK
-            for (ColumnMetadata column : table.getColumns()) {
-                boolean isForeignKey = table.getRelations().stream()
-                    .anyMatch(rel -> rel.getSourceColumn().equals(column.getColumnName()) && rel.isManyToOne());
-                if (!isForeignKey) {
-                    String javaType = PostgreSQLToJavaType.getJavaType(column.getColumnType());
-                    String fieldName = UtilsFactory.generateFieldName(column.getColumnName());
-                    constructorParams.add(javaType + " " + fieldName);
-                }
+        // Asignar campos FK
+        for (RelationAnalysis relation : table.getRelations()) {
+            if (relation.isManyToOne()) {
+                appendAssignment(relation.getFieldName(), builder);
             }
+        }
 
-            // Agregar campos FK (relaciones ManyToOne)
-            for (RelationMetadata relation : table.getRelations()) {
-                if (relation.isManyToOne()) {
-                    String targetClass = Arrays.stream(relation.getTargetTable().toLowerCase().split("_"))
-                        .map(word -> Character.toUpperCase(word.charAt(0)) + word.substring(1))
-                        .collect(Collectors.joining());                    String fieldName = UtilsFactory.generateFieldName(relation.getSourceColumn());
-                    constructorParams.add(targetClass + " " + fieldName);
-                }
-            }
+        builder.append("    }\n\n");
+    }
 
-            builder.append(String.join(", ", constructorParams));
-            builder.append(") {\n");
-
-            // Asignar campos no-FK
-            for (ColumnMetadata column : table.getColumns()) {
-                boolean isForeignKey = table.getRelations().stream()
-                    .anyMatch(rel -> rel.getSourceColumn().equals(column.getColumnName()) && rel.isManyToOne());
-                if (!isForeignKey) {
-                    String fieldName = UtilsFactory.generateFieldName(column.getColumnName());
-                    builder.append("        this.").append(fieldName).append(" = ").append(fieldName).append(";\n");
-                }
-            }
+    // Con clave compuesta, sus columnas van dentro del id
+    private boolean isConstructorField(TableAnalysis table, ColumnAnalysis column) {
+        return !column.isForeignKey() && !(table.hasCompositeKey() && column.isPrimaryKey());
+    }
 
-            // Asignar campos FK
-            for (RelationMetadata relation : table.getRelations()) {
-                if (relation.isManyToOne()) {
-                    String fieldName = UtilsFactory.generateFieldName(relation.getSourceColumn());
-                    builder.append("        this.").append(fieldName).append(" = ").append(fieldName).append(";\n");
-                }
-            }
+    // Los parámetros se escriben directo en el builder, separados por coma desde el segundo
+    private void appendParameter(String type, String name, int parametersStart, StringBuilder builder) {
+        if (builder.length() > parametersStart) {
+            builder.append(", ");
         }
+        builder.append(type).append(' ').append(name);
+    }
 
-        builder.append("    }\n\n");
+    private void appendAssignment(String fieldName, StringBuilder builder) {
+        builder.append("        this.").append(fieldName).append(" = ").append(fieldName).append(";\n");
     }
 }
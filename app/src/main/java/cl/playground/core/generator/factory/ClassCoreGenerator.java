@@ -1,80 +1,44 @@
 package cl.playground.core.generator.factory;
 
+import cl.playground.core.generator.factory.TableAnalysis.ColumnAnalysis;
+import cl.playground.core.generator.factory.TableAnalysis.RelationAnalysis;
 import cl.playground.core.model.ColumnMetadata;
 import cl.playground.core.model.RelationMetadata;
-import cl.playground.core.model.TableMetadata;
-import cl.playground.core.types.PostgreSQLToJavaType;
-
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
 
 public class ClassCoreGenerator {
 
-    public void generateClassDeclaration(String className, TableMetadata table, StringBuilder builder) {
-        // Si la clase tiene clave compuesta, debe implementar Serializable
-        if (UtilsFactory.needsCompositeKey(table)) {
-            builder.append("public class ").append(className)
-                .append(" {\n\n");
-        } else {
-            builder.append("public class ").append(className).append(" {\n\n");
-        }
+    public void generateClassDeclaration(TableAnalysis table, StringBuilder builder) {
+        builder.append("public class ").append(table.getClassName()).append(" {\n\n");
     }
 
-    public void generateFields(TableMetadata table, StringBuilder builder) {
-        Set<String> foreignKeyColumns = new HashSet<>();
-        Set<String> processedOneToManyFields = new HashSet<>();
-
-        // Recolectar las columnas que son FKs de relaciones ManyToOne
-        for (RelationMetadata relation : table.getRelations()) {
-            if (relation.isManyToOne()) {
-                foreignKeyColumns.add(relation.getSourceColumn());
-            }
-        }
-
-        if (UtilsFactory.needsCompositeKey(table)) {
-            String className = UtilsFactory.generateClassName(table.getTableName());
+    public void generateFields(TableAnalysis table, StringBuilder builder) {
+        if (table.hasCompositeKey()) {
             builder.append("    @EmbeddedId\n")
                 .append("    private ")
-                .append(className)
+                .append(table.getClassName())
                 .append("Id id;\n\n");
         }
 
-        // Generar campos para las columnas
-        for (ColumnMetadata column : table.getColumns()) {
-            boolean isForeignKey = foreignKeyColumns.contains(column.getColumnName());
-            boolean isPartOfCompositeKey = UtilsFactory.needsCompositeKey(table)
-                && table.getPrimaryKeys().contains(column.getColumnName());
-            boolean isForeignKeyInCompositeKey = UtilsFactory.needsCompositeKey(table)
-                && isForeignKey;
+        // Generar campos para las columnas; las FKs de relaciones ManyToOne y la clave compuesta van aparte
+        for (ColumnAnalysis column : table.getColumns()) {
+            boolean isPartOfCompositeKey = table.hasCompositeKey() && column.isPrimaryKey();
 
-            if (!isForeignKey && !isPartOfCompositeKey && !isForeignKeyInCompositeKey) {
-                generateFieldAnnotations(column, table.getPrimaryKeys(), builder);
+            if (!column.isForeignKey() && !isPartOfCompositeKey) {
+                generateFieldAnnotations(column, builder);
                 generateFieldDeclaration(column, builder);
             }
         }
 
         // Generar campos para las relaciones
-        for (RelationMetadata relation : table.getRelations()) {
-            String targetClass = UtilsFactory.generateClassName(relation.getTargetTable());
+        for (RelationAnalysis analysis : table.getRelations()) {
+            RelationMetadata relation = analysis.getRelation();
 
             if (relation.isManyToOne()) {
-                // Generar nombre del campo basado en la columna de origen
-                String fieldName = UtilsFactory.generateFieldName(relation.getSourceColumn());
-
-                // Generar nombre único para la clave foránea
-                String foreignKeyName = String.format(
-                    "fk_%s_%s_%s",
-                    table.getTableName().toLowerCase(),
-                    relation.getTargetTable().toLowerCase(),
-                    relation.getSourceColumn().toLowerCase()
-                                                     );
-
                 builder.append("    @ManyToOne\n");
 
-                if (UtilsFactory.needsCompositeKey(table)) {
+                if (table.hasCompositeKey()) {
                     builder.append("    @MapsId(\"")
-                        .append(UtilsFactory.generateFieldName(relation.getSourceColumn()))
+                        .append(analysis.getFieldName())
                         .append("\")\n");
                 }
 
@@ -83,46 +47,43 @@ public class ClassCoreGenerator {
                     .append(relation.getSourceColumn())
                     .append("\",\n")
                     .append("        nullable = false,\n")
-                    .append("        foreignKey = @ForeignKey(name = \"")
-                    .append(foreignKeyName)
+                    // Nombre único para la clave foránea
+                    .append("        foreignKey = @ForeignKey(name = \"fk_")
+                    .append(table.getTable().getTableName().toLowerCase()).append('_')
+                    .append(relation.getTargetTable().toLowerCase()).append('_')
+                    .append(relation.getSourceColumn().toLowerCase())
                     .append("\")\n")
                     .append("    )\n")
                     .append("    private ")
-                    .append(targetClass)
+                    .append(analysis.getTargetClass())
                     .append(" ")
-                    .append(fieldName)
+                    .append(analysis.getFieldName())
                     .append(";\n\n");
-            } else {
+            } else if (!analysis.isRepeated()) {
                 // Relaciones OneToMany
-                String pluralFieldName = UtilsFactory.toPlural(UtilsFactory.generateFieldName(relation.getTargetTable()));
-
-                if (!processedOneToManyFields.contains(pluralFieldName)) {
-                    processedOneToManyFields.add(pluralFieldName);
-
-                    String targetFieldName = UtilsFactory.generateFieldName(relation.getTargetColumn());
-
-                    builder.append("    @OneToMany(\n")
-                        .append("        mappedBy = \"")
-                        .append(targetFieldName) // Usar el campo relacionado en la clase destino
-                        .append("\",\n")
-                        .append("        cascade = CascadeType.ALL,\n")
-                        .append("        orphanRemoval = true\n")
-                        .append("    )\n")
-                        .append("    private Set<")
-                        .append(targetClass)
-                        .append("> ")
-                        .append(pluralFieldName)
-                        .append(" = new HashSet<>();\n\n");
-                }
+                builder.append("    @OneToMany(\n")
+                    .append("        mappedBy = \"")
+                    .append(analysis.getMappedBy()) // Usar el campo relacionado en la clase destino
+                    .append("\",\n")
+                    .append("        cascade = CascadeType.ALL,\n")
+                    .append("        orphanRemoval = true\n")
+                    .append("    )\n")
+                    .append("    private Set<")
+                    .append(analysis.getTargetClass())
+                    .append("> ")
+                    .append(analysis.getFieldName())
+                    .append(" = new HashSet<>();\n\n");
             }
         }
     }
 
-    private void generateFieldAnnotations(ColumnMetadata column, List<String> primaryKeys, StringBuilder builder) {
+    private void generateFieldAnnotations(ColumnAnalysis analysis, StringBuilder builder) {
+        ColumnMetadata column = analysis.getColumn();
+
         // Si es parte de la clave primaria
-        if (primaryKeys.contains(column.getColumnName())) {
+        if (analysis.isPrimaryKey()) {
             builder.append("    @Id\n");
-            if (column.getColumnType().toUpperCase().contains("SERIAL")) {
+            if (analysis.isSerial()) {
                 builder.append("    @GeneratedValue(strategy = GenerationType.IDENTITY)\n");
             }
         }
@@ -134,10 +95,9 @@ public class ClassCoreGenerator {
             builder.append(", nullable = false");
         }
 
-        // Si el tipo es VARCHAR, agregar length
-        if (column.getColumnType().toUpperCase().startsWith("VARCHAR")) {
-            String length = column.getColumnType().replaceAll("\\D+", "");
-            builder.append(", length = ").append(length);
+        // Si el tipo es VARCHAR(n), agregar length
+        if (analysis.getLength() != null) {
+            builder.append(", length = ").append(analysis.getLength());
         }
 
         // Si tiene valor por defecto, incluirlo en columnDefinition
@@ -152,12 +112,9 @@ public class ClassCoreGenerator {
         builder.append(")\n");
     }
 
-    private void generateFieldDeclaration(ColumnMetadata column, StringBuilder builder) {
-        String javaType = PostgreSQLToJavaType.getJavaType(column.getColumnType());
-        String fieldName = UtilsFactory.generateFieldName(column.getColumnName());
-
-        builder.append("    private ").append(javaType).append(" ")
-            .append(fieldName).append(";\n\n");
+    private void generateFieldDeclaration(ColumnAnalysis column, StringBuilder builder) {
+        builder.append("    private ").append(column.getJavaType()).append(" ")
+            .append(column.getFieldName()).append(";\n\n");
     }
 
 }
@@ -1,14 +1,7 @@
 package cl.playground.core.generator.factory;
 
-import cl.playground.core.model.ColumnMetadata;
-import cl.playground.core.model.RelationMetadata;
-import cl.playground.core.model.TableMetadata;
-import cl.playground.core.types.PostgreSQLToJavaType;
-
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.stream.Collectors;
+import cl.playground.core.generator.factory.TableAnalysis.ColumnAnalysis;
+import cl.playground.core.generator.factory.TableAnalysis.RelationAnalysis;
 
 public class ClassGetterAndSetterGenerator {
 
@@ -18,15 +11,14 @@ public class ClassGetterAndSetterGenerator {
         this.useLombok = useLombok;
     }
 
-    public void generateGettersAndSetters(TableMetadata table, StringBuilder builder) {
+    public void generateGettersAndSetters(TableAnalysis table, StringBuilder builder) {
         // Si Lombok está habilitado, no generar getters y setters
         if (useLombok) {
             return;
         }
 
-        if (UtilsFactory.needsCompositeKey(table)) {
-            String className = UtilsFactory.generateFieldName(table.getTableName());
-            className = className.substring(0, 1).toUpperCase() + className.substring(1);
+        if (table.hasCompositeKey()) {
+            String className = table.getClassName();
 
             builder.append("    public ").append(className).append("Id getId() {\n")
                 .append("        return id;\n")
@@ -35,90 +27,48 @@ public class ClassGetterAndSetterGenerator {
             builder.append("    public void setId(").append(className).append("Id id) {\n")
                 .append("        this.id = id;\n")
                 .append("    }\n\n");
+        }
 
-            for (ColumnMetadata column : table.getColumns()) {
-                boolean isForeignKey = table.getRelations().stream()
-                    .anyMatch(rel -> rel.getSourceColumn().equals(column.getColumnName()) && rel.isManyToOne());
-                if (!table.getPrimaryKeys().contains(column.getColumnName()) && !isForeignKey) {
-                    generateGetterAndSetter(column, builder);
-                }
-            }
-        } else {
-            for (ColumnMetadata column : table.getColumns()) {
-                boolean isForeignKey = table.getRelations().stream()
-                    .anyMatch(rel -> rel.getSourceColumn().equals(column.getColumnName()) && rel.isManyToOne());
-                if (!isForeignKey) {
-                    generateGetterAndSetter(column, builder);
-                }
+        for (ColumnAnalysis column : table.getColumns()) {
+            boolean isPartOfCompositeKey = table.hasCompositeKey() && column.isPrimaryKey();
+            if (!column.isForeignKey() && !isPartOfCompositeKey) {
+                generateGetterAndSetter(column.getFieldName(), column.getJavaType(), false, builder);
             }
         }
 
-        generateRelationGettersAndSetters(table, builder);
+        for (RelationAnalysis relation : table.getRelations()) {
+            if (relation.isManyToOne()) {
+                generateGetterAndSetter(relation.getFieldName(), relation.getTargetClass(), false, builder);
+            } else if (!relation.isRepeated()) {
+                // Para OneToMany el campo es el plural de la clase objetivo
+                generateGetterAndSetter(relation.getFieldName(), relation.getTargetClass(), true, builder);
+            }
+        }
     }
 
-    private void generateGetterAndSetter(ColumnMetadata column, StringBuilder builder) {
-        String fieldName = UtilsFactory.generateFieldName(column.getColumnName());
-        String capitalizedField = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
-        String javaType = PostgreSQLToJavaType.getJavaType(column.getColumnType());
-
+    private void generateGetterAndSetter(String fieldName, String javaType, boolean isCollection, StringBuilder builder) {
         // Getter
-        builder.append("    public ").append(javaType).append(" get")
-            .append(capitalizedField).append("() {\n")
+        builder.append("    public ");
+        appendType(javaType, isCollection, builder).append(" get");
+        appendCapitalized(fieldName, builder).append("() {\n")
             .append("        return ").append(fieldName).append(";\n")
             .append("    }\n\n");
 
         // Setter
-        builder.append("    public void set").append(capitalizedField)
-            .append("(").append(javaType).append(" ").append(fieldName).append(") {\n")
+        builder.append("    public void set");
+        appendCapitalized(fieldName, builder).append("(");
+        appendType(javaType, isCollection, builder).append(" ").append(fieldName).append(") {\n")
             .append("        this.").append(fieldName).append(" = ")
             .append(fieldName).append(";\n")
             .append("    }\n\n");
     }
 
-    private void generateRelationGettersAndSetters(TableMetadata table, StringBuilder builder) {
-        Set<String> processedFields = new HashSet<>();
-
-        for (RelationMetadata relation : table.getRelations()) {
-            String targetClass = Arrays.stream(relation.getTargetTable().toLowerCase().split("_"))
-                .map(word -> Character.toUpperCase(word.charAt(0)) + word.substring(1))
-                .collect(Collectors.joining());
-
-            if (relation.isManyToOne()) {
-                String fieldName = UtilsFactory.generateFieldName(relation.getSourceColumn());
-                generateRelationGetterAndSetter(fieldName, targetClass, false, builder);
-            } else {
-                // Para OneToMany usar el nombre en plural de la clase objetivo
-                String pluralField = UtilsFactory.toPlural(relation.getTargetTable().toLowerCase());
-                if (!processedFields.contains(pluralField)) {
-                    processedFields.add(pluralField);
-                    generateRelationGetterAndSetter(pluralField, targetClass, true, builder);
-                }
-            }
-        }
+    private StringBuilder appendType(String javaType, boolean isCollection, StringBuilder builder) {
+        return isCollection ? builder.append("Set<").append(javaType).append('>') : builder.append(javaType);
     }
 
-    private void generateRelationGetterAndSetter(String fieldName, String targetClass, boolean isCollection, StringBuilder builder) {
-        String capitalizedField = Arrays.stream(fieldName.split("_"))
-            .map(word -> Character.toUpperCase(word.charAt(0)) + word.substring(1))
-            .collect(Collectors.joining());
-
-        String camelCaseField = Character.toLowerCase(capitalizedField.charAt(0)) +
-            (capitalizedField.length() > 1 ? capitalizedField.substring(1) : "");
-
-
-        String type = isCollection ? "Set<" + targetClass + ">" : targetClass;
-
-        // Getter
-        builder.append("    public ").append(type).append(" get")
-            .append(capitalizedField).append("() {\n")
-            .append("        return ").append(camelCaseField).append(";\n")
-            .append("    }\n\n");
-
-        // Setter
-        builder.append("    public void set").append(capitalizedField)
-            .append("(").append(type).append(" ").append(camelCaseField).append(") {\n")
-            .append("        this.").append(camelCaseField).append(" = ")
-            .append(camelCaseField).append(";\n")
-            .append("    }\n\n");
+    // El nombre con la primera letra en mayúscula, sin armar un String intermedio
+    private StringBuilder appendCapitalized(String fieldName, StringBuilder builder) {
+        return builder.append(Character.toUpperCase(fieldName.charAt(0))).append(fieldName, 1, fieldName.length());
     }
 }
@@ -1,8 +1,8 @@
 package cl.playground.core.generator.factory;
 
-import cl.playground.core.model.ColumnMetadata;
-import cl.playground.core.model.TableMetadata;
-import cl.playground.core.types.PostgreSQLToJavaType;
+import cl.playground.core.generator.factory.TableAnalysis.ColumnAnalysis;
+
+import java.util.List;
 
 public class CompositeClassGenerator {
 
@@ -12,9 +12,10 @@ public class CompositeClassGenerator {
         this.useLombok = useLombok;
     }
 
-    public void generateCompositeKeyClass(TableMetadata table, StringBuilder builder) {
-        String className = UtilsFactory.generateFieldName(table.getTableName());
-        className = className.substring(0, 1).toUpperCase() + className.substring(1);
+    public void generateCompositeKeyClass(TableAnalysis table, StringBuilder builder) {
+        String className = table.getClassName();
+        List<String> primaryKeys = table.getTable().getPrimaryKeys();
+        List<ColumnAnalysis> primaryKeyColumns = table.getPrimaryKeyColumns();
 
         // Inicia la clase embebida
         builder.append("\n    @Embeddable\n");
@@ -31,23 +32,22 @@ public class CompositeClassGenerator {
         builder.append("    static class ").append(className).append("Id implements Serializable {\n");
 
         // Genera los campos de la clave compuesta
-        for (String primaryKey : table.getPrimaryKeys()) {
-            ColumnMetadata column = table.getColumns().stream()
-                .filter(c -> c.getColumnName().equals(primaryKey))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException(
-                    "No se encontró una columna para la clave primaria: " + primaryKey + " en la tabla: " + table.getTableName()));
-
-            String javaType = PostgreSQLToJavaType.getJavaType(column.getColumnType());
-            String fieldName = UtilsFactory.generateFieldName(primaryKey);
+        for (int i = 0; i < primaryKeys.size(); i++) {
+            String primaryKey = primaryKeys.get(i);
+            ColumnAnalysis column = primaryKeyColumns.get(i);
+            if (column == null) {
+                throw new IllegalArgumentException(
+                    "No se encontró una columna para la clave primaria: " + primaryKey + " en la tabla: "
+                        + table.getTable().getTableName());
+            }
 
             builder.append("        @Column(name = \"")
                 .append(primaryKey.toLowerCase())
                 .append("\")\n")
                 .append("        private ")
-                .append(javaType)
+                .append(column.getJavaType())
                 .append(" ")
-                .append(fieldName)
+                .append(column.getFieldName())
                 .append(";\n");
         }
 
@@ -62,10 +62,10 @@ public class CompositeClassGenerator {
                 .append(className).append("Id that = (").append(className).append("Id) o;\n")
                 .append("            return ");
 
-            for (int i = 0; i < table.getPrimaryKeys().size(); i++) {
-                String fieldName = UtilsFactory.generateFieldName(table.getPrimaryKeys().get(i));
+            for (int i = 0; i < primaryKeyColumns.size(); i++) {
+                String fieldName = primaryKeyColumns.get(i).getFieldName();
                 builder.append("java.util.Objects.equals(").append(fieldName).append(", that.").append(fieldName).append(")");
-                if (i < table.getPrimaryKeys().size() - 1) {
+                if (i < primaryKeyColumns.size() - 1) {
                     builder.append(" && ");
                 } else {
                     builder.append(";\n");
@@ -79,10 +79,10 @@ public class CompositeClassGenerator {
                 .append("        public int hashCode() {\n")
                 .append("            return java.util.Objects.hash(");
 
-            for (int i = 0; i < table.getPrimaryKeys().size(); i++) {
-                String fieldName = UtilsFactory.generateFieldName(table.getPrimaryKeys().get(i));
+            for (int i = 0; i < primaryKeyColumns.size(); i++) {
+                String fieldName = primaryKeyColumns.get(i).getFieldName();
                 builder.append(fieldName);
-                if (i < table.getPrimaryKeys().size() - 1) {
+                if (i < primaryKeyColumns.size() - 1) {
                     builder.append(", ");
                 } else {
                     builder.append(");\n");
@@ -1,12 +1,7 @@
 package cl.playground.core.generator.factory;
 
-import cl.playground.core.model.ColumnMetadata;
-import cl.playground.core.model.RelationMetadata;
-import cl.playground.core.model.TableMetadata;
-import cl.playground.core.types.PostgreSQLToJavaType;
-
-import java.util.HashSet;
 import java.util.Set;
+import java.util.TreeSet;
 
 public class ImportGenerator {
 
@@ -16,8 +11,9 @@ public class ImportGenerator {
         this.useLombok = useLombok;
     }
 
-    public void generateImports(TableMetadata table, StringBuilder builder) {
-        Set<String> imports = new HashSet<>();
+    public void generateImports(TableAnalysis table, StringBuilder builder) {
+        // Un TreeSet los deja ordenados a medida que se agregan
+        Set<String> imports = new TreeSet<>(table.getTypeImports());
 
         // Agregar imports básicos
         imports.add("import jakarta.persistence.Entity;");
@@ -33,60 +29,50 @@ public class ImportGenerator {
             imports.add("import lombok.AllArgsConstructor;");
 
             // Solo añadir EqualsAndHashCode si se necesita una clase compuesta
-            if (UtilsFactory.needsCompositeKey(table)) {
+            if (table.hasCompositeKey()) {
                 imports.add("import lombok.EqualsAndHashCode;");
             }
         }
 
         // Otros imports relacionados con JPA según el esquema
-        if (UtilsFactory.needsCompositeKey(table)) {
+        if (table.hasCompositeKey()) {
             imports.add("import jakarta.persistence.EmbeddedId;");
             imports.add("import jakarta.persistence.Embeddable;");
             imports.add("import java.io.Serializable;");
         } else {
             imports.add("import jakarta.persistence.Id;");
-            if (table.getColumns().stream()
-                .filter(c -> table.getPrimaryKeys().contains(c.getColumnName()))
-                .anyMatch(c -> c.getColumnType().toUpperCase().contains("SERIAL"))) {
+            if (table.hasSerialPrimaryKey()) {
                 imports.add("import jakarta.persistence.GeneratedValue;");
                 imports.add("import jakarta.persistence.GenerationType;");
             }
         }
 
-        boolean usesMapsId = table.getRelations().stream()
-            .anyMatch(RelationMetadata::isManyToOne); // Si hay relaciones ManyToOne que usan @MapsId
-
-        if (usesMapsId && UtilsFactory.needsCompositeKey(table)) {
+        // Si hay relaciones ManyToOne que usan @MapsId
+        if (table.hasManyToOne() && table.hasCompositeKey()) {
             imports.add("import jakarta.persistence.MapsId;");
         }
 
-        for (RelationMetadata relation : table.getRelations()) {
-            if (relation.isManyToOne()) {
-                imports.add("import jakarta.persistence.ManyToOne;");
-                imports.add("import jakarta.persistence.JoinColumn;");
-                imports.add("import jakarta.persistence.ForeignKey;");
-            } else {
-                imports.add("import jakarta.persistence.OneToMany;");
-                imports.add("import jakarta.persistence.CascadeType;");
-                imports.add("import java.util.Set;");
-                imports.add("import java.util.HashSet;");
-            }
+        if (table.hasManyToOne()) {
+            imports.add("import jakarta.persistence.ManyToOne;");
+            imports.add("import jakarta.persistence.JoinColumn;");
+            imports.add("import jakarta.persistence.ForeignKey;");
+        }
+        if (table.hasOneToMany()) {
+            imports.add("import jakarta.persistence.OneToMany;");
+            imports.add("import jakarta.persistence.CascadeType;");
+            imports.add("import java.util.Set;");
+            imports.add("import java.util.HashSet;");
         }
 
-        if (table.getColumns().stream().anyMatch(ColumnMetadata::isUnique)) {
+        if (table.hasUniqueColumns()) {
             imports.add("import jakarta.persistence.UniqueConstraint;");
             imports.add("import jakarta.persistence.Index;");
         }
 
-        for (ColumnMetadata column : table.getColumns()) {
-            String importStatement = PostgreSQLToJavaType.getImportStatement(column.getColumnType());
-            if (importStatement != null && !importStatement.contains("java.lang.")) {
-                imports.add(importStatement);
-            }
+        // Agregar imports al builder
+        for (String imp : imports) {
+            builder.append(imp).append("\n");
         }
-
-        // Ordenar y agregar imports al builder
-        imports.stream().sorted().forEach(imp -> builder.append(imp).append("\n"));
         builder.append("\n");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,148 @@
+package cl.playground.core.generator.factory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Nombres Java de tablas y columnas: clases en PascalCase, campos en camelCase y plurales. Cada identificador se
+ * convierte una sola vez y el resultado se reutiliza en todas las entidades que lo nombran; una misma instancia
+ * se comparte entre los hilos que generan. Los plurales irregulares se pueden ampliar desde sqlift.yaml.
+ */
+public class NamingService {
+    // Casos especiales en inglés para términos comunes en programación
+    private static final Map<String, String> IRREGULAR_PLURALS = Map.of(
+        "user", "users",
+        "person", "people",
+        "child", "children");
+
+    private final Map<String, String> plurals;
+    // Los configurados, ordenados: forman parte de la clave de generación
+    private final Map<String, String> configuredPlurals;
+    private final Map<String, String> classNames = new ConcurrentHashMap<>();
+    private final Map<String, String> fieldNames = new ConcurrentHashMap<>();
+    private final Map<String, String> pluralNames = new ConcurrentHashMap<>();
+
+    public NamingService() {
+        this(Collections.emptyMap());
+    }
+
+    // extraPlurals: singular -> plural; se suman a los de siempre y los reemplazan si repiten la palabra
+    public NamingService(Map<String, String> extraPlurals) {
+        Map<String, String> merged = new HashMap<>(IRREGULAR_PLURALS);
+        Map<String, String> configured = new TreeMap<>();
+        for (Map.Entry<String, String> plural : extraPlurals.entrySet()) {
+            merged.put(plural.getKey().toLowerCase(), plural.getValue());
+            configured.put(plural.getKey().toLowerCase(), plural.getValue());
+        }
+        this.plurals = merged;
+        this.configuredPlurals = Collections.unmodifiableMap(configured);
+    }
+
+    public Map<String, String> getConfiguredPlurals() {
+        return configuredPlurals;
+    }
+
+    public String className(String tableName) {
+        return classNames.computeIfAbsent(tableName, NamingService::toClassName);
+    }
+
+    public String fieldName(String columnName) {
+        return fieldNames.computeIfAbsent(columnName, NamingService::toFieldName);
+    }
+
+    public String plural(String word) {
+        if (word == null || word.isEmpty()) {
+            return word;
+        }
+        return pluralNames.computeIfAbsent(word, this::toPlural);
+    }
+
+    private String toPlural(String input) {
+        // Revisar si es un caso especial
+        String special = plurals.get(input.toLowerCase());
+        if (special != null) {
+            return special;
+        }
+
+        // Si ya termina en s, retornar como está
+        if (input.endsWith("s")) {
+            return input;
+        }
+
+        // Reglas para español
+        if (input.endsWith("z")) {
+            return input.substring(0, input.length() - 1) + "ces";
+        }
+
+        if (input.endsWith("n") || input.endsWith("l") || input.endsWith("r") ||
+            input.endsWith("d") || input.endsWith("j") ||
+            input.endsWith("ch") || input.endsWith("sh")) {
+            return input + "es";
+        }
+
+        // Regla por defecto
+        return input + "s";
+    }
+
+    private static String toClassName(String tableName) {
+        // Normalizar el nombre: eliminar caracteres no válidos
+        String sanitized = tableName.replaceAll("[^a-zA-Z0-9_]", "_").toLowerCase();
+
+        // Transformar a PascalCase
+        String[] parts = sanitized.split("_");
+        StringBuilder className = new StringBuilder();
+        for (String part : parts) {
+            if (!part.isEmpty()) {
+                className.append(Character.toUpperCase(part.charAt(0)))
+                    .append(part.substring(1));
+            }
+        }
+
+        return className.toString();
+    }
+
+    private static String toFieldName(String columnName) {
+        // 1. Convertir a minúsculas y dividir por guiones bajos
+        String[] parts = columnName.toLowerCase().split("_");
+        StringBuilder fieldName = new StringBuilder();
+
+        // 2. Determinar si es un campo ID
+        boolean isIdField = parts.length > 0 && parts[parts.length - 1].equals("id");
+
+        // 3. Si es solo "id", retornar directamente
+        if (parts.length == 1 && isIdField) {
+            return "id";
+        }
+
+        // 4. Construir el nombre del campo
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i];
+
+            // Ignorar la parte "id" si es el último elemento y el campo es un ID
+            if (i == parts.length - 1 && isIdField) {
+                continue;
+            }
+
+            if (i == 0) {
+                // Primera palabra en minúscula
+                fieldName.append(part);
+            } else {
+                // Capitalizar las siguientes palabras
+                if (!part.isEmpty()) {
+                    fieldName.append(Character.toUpperCase(part.charAt(0)))
+                        .append(part.substring(1));
+                }
+            }
+        }
+
+        // 5. Agregar el sufijo "Id" si es un campo de ID foráneo
+        if (isIdField && parts.length > 1) {
+            fieldName.append("Id");
+        }
+
+        return fieldName.toString();
+    }
+}
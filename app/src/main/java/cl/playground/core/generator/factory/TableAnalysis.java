@@ -0,0 +1,286 @@
+package cl.playground.core.generator.factory;
+
+import cl.playground.core.model.ColumnMetadata;
+import cl.playground.core.model.RelationMetadata;
+import cl.playground.core.model.TableMetadata;
+import cl.playground.core.types.JavaType;
+import cl.playground.core.types.TypeResolver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Lo que los generadores necesitan saber de una tabla, calculado una sola vez antes de generar su entidad:
+ * nombres de clase y de campo, tipos Java, qué columnas son clave primaria o foránea y qué imports requieren.
+ * Cada columna y cada relación se recorre una vez, así el costo crece en línea con el ancho de la tabla. En esa
+ * misma pasada se detectan dos columnas o relaciones que generarían el mismo campo.
+ */
+public class TableAnalysis {
+    private final TableMetadata table;
+    private final String className;
+    private final String pluralTableName;
+    private final boolean compositeKey;
+    private final List<ColumnAnalysis> columns;
+    // En el orden de la clave; null donde la clave nombra una columna que no existe
+    private final List<ColumnAnalysis> primaryKeyColumns;
+    private final List<RelationAnalysis> relations;
+    private final boolean serialPrimaryKey;
+    private final boolean manyToOne;
+    private final boolean oneToMany;
+    private final boolean manyToOneInPrimaryKey;
+    private final boolean uniqueColumns;
+    private final Set<String> typeImports = new TreeSet<>();
+
+    public TableAnalysis(TableMetadata table, NamingService naming, TypeResolver types) {
+        this.table = table;
+        this.className = naming.className(table.getTableName());
+        // El nombre de la tabla en @Table siempre va en plural
+        String tableName = table.getTableName().toLowerCase();
+        this.pluralTableName = tableName.endsWith("s") ? tableName : naming.plural(tableName);
+        this.compositeKey = table.getPrimaryKeys().size() > 1;
+
+        // Quién declara cada campo de la entidad: una columna, una relación o la clave compuesta
+        Map<String, Object> fields = new HashMap<>();
+        if (compositeKey) {
+            fields.put("id", table.getPrimaryKeys());
+        }
+
+        Set<String> primaryKeys = new HashSet<>(table.getPrimaryKeys());
+        Set<String> foreignKeys = new HashSet<>();
+        boolean anyManyToOne = false;
+        boolean anyOneToMany = false;
+        boolean anyManyToOneInPrimaryKey = false;
+        for (RelationMetadata relation : table.getRelations()) {
+            if (relation.isManyToOne()) {
+                foreignKeys.add(relation.getSourceColumn());
+                anyManyToOne = true;
+                anyManyToOneInPrimaryKey |= primaryKeys.contains(relation.getSourceColumn());
+            } else {
+                anyOneToMany = true;
+            }
+        }
+        this.manyToOne = anyManyToOne;
+        this.oneToMany = anyOneToMany;
+        this.manyToOneInPrimaryKey = anyManyToOneInPrimaryKey;
+
+        List<ColumnAnalysis> analyzedColumns = new ArrayList<>(table.getColumns().size());
+        // Con nombres repetidos gana la primera columna, igual que en TableMetadata.getColumn
+        Map<String, ColumnAnalysis> byName = new HashMap<>();
+        boolean anyUnique = false;
+        for (ColumnMetadata column : table.getColumns()) {
+            ColumnAnalysis analysis = new ColumnAnalysis(column, naming, types.resolve(column.getColumnType()),
+                primaryKeys.contains(column.getColumnName()), foreignKeys.contains(column.getColumnName()));
+            analyzedColumns.add(analysis);
+            if (!analysis.foreignKey && !(compositeKey && analysis.primaryKey)) {
+                declareField(fields, analysis.fieldName, column);
+            }
+            byName.putIfAbsent(column.getColumnName(), analysis);
+            anyUnique |= column.isUnique();
+
+            if (analysis.type.getImportStatement() != null) {
+                typeImports.add(analysis.type.getImportStatement());
+            }
+        }
+        this.columns = Collections.unmodifiableList(analyzedColumns);
+        this.uniqueColumns = anyUnique;
+
+        List<ColumnAnalysis> keyColumns = new ArrayList<>(table.getPrimaryKeys().size());
+        boolean serialKey = false;
+        for (String primaryKey : table.getPrimaryKeys()) {
+            ColumnAnalysis column = byName.get(primaryKey);
+            keyColumns.add(column);
+            serialKey |= column != null && column.isSerial();
+        }
+        this.primaryKeyColumns = Collections.unmodifiableList(keyColumns);
+        this.serialPrimaryKey = serialKey;
+
+        List<RelationAnalysis> analyzedRelations = new ArrayList<>(table.getRelations().size());
+        for (RelationMetadata relation : table.getRelations()) {
+            RelationAnalysis analysis = new RelationAnalysis(relation, naming);
+            // Dos OneToMany hacia la misma tabla declararían el mismo campo: solo cuenta la primera
+            analysis.repeated = !relation.isManyToOne()
+                && fields.get(analysis.fieldName) instanceof RelationMetadata owner
+                && !owner.isManyToOne() && owner.getTargetTable().equals(relation.getTargetTable());
+            if (!analysis.repeated) {
+                declareField(fields, analysis.fieldName, relation);
+            }
+            analyzedRelations.add(analysis);
+        }
+        this.relations = Collections.unmodifiableList(analyzedRelations);
+    }
+
+    private void declareField(Map<String, Object> fields, String fieldName, Object owner) {
+        Object previous = fields.putIfAbsent(fieldName, owner);
+        if (previous != null) {
+            throw new IllegalArgumentException("En la tabla " + table.getTableName() + ", " + describe(previous)
+                + " y " + describe(owner) + " generan el mismo campo: " + fieldName);
+        }
+    }
+
+    private static String describe(Object owner) {
+        if (owner instanceof ColumnMetadata column) {
+            return "la columna " + column.getColumnName();
+        }
+        if (owner instanceof RelationMetadata relation) {
+            return relation.isManyToOne()
+                ? "la clave foránea " + relation.getSourceColumn()
+                : "la relación con " + relation.getTargetTable();
+        }
+        return "la clave compuesta";
+    }
+
+    public TableMetadata getTable() {
+        return table;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    // El nombre de la tabla en plural, para @Table
+    public String getPluralTableName() {
+        return pluralTableName;
+    }
+
+    public boolean hasCompositeKey() {
+        return compositeKey;
+    }
+
+    public List<ColumnAnalysis> getColumns() {
+        return columns;
+    }
+
+    public List<ColumnAnalysis> getPrimaryKeyColumns() {
+        return primaryKeyColumns;
+    }
+
+    public List<RelationAnalysis> getRelations() {
+        return relations;
+    }
+
+    public boolean hasSerialPrimaryKey() {
+        return serialPrimaryKey;
+    }
+
+    public boolean hasManyToOne() {
+        return manyToOne;
+    }
+
+    public boolean hasOneToMany() {
+        return oneToMany;
+    }
+
+    // Alguna ManyToOne sale de una columna de la clave primaria
+    public boolean hasManyToOneInPrimaryKey() {
+        return manyToOneInPrimaryKey;
+    }
+
+    public boolean hasUniqueColumns() {
+        return uniqueColumns;
+    }
+
+    // Los imports que piden los tipos de las columnas, ordenados
+    public Set<String> getTypeImports() {
+        return typeImports;
+    }
+
+    public static class ColumnAnalysis {
+        private final ColumnMetadata column;
+        private final String fieldName;
+        private final JavaType type;
+        private final boolean primaryKey;
+        private final boolean foreignKey;
+
+        private ColumnAnalysis(ColumnMetadata column, NamingService naming, JavaType type, boolean primaryKey,
+                               boolean foreignKey) {
+            this.column = column;
+            this.fieldName = naming.fieldName(column.getColumnName());
+            this.type = type;
+            this.primaryKey = primaryKey;
+            this.foreignKey = foreignKey;
+        }
+
+        public ColumnMetadata getColumn() {
+            return column;
+        }
+
+        public String getFieldName() {
+            return fieldName;
+        }
+
+        public String getJavaType() {
+            return type.getName();
+        }
+
+        // El largo de un VARCHAR(n), para @Column; null si la columna no lo declara
+        public Integer getLength() {
+            return type.getLength();
+        }
+
+        public boolean isPrimaryKey() {
+            return primaryKey;
+        }
+
+        // Origen de una relación ManyToOne: la entidad la declara como relación y no como columna
+        public boolean isForeignKey() {
+            return foreignKey;
+        }
+
+        public boolean isSerial() {
+            return type.isSerial();
+        }
+    }
+
+    public static class RelationAnalysis {
+        private final RelationMetadata relation;
+        private final String targetClass;
+        // ManyToOne: el campo de la columna de origen; OneToMany: el plural de la tabla destino
+        private final String fieldName;
+        // OneToMany: el campo de la entidad destino que es dueño de la relación
+        private final String mappedBy;
+        private boolean repeated;
+
+        private RelationAnalysis(RelationMetadata relation, NamingService naming) {
+            this.relation = relation;
+            this.targetClass = naming.className(relation.getTargetTable());
+            if (relation.isManyToOne()) {
+                this.fieldName = naming.fieldName(relation.getSourceColumn());
+                this.mappedBy = null;
+            } else {
+                this.fieldName = naming.plural(naming.fieldName(relation.getTargetTable()));
+                this.mappedBy = naming.fieldName(relation.getTargetColumn());
+            }
+        }
+
+        public RelationMetadata getRelation() {
+            return relation;
+        }
+
+        public boolean isManyToOne() {
+            return relation.isManyToOne();
+        }
+
+        public String getTargetClass() {
+            return targetClass;
+        }
+
+        public String getFieldName() {
+            return fieldName;
+        }
+
+        public String getMappedBy() {
+            return mappedBy;
+        }
+
+        // Una OneToMany cuyo campo ya declaró otra relación de la tabla; no genera nada
+        public boolean isRepeated() {
+            return repeated;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package cl.playground.core.migration;
+
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.List;
+
+// Un archivo de migración; version es null cuando el directorio se ordena por nombre (sin archivos V__ de Flyway)
+public class Migration {
+    private final Path path;
+    private final String name;
+    private final List<BigInteger> version;
+    private final long size;
+    private final long lastModified;
+
+    Migration(Path path, String name, List<BigInteger> version, long size, long lastModified) {
+        this.path = path;
+        this.name = name;
+        this.version = version;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<BigInteger> getVersion() {
+        return version;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public String toString() {
+        return "Migration{" +
+                "name='" + name + '\'' +
+                ", version=" + version +
+                ", size=" + size +
+                '}';
+    }
+}
@@ -0,0 +1,109 @@
+package cl.playground.core.migration;
+
+import cl.playground.exception.FileReadException;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Lista los archivos .sql de un directorio de migraciones (incluidos subdirectorios) en el orden en que se
+ * aplicarían. Con migraciones versionadas de Flyway (V1__init.sql, V1_1__users.sql, V2.0.1__x.sql) el orden
+ * es por versión y se ignoran las repetibles (R__), las de deshacer (U) y los callbacks. Un directorio sin
+ * archivos V__, como los changelogs SQL de Liquibase con includeAll, se ordena por ruta.
+ */
+public class MigrationDirectory {
+    private static final String SQL_EXTENSION = ".sql";
+
+    private static final Comparator<List<BigInteger>> VERSION_ORDER = (left, right) -> {
+        for (int i = 0; i < Math.max(left.size(), right.size()); i++) {
+            // 1.0 y 1 son la misma versión
+            BigInteger a = i < left.size() ? left.get(i) : BigInteger.ZERO;
+            BigInteger b = i < right.size() ? right.get(i) : BigInteger.ZERO;
+            int comparison = a.compareTo(b);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return 0;
+    };
+
+    public static boolean isMigrationDirectory(String schema) {
+        return Files.isDirectory(Paths.get(schema));
+    }
+
+    public static List<Migration> scan(Path directory) throws FileReadException {
+        List<Migration> versioned = new ArrayList<>();
+        List<Migration> unversioned = new ArrayList<>();
+
+        try {
+            // walkFileTree entrega los atributos junto con cada archivo, sin un stat adicional por migración
+            Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    String fileName = file.getFileName().toString();
+                    if (attributes.isRegularFile() && fileName.toLowerCase().endsWith(SQL_EXTENSION)) {
+                        String name = directory.relativize(file).toString().replace('\\', '/');
+                        List<BigInteger> version = parseVersion(fileName);
+                        Migration migration = new Migration(file, name, version, attributes.size(),
+                            attributes.lastModifiedTime().toMillis());
+                        (version != null ? versioned : unversioned).add(migration);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new FileReadException("Error reading migration directory: " + directory, e);
+        }
+
+        if (versioned.isEmpty()) {
+            unversioned.sort(Comparator.comparing(Migration::getName));
+            return unversioned;
+        }
+
+        versioned.sort(Comparator.comparing(Migration::getVersion, VERSION_ORDER));
+        for (int i = 1; i < versioned.size(); i++) {
+            if (VERSION_ORDER.compare(versioned.get(i - 1).getVersion(), versioned.get(i).getVersion()) == 0) {
+                throw new FileReadException(String.format("Found more than one migration with version %s: %s, %s",
+                    versionText(versioned.get(i).getVersion()), versioned.get(i - 1).getName(), versioned.get(i).getName()));
+            }
+        }
+        return versioned;
+    }
+
+    // V<versión>__<descripción>.sql, con partes de la versión separadas por '.' o '_'; null si no es versionada
+    private static List<BigInteger> parseVersion(String fileName) {
+        int separator = fileName.indexOf("__");
+        if (!fileName.startsWith("V") || separator < 2 || !fileName.endsWith(SQL_EXTENSION)) {
+            return null;
+        }
+
+        List<BigInteger> version = new ArrayList<>();
+        int partStart = 1;
+        for (int i = 1; i <= separator; i++) {
+            char c = fileName.charAt(i);
+            if (i == separator || c == '.' || c == '_') {
+                if (i == partStart) {
+                    return null;
+                }
+                version.add(new BigInteger(fileName.substring(partStart, i)));
+                partStart = i + 1;
+            } else if (c < '0' || c > '9') {
+                return null;
+            }
+        }
+        return version;
+    }
+
+    private static String versionText(List<BigInteger> version) {
+        return String.join(".", version.stream().map(BigInteger::toString).toList());
+    }
+}
@@ -0,0 +1,128 @@
+package cl.playground.core.migration;
+
+import cl.playground.core.engine.PostgresEngine;
+import cl.playground.core.parser.DdlCatalog;
+import cl.playground.core.parser.DdlScript;
+import cl.playground.exception.FileReadException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Reproduce un directorio de migraciones sobre un {@link DdlCatalog} y guarda el catálogo resultante en un
+ * snapshot. En la siguiente ejecución, si las migraciones del snapshot siguen siendo las primeras del directorio
+ * y no cambiaron, solo se parsean y aplican las nuevas; si no, se reproduce todo desde cero.
+ */
+public class MigrationReplayer {
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final PostgresEngine engine;
+    private final Path snapshotFile;
+    private int replayed;
+    private int total;
+
+    public MigrationReplayer(PostgresEngine engine, Path snapshotFile) {
+        this.engine = engine;
+        this.snapshotFile = snapshotFile;
+    }
+
+    public DdlScript replay(Path directory) throws FileReadException {
+        List<Migration> migrations = MigrationDirectory.scan(directory);
+        String directoryName = directory.toAbsolutePath().normalize().toString();
+
+        MigrationSnapshot snapshot = MigrationSnapshot.read(snapshotFile);
+        List<MigrationSnapshot.Entry> applied = snapshot != null && snapshot.directory.equals(directoryName)
+            ? validate(snapshot.applied, migrations)
+            : null;
+        // Si solo cambiaron fechas de archivos ya aplicados, el snapshot se reescribe para no recalcular checksums
+        boolean changed = applied == null || !sameEntries(applied, snapshot.applied);
+
+        DdlCatalog catalog = applied != null ? snapshot.catalog : new DdlCatalog();
+        if (applied == null) {
+            applied = new ArrayList<>();
+        }
+
+        total = migrations.size();
+        replayed = total - applied.size();
+        for (Migration migration : migrations.subList(applied.size(), migrations.size())) {
+            byte[] content = readMigration(migration);
+            catalog.apply(engine.parseSchema(decode(content)));
+            applied.add(new MigrationSnapshot.Entry(migration.getName(), content.length, migration.getLastModified(),
+                checksum(content)));
+        }
+
+        if (changed || replayed > 0) {
+            try {
+                new MigrationSnapshot(directoryName, applied, catalog).write(snapshotFile);
+            } catch (IOException e) {
+                throw new FileReadException("Error writing migration snapshot: " + snapshotFile, e);
+            }
+        }
+
+        return catalog.toScript();
+    }
+
+    // Migraciones del directorio que ya se reprodujeron en este run (las demás vinieron del snapshot)
+    public int getReplayed() {
+        return replayed;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    // Devuelve las entradas vigentes si el snapshot es un prefijo sin cambios del directorio, o null si no sirve
+    private List<MigrationSnapshot.Entry> validate(List<MigrationSnapshot.Entry> entries, List<Migration> migrations) {
+        if (entries.size() > migrations.size()) {
+            return null;
+        }
+
+        List<MigrationSnapshot.Entry> current = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            MigrationSnapshot.Entry entry = entries.get(i);
+            Migration migration = migrations.get(i);
+            if (!entry.name.equals(migration.getName()) || entry.size != migration.getSize()) {
+                return null;
+            }
+            if (entry.lastModified != migration.getLastModified()
+                && entry.checksum != checksum(readMigration(migration))) {
+                return null;
+            }
+            current.add(new MigrationSnapshot.Entry(entry.name, entry.size, migration.getLastModified(), entry.checksum));
+        }
+        return current;
+    }
+
+    private boolean sameEntries(List<MigrationSnapshot.Entry> current, List<MigrationSnapshot.Entry> stored) {
+        for (int i = 0; i < current.size(); i++) {
+            if (current.get(i).lastModified != stored.get(i).lastModified) {
+                return false;
+            }
+        }
+        return current.size() == stored.size();
+    }
+
+    private byte[] readMigration(Migration migration) {
+        try {
+            return Files.readAllBytes(migration.getPath());
+        } catch (IOException e) {
+            throw new FileReadException("Error reading migration: " + migration.getPath(), e);
+        }
+    }
+
+    private static String decode(byte[] content) {
+        String sql = new String(content, StandardCharsets.UTF_8);
+        return !sql.isEmpty() && sql.charAt(0) == BYTE_ORDER_MARK ? sql.substring(1) : sql;
+    }
+
+    private static long checksum(byte[] content) {
+        CRC32C crc = new CRC32C();
+        crc.update(content);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,100 @@
+package cl.playground.core.migration;
+
+import cl.playground.core.parser.DdlCatalog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Catálogo después de la última migración aplicada, junto con la lista de migraciones que lo produjeron
+class MigrationSnapshot {
+    private static final String MAGIC = "SQLIFT-MIGRATIONS";
+    private static final int FORMAT_VERSION = 2;
+
+    final String directory;
+    final List<Entry> applied;
+    final DdlCatalog catalog;
+
+    // Tamaño y fecha permiten validar sin leer el archivo; el checksum decide cuando la fecha cambió (p. ej. un checkout)
+    static class Entry {
+        final String name;
+        final long size;
+        final long lastModified;
+        final long checksum;
+
+        Entry(String name, long size, long lastModified, long checksum) {
+            this.name = name;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.checksum = checksum;
+        }
+    }
+
+    MigrationSnapshot(String directory, List<Entry> applied, DdlCatalog catalog) {
+        this.directory = directory;
+        this.applied = applied;
+        this.catalog = catalog;
+    }
+
+    // Un snapshot ausente, de otra versión o dañado no es un error: solo obliga a aplicar todo de nuevo
+    static MigrationSnapshot read(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (!MAGIC.equals(input.readUTF()) || input.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+
+            String directory = input.readUTF();
+            int count = input.readInt();
+            List<Entry> applied = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                applied.add(new Entry(input.readUTF(), input.readLong(), input.readLong(), input.readLong()));
+            }
+            return new MigrationSnapshot(directory, applied, DdlCatalog.read(input));
+
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // Se escribe en un archivo temporal y se reemplaza de una vez, así un proceso interrumpido no deja un snapshot a medias
+    void write(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                output.writeUTF(MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                output.writeUTF(directory);
+                output.writeInt(applied.size());
+                for (Entry entry : applied) {
+                    output.writeUTF(entry.name);
+                    output.writeLong(entry.size);
+                    output.writeLong(entry.lastModified);
+                    output.writeLong(entry.checksum);
+                }
+                catalog.write(output);
+            }
+
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
@@ -1,62 +1,64 @@
 package cl.playground.core.model;
 
+import java.util.Objects;
+
+// Inmutable: una misma columna puede compartirse entre tablas que la declaran igual
 public class ColumnMetadata {
-    private String columnName;
-    private String columnType;
-    private boolean isNotNull;
-    private boolean isUnique;
-    private String defaultValue;
+    private static final byte NOT_NULL = 1;
+    private static final byte UNIQUE = 1 << 1;
+
+    private final String columnName;
+    private final String columnType;
+    private final String defaultValue;
+    // NOT NULL y UNIQUE empaquetados en un solo byte
+    private final byte flags;
 
     // Constructores
-    public ColumnMetadata() {
+    public ColumnMetadata(String columnName, String columnType) {
+        this(columnName, columnType, false, false, null);
     }
 
-    public ColumnMetadata(String columnName, String columnType) {
+    public ColumnMetadata(String columnName, String columnType, boolean notNull, boolean unique, String defaultValue) {
         this.columnName = columnName;
         this.columnType = columnType;
-        this.isNotNull = false;
-        this.isUnique = false;
+        this.defaultValue = defaultValue;
+        this.flags = (byte) ((notNull ? NOT_NULL : 0) | (unique ? UNIQUE : 0));
     }
 
-    // Getters y Setters
+    // Getters
     public String getColumnName() {
         return columnName;
     }
 
-    public void setColumnName(String columnName) {
-        this.columnName = columnName;
-    }
-
     public String getColumnType() {
         return columnType;
     }
 
-    public void setColumnType(String columnType) {
-        this.columnType = columnType;
-    }
-
     public boolean isNotNull() {
-        return isNotNull;
-    }
-
-    public void setNotNull(boolean notNull) {
-        isNotNull = notNull;
+        return (flags & NOT_NULL) != 0;
     }
 
     public boolean isUnique() {
-        return isUnique;
-    }
-
-    public void setUnique(boolean unique) {
-        isUnique = unique;
+        return (flags & UNIQUE) != 0;
     }
 
     public String getDefaultValue() {
         return defaultValue;
     }
 
-    public void setDefaultValue(String defaultValue) {
-        this.defaultValue = defaultValue;
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ColumnMetadata other)) return false;
+        return flags == other.flags
+            && Objects.equals(columnName, other.columnName)
+            && Objects.equals(columnType, other.columnType)
+            && Objects.equals(defaultValue, other.defaultValue);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(columnName, columnType, defaultValue, flags);
     }
 
     @Override
@@ -64,9 +66,9 @@ public class ColumnMetadata {
         return "ColumnMetadata{" +
                 "columnName='" + columnName + '\'' +
                 ", columnType='" + columnType + '\'' +
-                ", isNotNull=" + isNotNull +
-                ", isUnique=" + isUnique +
+                ", isNotNull=" + isNotNull() +
+                ", isUnique=" + isUnique() +
                 ", defaultValue='" + defaultValue + '\'' +
                 '}';
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,15 @@
 package cl.playground.core.model;
 
+import java.util.Objects;
+
+// Inmutable: las relaciones iguales se comparten y la inversa reutiliza los identificadores de la directa
 public class RelationMetadata {
-    private String sourceColumn;
-    private String targetTable;
-    private String targetColumn;
-    private boolean isManyToOne;
+    private final String sourceColumn;
+    private final String targetTable;
+    private final String targetColumn;
+    private final boolean isManyToOne;
 
     // Constructores
-    public RelationMetadata() {
-    }
-
     public RelationMetadata(String sourceColumn, String targetTable, String targetColumn, boolean isManyToOne) {
         this.sourceColumn = sourceColumn;
         this.targetTable = targetTable;
@@ -17,39 +17,28 @@ public class RelationMetadata {
         this.isManyToOne = isManyToOne;
     }
 
-    // Getters y Setters
-    public String getSourceColumn() {
-        return sourceColumn;
+    // La misma relación vista desde la tabla destino; sourceTable es la tabla dueña de esta relación
+    public RelationMetadata inverse(String sourceTable) {
+        return new RelationMetadata(targetColumn, sourceTable, sourceColumn, !isManyToOne);
     }
 
-    public void setSourceColumn(String sourceColumn) {
-        this.sourceColumn = sourceColumn;
+    // Getters
+    public String getSourceColumn() {
+        return sourceColumn;
     }
 
     public String getTargetTable() {
         return targetTable;
     }
 
-    public void setTargetTable(String targetTable) {
-        this.targetTable = targetTable;
-    }
-
     public String getTargetColumn() {
         return targetColumn;
     }
 
-    public void setTargetColumn(String targetColumn) {
-        this.targetColumn = targetColumn;
-    }
-
     public boolean isManyToOne() {
         return isManyToOne;
     }
 
-    public void setManyToOne(boolean manyToOne) {
-        isManyToOne = manyToOne;
-    }
-
     public String getMappedByField() {
         String[] parts = targetColumn.split("_");
         StringBuilder fieldName = new StringBuilder(parts[0]);
@@ -62,6 +51,20 @@ public class RelationMetadata {
         return fieldName.toString();
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RelationMetadata other)) return false;
+        return isManyToOne == other.isManyToOne
+            && Objects.equals(sourceColumn, other.sourceColumn)
+            && Objects.equals(targetTable, other.targetTable)
+            && Objects.equals(targetColumn, other.targetColumn);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sourceColumn, targetTable, targetColumn, isManyToOne);
+    }
 
     @Override
     public String toString() {
@@ -72,4 +75,4 @@ public class RelationMetadata {
                 ", isManyToOne=" + isManyToOne +
                 '}';
     }
-}
\ No newline at end of file
+}
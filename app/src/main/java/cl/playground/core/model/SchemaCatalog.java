@@ -0,0 +1,261 @@
+package cl.playground.core.model;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Tablas de un esquema ya procesado, en el orden en que fueron declaradas.
+ * Sigue siendo una lista, pero además resuelve tabla y (tabla, columna) por nombre sin recorrerla.
+ */
+public class SchemaCatalog extends AbstractList<TableMetadata> implements RandomAccess {
+    private final List<TableMetadata> tables;
+    private final Map<String, TableMetadata> tablesByName;
+
+    public SchemaCatalog(List<TableMetadata> tables) {
+        this.tables = tables;
+        this.tablesByName = new HashMap<>(tables.size() * 4 / 3 + 1);
+        // Con nombres repetidos gana la última tabla, igual que al generar los archivos
+        tables.forEach(table -> tablesByName.put(table.getTableName(), table));
+    }
+
+    public TableMetadata getTable(String tableName) {
+        return tablesByName.get(tableName);
+    }
+
+    public boolean containsTable(String tableName) {
+        return tablesByName.containsKey(tableName);
+    }
+
+    public ColumnMetadata getColumn(String tableName, String columnName) {
+        TableMetadata table = tablesByName.get(tableName);
+        return table != null ? table.getColumn(columnName) : null;
+    }
+
+    @Override
+    public TableMetadata get(int index) {
+        return tables.get(index);
+    }
+
+    @Override
+    public int size() {
+        return tables.size();
+    }
+
+    // Identificadores, columnas y relaciones se escriben una vez y las tablas los referencian por posición,
+    // así al leer se recupera el mismo modelo compartido que deja SchemaProcessor
+    public void write(DataOutputStream output) throws IOException {
+        Map<String, Integer> strings = new HashMap<>();
+        Map<ColumnMetadata, Integer> columns = new HashMap<>();
+        Map<RelationMetadata, Integer> relations = new HashMap<>();
+        for (TableMetadata table : tables) {
+            register(strings, table.getTableName());
+            for (ColumnMetadata column : table.getColumns()) {
+                if (!columns.containsKey(column)) {
+                    columns.put(column, columns.size());
+                    register(strings, column.getColumnName());
+                    register(strings, column.getColumnType());
+                    register(strings, column.getDefaultValue());
+                }
+            }
+            table.getPrimaryKeys().forEach(primaryKey -> register(strings, primaryKey));
+            for (RelationMetadata relation : table.getRelations()) {
+                if (!relations.containsKey(relation)) {
+                    relations.put(relation, relations.size());
+                    register(strings, relation.getSourceColumn());
+                    register(strings, relation.getTargetTable());
+                    register(strings, relation.getTargetColumn());
+                }
+            }
+        }
+
+        output.writeInt(strings.size());
+        for (String value : inOrder(strings, new String[strings.size()])) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+
+        // El resto son solo referencias: se escriben como bloques de enteros que se leen de una vez
+        IntBlock block = new IntBlock();
+        block.add(columns.size());
+        for (ColumnMetadata column : inOrder(columns, new ColumnMetadata[columns.size()])) {
+            block.add(indexOf(strings, column.getColumnName()));
+            block.add(indexOf(strings, column.getColumnType()));
+            block.add(indexOf(strings, column.getDefaultValue()));
+            block.add((column.isNotNull() ? 1 : 0) | (column.isUnique() ? 2 : 0));
+        }
+
+        block.add(relations.size());
+        for (RelationMetadata relation : inOrder(relations, new RelationMetadata[relations.size()])) {
+            block.add(indexOf(strings, relation.getSourceColumn()));
+            block.add(indexOf(strings, relation.getTargetTable()));
+            block.add(indexOf(strings, relation.getTargetColumn()));
+            block.add(relation.isManyToOne() ? 1 : 0);
+        }
+
+        block.add(tables.size());
+        for (TableMetadata table : tables) {
+            block.add(indexOf(strings, table.getTableName()));
+            block.add(table.getColumns().size());
+            table.getColumns().forEach(column -> block.add(columns.get(column)));
+            block.add(table.getPrimaryKeys().size());
+            table.getPrimaryKeys().forEach(primaryKey -> block.add(indexOf(strings, primaryKey)));
+            block.add(table.getRelations().size());
+            table.getRelations().forEach(relation -> block.add(relations.get(relation)));
+        }
+        block.write(output);
+    }
+
+    public static SchemaCatalog read(DataInputStream input) throws IOException {
+        String[] strings = new String[readCount(input)];
+        for (int i = 0; i < strings.length; i++) {
+            int length = readCount(input);
+            byte[] bytes = input.readNBytes(length);
+            if (bytes.length < length) {
+                throw new EOFException("Truncated schema catalog");
+            }
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        IntBlock block = IntBlock.read(input);
+        ColumnMetadata[] columns = new ColumnMetadata[block.nextCount()];
+        for (int i = 0; i < columns.length; i++) {
+            String name = block.next(strings);
+            String type = block.next(strings);
+            String defaultValue = block.next(strings);
+            int flags = block.next();
+            columns[i] = new ColumnMetadata(name, type, (flags & 1) != 0, (flags & 2) != 0, defaultValue);
+        }
+
+        RelationMetadata[] relations = new RelationMetadata[block.nextCount()];
+        for (int i = 0; i < relations.length; i++) {
+            relations[i] = new RelationMetadata(block.next(strings), block.next(strings), block.next(strings),
+                block.next() != 0);
+        }
+
+        int tableCount = block.nextCount();
+        List<TableMetadata> tables = new ArrayList<>(tableCount);
+        for (int i = 0; i < tableCount; i++) {
+            String tableName = block.next(strings);
+            ColumnMetadata[] tableColumns = new ColumnMetadata[block.nextCount()];
+            for (int j = 0; j < tableColumns.length; j++) {
+                tableColumns[j] = block.next(columns);
+            }
+            String[] primaryKeys = new String[block.nextCount()];
+            for (int j = 0; j < primaryKeys.length; j++) {
+                primaryKeys[j] = block.next(strings);
+            }
+            RelationMetadata[] tableRelations = new RelationMetadata[block.nextCount()];
+            for (int j = 0; j < tableRelations.length; j++) {
+                tableRelations[j] = block.next(relations);
+            }
+            tables.add(new TableMetadata(tableName, Arrays.asList(tableColumns), Arrays.asList(primaryKeys),
+                Arrays.asList(tableRelations)));
+        }
+        return new SchemaCatalog(tables);
+    }
+
+    private static void register(Map<String, Integer> strings, String value) {
+        if (value != null) {
+            strings.putIfAbsent(value, strings.size());
+        }
+    }
+
+    // Posición en la tabla de identificadores, -1 para null
+    private static int indexOf(Map<String, Integer> strings, String value) {
+        return value != null ? strings.get(value) : -1;
+    }
+
+    private static <T> T[] inOrder(Map<T, Integer> indexes, T[] values) {
+        indexes.forEach((value, index) -> values[index] = value);
+        return values;
+    }
+
+    private static int readCount(DataInputStream input) throws IOException {
+        int count = input.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid count in schema catalog: " + count);
+        }
+        return count;
+    }
+
+    // Enteros escritos con un solo write y leídos con un solo readFully, en lugar de un readInt por referencia
+    private static class IntBlock {
+        private int[] values;
+        private int size;
+        private int position;
+
+        IntBlock() {
+            this.values = new int[1024];
+        }
+
+        private IntBlock(int[] values) {
+            this.values = values;
+            this.size = values.length;
+        }
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void write(DataOutputStream output) throws IOException {
+            ByteBuffer bytes = ByteBuffer.allocate(size * Integer.BYTES);
+            bytes.asIntBuffer().put(values, 0, size);
+            output.writeInt(size);
+            output.write(bytes.array());
+        }
+
+        static IntBlock read(DataInputStream input) throws IOException {
+            byte[] bytes = new byte[readCount(input) * Integer.BYTES];
+            input.readFully(bytes);
+            int[] values = new int[bytes.length / Integer.BYTES];
+            ByteBuffer.wrap(bytes).asIntBuffer().get(values);
+            return new IntBlock(values);
+        }
+
+        int next() throws IOException {
+            if (position == size) {
+                throw new EOFException("Truncated schema catalog");
+            }
+            return values[position++];
+        }
+
+        int nextCount() throws IOException {
+            int count = next();
+            if (count < 0 || count > size - position) {
+                throw new IOException("Invalid count in schema catalog: " + count);
+            }
+            return count;
+        }
+
+        String next(String[] strings) throws IOException {
+            int index = next();
+            return index == -1 ? null : at(strings, index);
+        }
+
+        <T> T next(T[] pool) throws IOException {
+            return at(pool, next());
+        }
+
+        private static <T> T at(T[] values, int index) throws IOException {
+            if (index < 0 || index >= values.length) {
+                throw new IOException("Invalid reference in schema catalog: " + index);
+            }
+            return values[index];
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package cl.playground.core.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tabla de símbolos de un esquema procesado: una sola instancia por identificador y por valor inmutable
+ * repetido (columnas y relaciones idénticas en varias tablas). Se puede usar desde varios hilos.
+ */
+public class SymbolTable {
+    private final ConcurrentHashMap<Object, Object> symbols = new ConcurrentHashMap<>();
+
+    public String intern(String value) {
+        return internValue(value);
+    }
+
+    // Minúsculas sin duplicar: toLowerCase devuelve el mismo String si ya estaba en minúsculas
+    public String lowerCase(String value) {
+        return value == null ? null : internValue(value.toLowerCase());
+    }
+
+    public ColumnMetadata intern(ColumnMetadata column) {
+        return internValue(column);
+    }
+
+    public RelationMetadata intern(RelationMetadata relation) {
+        return internValue(relation);
+    }
+
+    public int size() {
+        return symbols.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T internValue(T value) {
+        if (value == null) {
+            return null;
+        }
+        Object symbol = symbols.putIfAbsent(value, value);
+        return symbol != null ? (T) symbol : value;
+    }
+}
@@ -2,54 +2,77 @@ package cl.playground.core.model;
 
 import java.util.List;
 
+// Inmutable: las listas se copian a listas compactas de solo lectura al construir la tabla
 public class TableMetadata {
-    private String tableName;
-    private List<ColumnMetadata> columns;
-    private List<String> primaryKeys;
-    private List<RelationMetadata> relations;
+    // Bajo este número de columnas recorrer la lista es tan rápido como el índice y no ocupa memoria
+    private static final int INDEXED_COLUMNS = 8;
 
-    // Constructores, getters, setters
-    public TableMetadata() {
-    }
+    private final String tableName;
+    private final List<ColumnMetadata> columns;
+    private final List<String> primaryKeys;
+    private final List<RelationMetadata> relations;
+    // Índice por nombre con direccionamiento abierto: un arreglo potencia de dos, sin nodos por columna
+    private final ColumnMetadata[] columnSlots;
 
+    // Constructores, getters
     public TableMetadata(String tableName, List<ColumnMetadata> columns, List<String> primaryKeys,
             List<RelationMetadata> relations) {
         this.tableName = tableName;
-        this.columns = columns;
-        this.primaryKeys = primaryKeys;
-        this.relations = relations;
+        this.columns = List.copyOf(columns);
+        this.primaryKeys = List.copyOf(primaryKeys);
+        this.relations = List.copyOf(relations);
+        this.columnSlots = this.columns.size() > INDEXED_COLUMNS ? indexColumns(this.columns) : null;
     }
 
     public String getTableName() {
         return tableName;
     }
 
-    public void setTableName(String tableName) {
-        this.tableName = tableName;
-    }
-
     public List<ColumnMetadata> getColumns() {
         return columns;
     }
 
-    public void setColumns(List<ColumnMetadata> columns) {
-        this.columns = columns;
+    public ColumnMetadata getColumn(String columnName) {
+        if (columnSlots != null) {
+            int mask = columnSlots.length - 1;
+            for (int i = columnName.hashCode() & mask; columnSlots[i] != null; i = (i + 1) & mask) {
+                if (columnSlots[i].getColumnName().equals(columnName)) {
+                    return columnSlots[i];
+                }
+            }
+            return null;
+        }
+        for (ColumnMetadata column : columns) {
+            if (column.getColumnName().equals(columnName)) {
+                return column;
+            }
+        }
+        return null;
     }
 
     public List<String> getPrimaryKeys() {
         return primaryKeys;
     }
 
-    public void setPrimaryKeys(List<String> primaryKeys) {
-        this.primaryKeys = primaryKeys;
-    }
-
     public List<RelationMetadata> getRelations() {
         return relations;
     }
 
-    public void setRelations(List<RelationMetadata> relations) {
-        this.relations = relations;
+    private static ColumnMetadata[] indexColumns(List<ColumnMetadata> columns) {
+        // Ocupación máxima de la mitad, así las búsquedas fallidas terminan pronto
+        ColumnMetadata[] slots = new ColumnMetadata[Integer.highestOneBit(columns.size()) << 2];
+        int mask = slots.length - 1;
+        for (ColumnMetadata column : columns) {
+            int i = column.getColumnName().hashCode() & mask;
+            // Con nombres repetidos gana la primera columna, igual que al recorrer la lista
+            while (slots[i] != null && !slots[i].getColumnName().equals(column.getColumnName())) {
+                i = (i + 1) & mask;
+            }
+            if (slots[i] == null) {
+                slots[i] = column;
+            }
+        }
+        return slots;
     }
 
     @Override
@@ -61,4 +84,4 @@ public class TableMetadata {
                 ", relations=" + relations +
                 '}';
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+package cl.playground.core.parser;
+
+// Una acción de ALTER TABLE; name es la columna, restricción o tabla afectada y value el nuevo nombre, tipo o default
+public class AlterTableAction {
+    public enum Kind {
+        ADD_COLUMN,
+        DROP_COLUMN,
+        ALTER_COLUMN_TYPE,
+        SET_NOT_NULL,
+        DROP_NOT_NULL,
+        SET_DEFAULT,
+        DROP_DEFAULT,
+        RENAME_COLUMN,
+        ADD_CONSTRAINT,
+        DROP_CONSTRAINT,
+        RENAME_CONSTRAINT,
+        RENAME_TABLE
+    }
+
+    private final Kind kind;
+    private final String name;
+    private final String value;
+    private final ColumnDefinition column;
+    private final TableConstraint constraint;
+
+    AlterTableAction(Kind kind, String name, String value) {
+        this(kind, name, value, null, null);
+    }
+
+    AlterTableAction(ColumnDefinition column) {
+        this(Kind.ADD_COLUMN, column.getName(), null, column, null);
+    }
+
+    AlterTableAction(TableConstraint constraint) {
+        this(Kind.ADD_CONSTRAINT, constraint.getName(), null, null, constraint);
+    }
+
+    private AlterTableAction(Kind kind, String name, String value, ColumnDefinition column,
+                             TableConstraint constraint) {
+        this.kind = kind;
+        this.name = name;
+        this.value = value;
+        this.column = column;
+        this.constraint = constraint;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public ColumnDefinition getColumn() {
+        return column;
+    }
+
+    public TableConstraint getConstraint() {
+        return constraint;
+    }
+
+    @Override
+    public String toString() {
+        return "AlterTableAction{" +
+                "kind=" + kind +
+                ", name='" + name + '\'' +
+                ", value='" + value + '\'' +
+                ", column=" + column +
+                ", constraint=" + constraint +
+                '}';
+    }
+}
@@ -0,0 +1,34 @@
+package cl.playground.core.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// ALTER TABLE con sus acciones en orden; constraints son solo las agregadas con ADD CONSTRAINT, como las de pg_dump
+public class AlterTableStatement implements DdlStatement {
+    String tableName;
+    final List<AlterTableAction> actions = new ArrayList<>();
+    final List<TableConstraint> constraints = new ArrayList<>();
+
+    AlterTableStatement() {
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public List<AlterTableAction> getActions() {
+        return actions;
+    }
+
+    public List<TableConstraint> getConstraints() {
+        return constraints;
+    }
+
+    @Override
+    public String toString() {
+        return "AlterTableStatement{" +
+                "tableName='" + tableName + '\'' +
+                ", actions=" + actions +
+                '}';
+    }
+}
@@ -0,0 +1,78 @@
+package cl.playground.core.parser;
+
+public class ColumnDefinition {
+    private final CharSequence source;
+    private final int start;
+    int end;
+
+    String name;
+    String type;
+    boolean notNull;
+    boolean unique;
+    boolean primaryKey;
+    String defaultValue;
+    ForeignKeyDefinition references;
+    // Nombres de las restricciones inline, si se declararon con CONSTRAINT nombre
+    String primaryKeyName;
+    String uniqueName;
+    String referencesName;
+
+    ColumnDefinition(CharSequence source, int start) {
+        this.source = source;
+        this.start = start;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public boolean isNotNull() {
+        return notNull;
+    }
+
+    public boolean isUnique() {
+        return unique;
+    }
+
+    public boolean isPrimaryKey() {
+        return primaryKey;
+    }
+
+    public String getDefaultValue() {
+        return defaultValue;
+    }
+
+    public ForeignKeyDefinition getReferences() {
+        return references;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getEnd() {
+        return end;
+    }
+
+    // Texto original de la definición, tal como aparece en el esquema
+    public String getText() {
+        return source.subSequence(start, end).toString();
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnDefinition{" +
+                "name='" + name + '\'' +
+                ", type='" + type + '\'' +
+                ", notNull=" + notNull +
+                ", unique=" + unique +
+                ", primaryKey=" + primaryKey +
+                ", defaultValue='" + defaultValue + '\'' +
+                ", references=" + references +
+                '}';
+    }
+}
@@ -0,0 +1,68 @@
+package cl.playground.core.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CreateTableStatement implements DdlStatement {
+    private final CharSequence source;
+    private final int start;
+    int end;
+
+    String tableName;
+    boolean ifNotExists;
+    final List<ColumnDefinition> columns = new ArrayList<>();
+    final List<TableConstraint> constraints = new ArrayList<>();
+    // PKs y FKs (inline y a nivel de tabla) en el orden en que aparecen en la sentencia
+    final List<String> primaryKeys = new ArrayList<>();
+    final List<ForeignKeyDefinition> foreignKeys = new ArrayList<>();
+
+    CreateTableStatement(CharSequence source, int start) {
+        this.source = source;
+        this.start = start;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public List<ColumnDefinition> getColumns() {
+        return columns;
+    }
+
+    public List<TableConstraint> getConstraints() {
+        return constraints;
+    }
+
+    public List<String> getPrimaryKeys() {
+        return primaryKeys;
+    }
+
+    public List<ForeignKeyDefinition> getForeignKeys() {
+        return foreignKeys;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getEnd() {
+        return end;
+    }
+
+    public CharSequence getSource() {
+        return source;
+    }
+
+    public String getText() {
+        return source.subSequence(start, end).toString();
+    }
+
+    @Override
+    public String toString() {
+        return "CreateTableStatement{" +
+                "tableName='" + tableName + '\'' +
+                ", columns=" + columns +
+                ", constraints=" + constraints +
+                '}';
+    }
+}
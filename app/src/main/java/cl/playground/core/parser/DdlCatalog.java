@@ -0,0 +1,521 @@
+package cl.playground.core.parser;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Estado del esquema después de aplicar sentencias CREATE, ALTER y DROP TABLE en orden, como al ejecutar
+ * migraciones una tras otra. Las tablas se indexan por nombre (en minúsculas y sin el esquema public), los
+ * nombres de columna se guardan en minúsculas como hace PostgreSQL y cada PRIMARY KEY, UNIQUE y FOREIGN KEY
+ * queda con nombre, el declarado o el que le daría PostgreSQL, para que un DROP CONSTRAINT posterior la
+ * encuentre. El estado se puede guardar y restaurar en binario.
+ */
+public class DdlCatalog {
+    private static final String DEFAULT_SCHEMA = "public.";
+
+    private final Map<String, CreateTableStatement> tables = new LinkedHashMap<>();
+
+    public void apply(DdlScript script) {
+        script.getStatements().forEach(this::apply);
+    }
+
+    public void apply(DdlStatement statement) {
+        if (statement instanceof CreateTableStatement createTable) {
+            createTable(createTable);
+        } else if (statement instanceof AlterTableStatement alterTable) {
+            alterTable(alterTable);
+        } else if (statement instanceof DropTableStatement dropTable) {
+            dropTable(dropTable);
+        }
+    }
+
+    public int size() {
+        return tables.size();
+    }
+
+    public CreateTableStatement getTable(String tableName) {
+        return tables.get(key(tableName));
+    }
+
+    // Las tablas vigentes como si vinieran de un único esquema; las FKs apuntan al nombre con que se creó cada tabla
+    public DdlScript toScript() {
+        for (CreateTableStatement table : tables.values()) {
+            mapForeignKeys(table, foreignKey -> {
+                CreateTableStatement target = tables.get(key(foreignKey.getTargetTable()));
+                return target == null || target.tableName.equals(foreignKey.getTargetTable())
+                    ? foreignKey
+                    : new ForeignKeyDefinition(foreignKey.getSourceColumns(), target.tableName, foreignKey.getTargetColumns());
+            });
+        }
+
+        DdlScript script = new DdlScript();
+        tables.values().forEach(script::add);
+        return script;
+    }
+
+    private void createTable(CreateTableStatement statement) {
+        String key = key(statement.tableName);
+        if (statement.ifNotExists && tables.containsKey(key)) {
+            return;
+        }
+
+        mapForeignKeys(statement, DdlCatalog::lowerCase);
+        statement.columns.forEach(column -> column.name = column.name.toLowerCase());
+        statement.primaryKeys.replaceAll(String::toLowerCase);
+        for (TableConstraint constraint : new ArrayList<>(statement.constraints)) {
+            // Las de FK ya se reemplazaron junto con su ForeignKeyDefinition
+            if (constraint.getForeignKey() == null) {
+                replaceConstraint(statement, constraint, lowerCase(constraint));
+            }
+        }
+
+        for (TableConstraint constraint : new ArrayList<>(statement.constraints)) {
+            nameConstraint(statement, constraint);
+        }
+        statement.columns.forEach(column -> addColumnConstraints(statement, column));
+        tables.put(key, statement);
+    }
+
+    private void dropTable(DropTableStatement statement) {
+        for (String tableName : statement.tableNames) {
+            String key = key(tableName);
+            if (tables.remove(key) != null) {
+                // Como con CASCADE: las FKs que apuntaban a la tabla desaparecen con ella
+                tables.values().forEach(table -> removeForeignKeys(table,
+                    foreignKey -> key(foreignKey.getTargetTable()).equals(key)));
+            }
+        }
+    }
+
+    // Las acciones sobre tablas desconocidas (IF EXISTS, particiones, tablas de otra herramienta) se ignoran
+    private void alterTable(AlterTableStatement statement) {
+        CreateTableStatement table = tables.get(key(statement.tableName));
+        if (table == null) {
+            return;
+        }
+
+        for (AlterTableAction action : statement.actions) {
+            ColumnDefinition column = findColumn(table, action.getName());
+            switch (action.getKind()) {
+                case ADD_COLUMN -> {
+                    if (column == null) {
+                        addColumn(table, action.getColumn());
+                    }
+                }
+                case DROP_COLUMN -> {
+                    if (column != null) {
+                        dropColumn(table, column);
+                    }
+                }
+                case ALTER_COLUMN_TYPE -> {
+                    if (column != null) {
+                        column.type = action.getValue();
+                    }
+                }
+                case SET_NOT_NULL, DROP_NOT_NULL -> {
+                    if (column != null) {
+                        column.notNull = action.getKind() == AlterTableAction.Kind.SET_NOT_NULL;
+                    }
+                }
+                case SET_DEFAULT, DROP_DEFAULT -> {
+                    if (column != null) {
+                        column.defaultValue = action.getValue();
+                    }
+                }
+                case RENAME_COLUMN -> {
+                    if (column != null) {
+                        renameColumn(table, column, action.getValue().toLowerCase());
+                    }
+                }
+                case ADD_CONSTRAINT -> addConstraint(table, lowerCase(action.getConstraint()));
+                case DROP_CONSTRAINT -> {
+                    TableConstraint constraint = findConstraint(table, action.getName());
+                    if (constraint != null) {
+                        dropConstraint(table, constraint);
+                    }
+                }
+                case RENAME_CONSTRAINT -> {
+                    TableConstraint constraint = findConstraint(table, action.getName());
+                    if (constraint != null) {
+                        replaceConstraint(table, constraint, new TableConstraint(constraint.getKind(), action.getValue(),
+                            constraint.getColumns(), constraint.getForeignKey()));
+                    }
+                }
+                case RENAME_TABLE -> table = renameTable(table, action.getValue());
+            }
+        }
+    }
+
+    private void addColumn(CreateTableStatement table, ColumnDefinition column) {
+        column.name = column.name.toLowerCase();
+        if (column.references != null) {
+            column.references = lowerCase(column.references);
+            table.foreignKeys.add(column.references);
+        }
+        if (column.primaryKey) {
+            table.primaryKeys.add(column.name);
+        }
+        table.columns.add(column);
+        addColumnConstraints(table, column);
+    }
+
+    private void addConstraint(CreateTableStatement table, TableConstraint constraint) {
+        table.constraints.add(constraint);
+        nameConstraint(table, constraint);
+        if (constraint.getKind() == TableConstraint.Kind.PRIMARY_KEY) {
+            constraint.getColumns().stream()
+                .filter(column -> !table.primaryKeys.contains(column))
+                .forEach(table.primaryKeys::add);
+        } else if (constraint.getForeignKey() != null) {
+            table.foreignKeys.add(constraint.getForeignKey());
+        }
+    }
+
+    // Las restricciones inline se registran como restricciones de tabla con nombre; la columna conserva sus flags
+    private void addColumnConstraints(CreateTableStatement table, ColumnDefinition column) {
+        List<String> columns = List.of(column.name);
+        if (column.primaryKey) {
+            table.constraints.add(new TableConstraint(TableConstraint.Kind.PRIMARY_KEY,
+                column.primaryKeyName != null ? column.primaryKeyName : defaultName(table, TableConstraint.Kind.PRIMARY_KEY, columns),
+                columns, null));
+        }
+        if (column.unique) {
+            table.constraints.add(new TableConstraint(TableConstraint.Kind.UNIQUE,
+                column.uniqueName != null ? column.uniqueName : defaultName(table, TableConstraint.Kind.UNIQUE, columns),
+                columns, null));
+        }
+        if (column.references != null) {
+            table.constraints.add(new TableConstraint(TableConstraint.Kind.FOREIGN_KEY,
+                column.referencesName != null ? column.referencesName : defaultName(table, TableConstraint.Kind.FOREIGN_KEY, columns),
+                columns, column.references));
+        }
+    }
+
+    private void nameConstraint(CreateTableStatement table, TableConstraint constraint) {
+        if (constraint.getName() == null) {
+            replaceConstraint(table, constraint, new TableConstraint(constraint.getKind(),
+                defaultName(table, constraint.getKind(), constraint.getColumns()),
+                constraint.getColumns(), constraint.getForeignKey()));
+        }
+    }
+
+    // Nombres por defecto de PostgreSQL: tabla_pkey, tabla_col_key y tabla_col_fkey
+    private String defaultName(CreateTableStatement table, TableConstraint.Kind kind, List<String> columns) {
+        String tableName = table.tableName.substring(table.tableName.lastIndexOf('.') + 1).toLowerCase();
+        if (kind == TableConstraint.Kind.PRIMARY_KEY) {
+            return tableName + "_pkey";
+        }
+        String prefix = tableName + "_" + String.join("_", columns).toLowerCase();
+        return switch (kind) {
+            case UNIQUE -> prefix + "_key";
+            case FOREIGN_KEY -> prefix + "_fkey";
+            case CHECK -> prefix + "_check";
+            default -> prefix + "_excl";
+        };
+    }
+
+    private void dropConstraint(CreateTableStatement table, TableConstraint constraint) {
+        table.constraints.remove(constraint);
+        switch (constraint.getKind()) {
+            case PRIMARY_KEY -> {
+                table.primaryKeys.removeAll(constraint.getColumns());
+                table.columns.forEach(column -> column.primaryKey &= !constraint.getColumns().contains(column.name));
+            }
+            case UNIQUE -> {
+                ColumnDefinition column = constraint.getColumns().size() == 1
+                    ? findColumn(table, constraint.getColumns().get(0)) : null;
+                if (column != null) {
+                    column.unique = false;
+                }
+            }
+            case FOREIGN_KEY -> {
+                ForeignKeyDefinition foreignKey = constraint.getForeignKey();
+                table.foreignKeys.remove(foreignKey);
+                table.columns.stream()
+                    .filter(column -> column.references == foreignKey)
+                    .forEach(column -> column.references = null);
+            }
+            default -> {
+            }
+        }
+    }
+
+    // Como DROP COLUMN ... CASCADE: se van las restricciones que usan la columna y las FKs que apuntan a ella
+    private void dropColumn(CreateTableStatement table, ColumnDefinition column) {
+        String name = column.name;
+        boolean primaryKey = table.primaryKeys.contains(name);
+
+        for (TableConstraint constraint : new ArrayList<>(table.constraints)) {
+            boolean usesColumn = constraint.getColumns().contains(name)
+                || (constraint.getKind() == TableConstraint.Kind.PRIMARY_KEY && primaryKey);
+            if (usesColumn) {
+                dropConstraint(table, constraint);
+            }
+        }
+        table.columns.remove(column);
+
+        String tableKey = key(table.tableName);
+        tables.values().forEach(other -> removeForeignKeys(other, foreignKey ->
+            key(foreignKey.getTargetTable()).equals(tableKey)
+                && (foreignKey.getTargetColumns().contains(name) || (primaryKey && foreignKey.getTargetColumns().isEmpty()))));
+    }
+
+    private void renameColumn(CreateTableStatement table, ColumnDefinition column, String newName) {
+        String oldName = column.name;
+        UnaryOperator<List<String>> rename = columns -> columns.contains(oldName)
+            ? columns.stream().map(name -> name.equals(oldName) ? newName : name).toList()
+            : columns;
+
+        column.name = newName;
+        table.primaryKeys.replaceAll(name -> name.equals(oldName) ? newName : name);
+        for (TableConstraint constraint : new ArrayList<>(table.constraints)) {
+            if (constraint.getForeignKey() == null && constraint.getColumns().contains(oldName)) {
+                replaceConstraint(table, constraint, new TableConstraint(constraint.getKind(), constraint.getName(),
+                    rename.apply(constraint.getColumns()), null));
+            }
+        }
+        mapForeignKeys(table, foreignKey -> foreignKey.getSourceColumns().contains(oldName)
+            ? new ForeignKeyDefinition(rename.apply(foreignKey.getSourceColumns()), foreignKey.getTargetTable(),
+                foreignKey.getTargetColumns())
+            : foreignKey);
+
+        String tableKey = key(table.tableName);
+        tables.values().forEach(other -> mapForeignKeys(other, foreignKey ->
+            key(foreignKey.getTargetTable()).equals(tableKey) && foreignKey.getTargetColumns().contains(oldName)
+                ? new ForeignKeyDefinition(foreignKey.getSourceColumns(), foreignKey.getTargetTable(),
+                    rename.apply(foreignKey.getTargetColumns()))
+                : foreignKey));
+    }
+
+    // Las FKs siguen a la tabla renombrada y la tabla conserva su posición en el catálogo
+    private CreateTableStatement renameTable(CreateTableStatement table, String newName) {
+        String oldKey = key(table.tableName);
+        int dot = table.tableName.lastIndexOf('.');
+        String qualifiedName = newName.indexOf('.') < 0 && dot >= 0
+            ? table.tableName.substring(0, dot + 1) + newName
+            : newName;
+        String newKey = key(qualifiedName);
+
+        Map<String, CreateTableStatement> renamed = new LinkedHashMap<>();
+        tables.forEach((key, value) -> renamed.put(key.equals(oldKey) ? newKey : key, value));
+        tables.clear();
+        tables.putAll(renamed);
+        table.tableName = qualifiedName;
+
+        tables.values().forEach(other -> mapForeignKeys(other, foreignKey ->
+            key(foreignKey.getTargetTable()).equals(oldKey)
+                ? new ForeignKeyDefinition(foreignKey.getSourceColumns(), qualifiedName, foreignKey.getTargetColumns())
+                : foreignKey));
+        return table;
+    }
+
+    private void removeForeignKeys(CreateTableStatement table, Predicate<ForeignKeyDefinition> filter) {
+        for (TableConstraint constraint : new ArrayList<>(table.constraints)) {
+            if (constraint.getForeignKey() != null && filter.test(constraint.getForeignKey())) {
+                dropConstraint(table, constraint);
+            }
+        }
+    }
+
+    // Reemplaza FKs manteniendo su posición en foreignKeys, en su restricción y en la columna que la declaró
+    private void mapForeignKeys(CreateTableStatement table, UnaryOperator<ForeignKeyDefinition> mapper) {
+        for (int i = 0; i < table.foreignKeys.size(); i++) {
+            ForeignKeyDefinition foreignKey = table.foreignKeys.get(i);
+            ForeignKeyDefinition mapped = mapper.apply(foreignKey);
+            if (mapped == foreignKey) {
+                continue;
+            }
+
+            table.foreignKeys.set(i, mapped);
+            for (TableConstraint constraint : new ArrayList<>(table.constraints)) {
+                if (constraint.getForeignKey() == foreignKey) {
+                    replaceConstraint(table, constraint, new TableConstraint(constraint.getKind(), constraint.getName(),
+                        mapped.getSourceColumns(), mapped));
+                }
+            }
+            for (ColumnDefinition column : table.columns) {
+                if (column.references == foreignKey) {
+                    column.references = mapped;
+                }
+            }
+        }
+    }
+
+    private void replaceConstraint(CreateTableStatement table, TableConstraint constraint, TableConstraint replacement) {
+        int index = table.constraints.indexOf(constraint);
+        table.constraints.set(index, replacement);
+    }
+
+    private ColumnDefinition findColumn(CreateTableStatement table, String name) {
+        if (name == null) {
+            return null;
+        }
+        for (ColumnDefinition column : table.columns) {
+            if (column.name.equalsIgnoreCase(name)) {
+                return column;
+            }
+        }
+        return null;
+    }
+
+    private TableConstraint findConstraint(CreateTableStatement table, String name) {
+        for (TableConstraint constraint : table.constraints) {
+            if (constraint.getName().equalsIgnoreCase(name)) {
+                return constraint;
+            }
+        }
+        return null;
+    }
+
+    private static TableConstraint lowerCase(TableConstraint constraint) {
+        ForeignKeyDefinition foreignKey = constraint.getForeignKey() != null ? lowerCase(constraint.getForeignKey()) : null;
+        return new TableConstraint(constraint.getKind(), constraint.getName(), lowerCase(constraint.getColumns()), foreignKey);
+    }
+
+    private static ForeignKeyDefinition lowerCase(ForeignKeyDefinition foreignKey) {
+        return new ForeignKeyDefinition(lowerCase(foreignKey.getSourceColumns()), foreignKey.getTargetTable(),
+            lowerCase(foreignKey.getTargetColumns()));
+    }
+
+    private static List<String> lowerCase(List<String> names) {
+        return names.stream().map(String::toLowerCase).toList();
+    }
+
+    // Sin distinguir mayúsculas ni el esquema por defecto: public.users y users son la misma tabla
+    private static String key(String tableName) {
+        String key = tableName.toLowerCase();
+        return key.startsWith(DEFAULT_SCHEMA) ? key.substring(DEFAULT_SCHEMA.length()) : key;
+    }
+
+    public void write(DataOutputStream output) throws IOException {
+        output.writeInt(tables.size());
+        for (CreateTableStatement table : tables.values()) {
+            writeString(output, table.tableName);
+
+            // Las FKs se escriben una vez y columnas y restricciones las referencian por posición
+            Map<ForeignKeyDefinition, Integer> foreignKeyIndexes = new IdentityHashMap<>();
+            output.writeInt(table.foreignKeys.size());
+            for (ForeignKeyDefinition foreignKey : table.foreignKeys) {
+                foreignKeyIndexes.put(foreignKey, foreignKeyIndexes.size());
+                writeStrings(output, foreignKey.getSourceColumns());
+                writeString(output, foreignKey.getTargetTable());
+                writeStrings(output, foreignKey.getTargetColumns());
+            }
+
+            output.writeInt(table.columns.size());
+            for (ColumnDefinition column : table.columns) {
+                writeString(output, column.name);
+                writeString(output, column.type);
+                output.writeByte((column.notNull ? 1 : 0) | (column.unique ? 2 : 0) | (column.primaryKey ? 4 : 0));
+                writeString(output, column.defaultValue);
+                output.writeInt(foreignKeyIndexes.getOrDefault(column.references, -1));
+            }
+
+            output.writeInt(table.constraints.size());
+            for (TableConstraint constraint : table.constraints) {
+                output.writeByte(constraint.getKind().ordinal());
+                writeString(output, constraint.getName());
+                writeStrings(output, constraint.getColumns());
+                output.writeInt(foreignKeyIndexes.getOrDefault(constraint.getForeignKey(), -1));
+            }
+
+            writeStrings(output, table.primaryKeys);
+        }
+    }
+
+    public static DdlCatalog read(DataInputStream input) throws IOException {
+        DdlCatalog catalog = new DdlCatalog();
+        int tableCount = input.readInt();
+        for (int i = 0; i < tableCount; i++) {
+            CreateTableStatement table = new CreateTableStatement("", 0);
+            table.tableName = readString(input);
+
+            int foreignKeyCount = input.readInt();
+            for (int j = 0; j < foreignKeyCount; j++) {
+                table.foreignKeys.add(new ForeignKeyDefinition(readStrings(input), readString(input), readStrings(input)));
+            }
+
+            int columnCount = input.readInt();
+            for (int j = 0; j < columnCount; j++) {
+                ColumnDefinition column = new ColumnDefinition("", 0);
+                column.name = readString(input);
+                column.type = readString(input);
+                int flags = input.readByte();
+                column.notNull = (flags & 1) != 0;
+                column.unique = (flags & 2) != 0;
+                column.primaryKey = (flags & 4) != 0;
+                column.defaultValue = readString(input);
+                column.references = foreignKeyAt(table, input.readInt());
+                table.columns.add(column);
+            }
+
+            int constraintCount = input.readInt();
+            for (int j = 0; j < constraintCount; j++) {
+                TableConstraint.Kind kind = TableConstraint.Kind.values()[input.readByte()];
+                String name = readString(input);
+                List<String> columns = readStrings(input);
+                table.constraints.add(new TableConstraint(kind, name, columns, foreignKeyAt(table, input.readInt())));
+            }
+
+            table.primaryKeys.addAll(readStrings(input));
+            catalog.tables.put(key(table.tableName), table);
+        }
+        return catalog;
+    }
+
+    private static ForeignKeyDefinition foreignKeyAt(CreateTableStatement table, int index) throws IOException {
+        if (index < -1 || index >= table.foreignKeys.size()) {
+            throw new IOException("Invalid foreign key reference in catalog: " + index);
+        }
+        return index < 0 ? null : table.foreignKeys.get(index);
+    }
+
+    private static void writeStrings(DataOutputStream output, List<String> values) throws IOException {
+        output.writeInt(values.size());
+        for (String value : values) {
+            writeString(output, value);
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream input) throws IOException {
+        int size = input.readInt();
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(input));
+        }
+        return values;
+    }
+
+    // Largo en bytes UTF-8 (-1 para null) seguido del contenido; writeUTF no admite más de 64 KB
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = input.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException("Truncated catalog");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,721 @@
+package cl.playground.core.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parser de DDL de PostgreSQL. Recorre la entrada una sola vez con {@link SqlLexer} y construye
+ * un {@link CreateTableStatement}, {@link AlterTableStatement} o {@link DropTableStatement} por cada
+ * CREATE, ALTER y DROP TABLE; el resto de sentencias se salta token a token.
+ */
+public class DdlParser {
+    private final CharSequence input;
+    private final SqlLexer lexer;
+    private int previousEnd;
+    private TokenType previousType;
+
+    public DdlParser(CharSequence input) {
+        this(input, 0, input.length());
+    }
+
+    public DdlParser(CharSequence input, int start, int end) {
+        this.input = input;
+        this.lexer = new SqlLexer(input, start, end);
+        this.previousEnd = start;
+    }
+
+    public List<CreateTableStatement> parseCreateTables() {
+        return parse().getCreateTables();
+    }
+
+    public DdlScript parse() {
+        DdlScript script = new DdlScript();
+        advance();
+
+        while (!lexer.is(TokenType.EOF)) {
+            if (lexer.isKeyword("CREATE")) {
+                // parseCreateTable siempre consume al menos el CREATE
+                CreateTableStatement statement = parseCreateTable();
+                if (statement != null) {
+                    script.add(statement);
+                }
+            } else if (isStatementStart() && lexer.isKeyword("ALTER")) {
+                AlterTableStatement statement = parseAlterTable();
+                if (statement != null) {
+                    script.add(statement);
+                }
+            } else if (isStatementStart() && lexer.isKeyword("DROP")) {
+                DropTableStatement statement = parseDropTable();
+                if (statement != null) {
+                    script.add(statement);
+                }
+            } else if (isStatementStart() && (lexer.isKeyword("INSERT") || lexer.isKeyword("COMMENT"))) {
+                skipStatement();
+            } else if (isStatementStart() && lexer.isKeyword("COPY")) {
+                skipCopy();
+            } else {
+                advance();
+            }
+        }
+
+        return script;
+    }
+
+    // Interpreta la entrada como una única definición de columna (sin la coma final)
+    public ColumnDefinition parseColumnDefinition() {
+        advance();
+        if (isConstraintStart() || !lexer.isIdentifier()) {
+            return null;
+        }
+        return parseColumn();
+    }
+
+    private CreateTableStatement parseCreateTable() {
+        int start = lexer.start();
+        advance();
+
+        if (lexer.isKeyword("OR")) {
+            advance();
+            if (lexer.isKeyword("REPLACE")) {
+                advance();
+            }
+        }
+        // Los cuerpos de funciones pueden ser enormes y nunca contienen tablas que generar
+        if (lexer.isKeyword("FUNCTION") || lexer.isKeyword("PROCEDURE")) {
+            skipStatement();
+            return null;
+        }
+
+        if (lexer.isKeyword("GLOBAL") || lexer.isKeyword("LOCAL")) {
+            advance();
+        }
+        if (lexer.isKeyword("TEMP") || lexer.isKeyword("TEMPORARY") || lexer.isKeyword("UNLOGGED")) {
+            advance();
+        }
+        if (!lexer.isKeyword("TABLE")) {
+            return null;
+        }
+        advance();
+
+        boolean ifNotExists = skipIfExists();
+
+        String tableName = parseQualifiedName();
+        // CREATE TABLE ... AS SELECT / PARTITION OF no definen columnas
+        if (tableName == null || !lexer.is(TokenType.LEFT_PAREN)) {
+            return null;
+        }
+
+        CreateTableStatement statement = new CreateTableStatement(input, start);
+        statement.tableName = tableName;
+        statement.ifNotExists = ifNotExists;
+        advance();
+        parseTableElements(statement);
+
+        // Saltar cláusulas posteriores (INHERITS, PARTITION BY, WITH, ...) hasta el ';'
+        while (!lexer.is(TokenType.SEMICOLON) && !lexer.is(TokenType.EOF)) {
+            advance();
+        }
+        if (lexer.is(TokenType.SEMICOLON)) {
+            statement.end = lexer.end();
+            advance();
+        } else {
+            statement.end = previousEnd;
+        }
+
+        return statement;
+    }
+
+    private void parseTableElements(CreateTableStatement statement) {
+        while (true) {
+            if (lexer.is(TokenType.RIGHT_PAREN)) {
+                advance();
+                return;
+            }
+            if (lexer.is(TokenType.SEMICOLON) || lexer.is(TokenType.EOF)) {
+                return;
+            }
+            if (lexer.is(TokenType.COMMA)) {
+                advance();
+                continue;
+            }
+
+            if (isConstraintStart()) {
+                TableConstraint constraint = parseTableConstraint();
+                statement.constraints.add(constraint);
+                if (constraint.getKind() == TableConstraint.Kind.PRIMARY_KEY) {
+                    statement.primaryKeys.addAll(constraint.getColumns());
+                } else if (constraint.getForeignKey() != null) {
+                    statement.foreignKeys.add(constraint.getForeignKey());
+                }
+            } else if (lexer.isIdentifier()) {
+                ColumnDefinition column = parseColumn();
+                statement.columns.add(column);
+                if (column.primaryKey) {
+                    statement.primaryKeys.add(column.name);
+                }
+                if (column.references != null) {
+                    statement.foreignKeys.add(column.references);
+                }
+            } else {
+                skipElement();
+            }
+        }
+    }
+
+    private boolean isConstraintStart() {
+        return lexer.isKeyword("CONSTRAINT") || lexer.isKeyword("PRIMARY") || lexer.isKeyword("FOREIGN")
+            || lexer.isKeyword("UNIQUE") || lexer.isKeyword("CHECK") || lexer.isKeyword("EXCLUDE")
+            || lexer.isKeyword("LIKE");
+    }
+
+    // ALTER TABLE [IF EXISTS] [ONLY] nombre [*] accion [, accion ...]; las acciones que no cambian columnas,
+    // restricciones ni nombres (OWNER TO, SET, ENABLE TRIGGER, ...) se ignoran
+    private AlterTableStatement parseAlterTable() {
+        advance();
+        if (!lexer.isKeyword("TABLE")) {
+            return null;
+        }
+        advance();
+
+        skipIfExists();
+        if (lexer.isKeyword("ONLY")) {
+            advance();
+        }
+
+        String tableName = parseQualifiedName();
+        if (tableName == null) {
+            return null;
+        }
+        AlterTableStatement statement = new AlterTableStatement();
+        statement.tableName = tableName;
+
+        while (!lexer.is(TokenType.SEMICOLON) && !lexer.is(TokenType.EOF)) {
+            AlterTableAction action = parseAlterAction();
+            if (action != null) {
+                statement.actions.add(action);
+                if (action.getConstraint() != null) {
+                    statement.constraints.add(action.getConstraint());
+                }
+            }
+            skipElement();
+            if (lexer.is(TokenType.COMMA) || lexer.is(TokenType.RIGHT_PAREN)) {
+                advance();
+            }
+        }
+        if (lexer.is(TokenType.SEMICOLON)) {
+            advance();
+        }
+
+        return statement.actions.isEmpty() ? null : statement;
+    }
+
+    private AlterTableAction parseAlterAction() {
+        if (lexer.isKeyword("ADD")) {
+            advance();
+            if (isConstraintStart()) {
+                return new AlterTableAction(parseTableConstraint());
+            }
+            if (lexer.isKeyword("COLUMN")) {
+                advance();
+            }
+            skipIfExists();
+            return lexer.isIdentifier() ? new AlterTableAction(parseColumn()) : null;
+        }
+
+        if (lexer.isKeyword("DROP")) {
+            advance();
+            AlterTableAction.Kind kind = AlterTableAction.Kind.DROP_COLUMN;
+            if (lexer.isKeyword("CONSTRAINT")) {
+                kind = AlterTableAction.Kind.DROP_CONSTRAINT;
+                advance();
+            } else if (lexer.isKeyword("COLUMN")) {
+                advance();
+            }
+            skipIfExists();
+            return lexer.isIdentifier() ? new AlterTableAction(kind, parseName(kind), null) : null;
+        }
+
+        if (lexer.isKeyword("RENAME")) {
+            advance();
+            if (lexer.isKeyword("TO")) {
+                advance();
+                String newName = parseQualifiedName();
+                return newName != null ? new AlterTableAction(AlterTableAction.Kind.RENAME_TABLE, null, newName) : null;
+            }
+            AlterTableAction.Kind kind = AlterTableAction.Kind.RENAME_COLUMN;
+            if (lexer.isKeyword("CONSTRAINT")) {
+                kind = AlterTableAction.Kind.RENAME_CONSTRAINT;
+                advance();
+            } else if (lexer.isKeyword("COLUMN")) {
+                advance();
+            }
+            if (!lexer.isIdentifier()) {
+                return null;
+            }
+            String name = parseName(kind);
+            expectKeyword("TO");
+            return lexer.isIdentifier() ? new AlterTableAction(kind, name, parseName(kind)) : null;
+        }
+
+        if (lexer.isKeyword("ALTER")) {
+            advance();
+            if (lexer.isKeyword("COLUMN")) {
+                advance();
+            }
+            if (!lexer.isIdentifier()) {
+                return null;
+            }
+            return parseAlterColumn(parseName(AlterTableAction.Kind.ALTER_COLUMN_TYPE));
+        }
+
+        return null;
+    }
+
+    // ALTER [COLUMN] nombre [SET DATA] TYPE tipo | SET/DROP NOT NULL | SET DEFAULT expr | DROP DEFAULT
+    private AlterTableAction parseAlterColumn(String column) {
+        boolean set = lexer.isKeyword("SET");
+        if (set || lexer.isKeyword("DROP")) {
+            advance();
+            if (lexer.isKeyword("NOT")) {
+                advance();
+                expectKeyword("NULL");
+                return new AlterTableAction(set ? AlterTableAction.Kind.SET_NOT_NULL : AlterTableAction.Kind.DROP_NOT_NULL,
+                    column, null);
+            }
+            if (lexer.isKeyword("DEFAULT")) {
+                advance();
+                return set
+                    ? new AlterTableAction(AlterTableAction.Kind.SET_DEFAULT, column, parseDefaultValue())
+                    : new AlterTableAction(AlterTableAction.Kind.DROP_DEFAULT, column, null);
+            }
+            if (!set || !lexer.isKeyword("DATA")) {
+                return null;
+            }
+            advance();
+        }
+        if (!lexer.isKeyword("TYPE")) {
+            return null;
+        }
+        advance();
+        String type = parseType();
+        return type != null ? new AlterTableAction(AlterTableAction.Kind.ALTER_COLUMN_TYPE, column, type) : null;
+    }
+
+    // DROP TABLE [IF EXISTS] a, b [CASCADE | RESTRICT]
+    private DropTableStatement parseDropTable() {
+        advance();
+        if (!lexer.isKeyword("TABLE")) {
+            return null;
+        }
+        advance();
+        skipIfExists();
+
+        DropTableStatement statement = new DropTableStatement();
+        while (!lexer.is(TokenType.SEMICOLON) && !lexer.is(TokenType.EOF)) {
+            String tableName = parseQualifiedName();
+            if (tableName != null) {
+                statement.tableNames.add(tableName);
+            }
+            skipElement();
+            if (lexer.is(TokenType.COMMA) || lexer.is(TokenType.RIGHT_PAREN)) {
+                advance();
+            }
+        }
+        if (lexer.is(TokenType.SEMICOLON)) {
+            advance();
+        }
+
+        return statement.tableNames.isEmpty() ? null : statement;
+    }
+
+    private TableConstraint parseTableConstraint() {
+        String name = null;
+        if (lexer.isKeyword("CONSTRAINT")) {
+            advance();
+            if (lexer.isIdentifier()) {
+                name = lexer.identifier();
+                advance();
+            }
+        }
+
+        TableConstraint constraint;
+        if (lexer.isKeyword("PRIMARY")) {
+            advance();
+            expectKeyword("KEY");
+            List<String> columns = parseColumnList();
+            constraint = new TableConstraint(TableConstraint.Kind.PRIMARY_KEY, name, columns, null);
+        } else if (lexer.isKeyword("FOREIGN")) {
+            advance();
+            expectKeyword("KEY");
+            List<String> columns = parseColumnList();
+            ForeignKeyDefinition foreignKey = lexer.isKeyword("REFERENCES") ? parseReferences(columns) : null;
+            constraint = new TableConstraint(TableConstraint.Kind.FOREIGN_KEY, name, columns, foreignKey);
+        } else if (lexer.isKeyword("UNIQUE")) {
+            advance();
+            while (!lexer.is(TokenType.LEFT_PAREN) && !isElementEnd()) {
+                advance(); // NULLS [NOT] DISTINCT
+            }
+            constraint = new TableConstraint(TableConstraint.Kind.UNIQUE, name, parseColumnList(), null);
+        } else if (lexer.isKeyword("CHECK")) {
+            constraint = new TableConstraint(TableConstraint.Kind.CHECK, name, List.of(), null);
+        } else {
+            constraint = new TableConstraint(TableConstraint.Kind.OTHER, name, List.of(), null);
+        }
+
+        skipElement();
+        return constraint;
+    }
+
+    private ColumnDefinition parseColumn() {
+        ColumnDefinition column = new ColumnDefinition(input, lexer.start());
+        column.name = cleanIdentifier(lexer.identifier());
+        advance();
+        column.type = parseType();
+
+        // CONSTRAINT x nombra solo a la restricción inline que le sigue
+        String nextConstraintName = null;
+        while (!isElementEnd()) {
+            String constraintName = nextConstraintName;
+            nextConstraintName = null;
+            if (lexer.isKeyword("NOT")) {
+                advance();
+                if (lexer.isKeyword("NULL")) {
+                    column.notNull = true;
+                    advance();
+                }
+            } else if (lexer.isKeyword("UNIQUE")) {
+                column.unique = true;
+                column.uniqueName = constraintName;
+                advance();
+            } else if (lexer.isKeyword("PRIMARY")) {
+                advance();
+                if (lexer.isKeyword("KEY")) {
+                    column.primaryKey = true;
+                    column.primaryKeyName = constraintName;
+                    advance();
+                }
+            } else if (lexer.isKeyword("DEFAULT")) {
+                advance();
+                column.defaultValue = parseDefaultValue();
+            } else if (lexer.isKeyword("REFERENCES")) {
+                column.references = parseReferences(List.of(column.name));
+                column.referencesName = constraintName;
+            } else if (lexer.isKeyword("CONSTRAINT")) {
+                advance();
+                if (lexer.isIdentifier()) {
+                    nextConstraintName = lexer.identifier();
+                    advance();
+                }
+            } else if (lexer.is(TokenType.LEFT_PAREN) || lexer.is(TokenType.LEFT_BRACKET)) {
+                skipGroup();
+            } else {
+                advance();
+            }
+        }
+
+        column.end = previousEnd;
+        return column;
+    }
+
+    // El tipo en mayúsculas con su precisión, p. ej. VARCHAR(100) o NUMERIC(10,2)[]. Los tipos de varias palabras
+    // se conservan completos, con un espacio entre palabras: CHARACTER VARYING(100), DOUBLE PRECISION,
+    // TIMESTAMP(3) WITH TIME ZONE o INTERVAL DAY TO SECOND
+    private String parseType() {
+        if (!lexer.isIdentifier()) {
+            return null;
+        }
+
+        // De esquema.tipo se conserva el tipo; "char" entre comillas es un tipo más
+        String name = lexer.identifier();
+        advance();
+        while (lexer.is(TokenType.DOT)) {
+            advance();
+            if (lexer.isIdentifier()) {
+                name = lexer.identifier();
+                advance();
+            }
+        }
+
+        StringBuilder type = new StringBuilder(name.toUpperCase());
+        String base = type.toString();
+        if ((base.equals("CHARACTER") || base.equals("CHAR") || base.equals("BIT")) && lexer.isKeyword("VARYING")) {
+            appendWord(type);
+        } else if (base.equals("DOUBLE") && lexer.isKeyword("PRECISION")) {
+            appendWord(type);
+        }
+        appendModifiers(type);
+
+        if ((base.equals("TIMESTAMP") || base.equals("TIME"))
+                && (lexer.isKeyword("WITH") || lexer.isKeyword("WITHOUT"))) {
+            appendWord(type);
+            if (lexer.isKeyword("TIME")) {
+                appendWord(type);
+                if (lexer.isKeyword("ZONE")) {
+                    appendWord(type);
+                }
+            }
+        } else if (base.equals("INTERVAL")) {
+            while (isIntervalField()) {
+                appendWord(type);
+            }
+            appendModifiers(type);
+        }
+
+        boolean array = false;
+        if (lexer.isKeyword("ARRAY")) {
+            advance();
+            array = true;
+        }
+        while (lexer.is(TokenType.LEFT_BRACKET)) {
+            skipGroup();
+            array = true;
+        }
+
+        return array ? type.append("[]").toString() : type.toString();
+    }
+
+    private void appendWord(StringBuilder type) {
+        type.append(' ').append(lexer.text().toUpperCase());
+        advance();
+    }
+
+    // (100), (10,2): se copian tal como están escritos
+    private void appendModifiers(StringBuilder type) {
+        if (lexer.is(TokenType.LEFT_PAREN)) {
+            int modifiersStart = lexer.start();
+            skipGroup();
+            type.append(input, modifiersStart, previousEnd);
+        }
+    }
+
+    private boolean isIntervalField() {
+        return lexer.isKeyword("YEAR") || lexer.isKeyword("MONTH") || lexer.isKeyword("DAY")
+            || lexer.isKeyword("HOUR") || lexer.isKeyword("MINUTE") || lexer.isKeyword("SECOND")
+            || lexer.isKeyword("TO");
+    }
+
+    private String parseDefaultValue() {
+        int valueStart = lexer.start();
+
+        if (lexer.is(TokenType.STRING) || lexer.is(TokenType.NUMBER)) {
+            advance();
+            return input.subSequence(valueStart, previousEnd).toString();
+        }
+
+        if (lexer.is(TokenType.OPERATOR) && lexer.end() - lexer.start() == 1
+            && (input.charAt(valueStart) == '-' || input.charAt(valueStart) == '+')) {
+            advance();
+            if (!lexer.is(TokenType.NUMBER)) {
+                return null;
+            }
+            advance();
+            return input.subSequence(valueStart, previousEnd).toString();
+        }
+
+        if (lexer.is(TokenType.IDENTIFIER)) {
+            advance();
+            if (lexer.is(TokenType.LEFT_PAREN)) {
+                skipGroup();
+            }
+            return input.subSequence(valueStart, previousEnd).toString();
+        }
+
+        if (lexer.is(TokenType.LEFT_PAREN)) {
+            skipGroup();
+            return input.subSequence(valueStart, previousEnd).toString();
+        }
+
+        return null;
+    }
+
+    private ForeignKeyDefinition parseReferences(List<String> sourceColumns) {
+        advance();
+        String targetTable = parseQualifiedName();
+        if (targetTable == null) {
+            return null;
+        }
+        List<String> targetColumns = parseColumnList();
+        return new ForeignKeyDefinition(sourceColumns, targetTable, targetColumns);
+    }
+
+    // Lista de columnas entre paréntesis; de cada elemento se toma el primer identificador (id2[1] -> id2)
+    private List<String> parseColumnList() {
+        List<String> columns = new ArrayList<>();
+        if (!lexer.is(TokenType.LEFT_PAREN)) {
+            return columns;
+        }
+        advance();
+
+        boolean expectName = true;
+        while (!lexer.is(TokenType.RIGHT_PAREN) && !lexer.is(TokenType.SEMICOLON) && !lexer.is(TokenType.EOF)) {
+            if (lexer.is(TokenType.COMMA)) {
+                expectName = true;
+                advance();
+            } else if (lexer.is(TokenType.LEFT_PAREN) || lexer.is(TokenType.LEFT_BRACKET)) {
+                skipGroup();
+            } else {
+                if (expectName && lexer.isIdentifier()) {
+                    columns.add(cleanIdentifier(lexer.identifier()));
+                    expectName = false;
+                }
+                advance();
+            }
+        }
+
+        if (lexer.is(TokenType.RIGHT_PAREN)) {
+            advance();
+        }
+        return columns;
+    }
+
+    private String parseQualifiedName() {
+        if (!lexer.isIdentifier()) {
+            return null;
+        }
+
+        String name = lexer.identifier();
+        advance();
+        if (!lexer.is(TokenType.DOT)) {
+            return name;
+        }
+
+        StringBuilder qualifiedName = new StringBuilder(name);
+        while (lexer.is(TokenType.DOT)) {
+            advance();
+            if (!lexer.isIdentifier()) {
+                break;
+            }
+            qualifiedName.append('.').append(lexer.identifier());
+            advance();
+        }
+        return qualifiedName.toString();
+    }
+
+    // Igual que en CREATE TABLE: los nombres de columna se limpian y los de restricciones se conservan
+    private String parseName(AlterTableAction.Kind kind) {
+        String name = lexer.identifier();
+        advance();
+        return kind == AlterTableAction.Kind.DROP_CONSTRAINT || kind == AlterTableAction.Kind.RENAME_CONSTRAINT
+            ? name : cleanIdentifier(name);
+    }
+
+    // IF [NOT] EXISTS; devuelve true si estaba presente
+    private boolean skipIfExists() {
+        if (!lexer.isKeyword("IF")) {
+            return false;
+        }
+        advance();
+        if (lexer.isKeyword("NOT")) {
+            advance();
+        }
+        if (lexer.isKeyword("EXISTS")) {
+            advance();
+        }
+        return true;
+    }
+
+    private void expectKeyword(String keyword) {
+        if (lexer.isKeyword(keyword)) {
+            advance();
+        }
+    }
+
+    private boolean isElementEnd() {
+        return lexer.is(TokenType.COMMA) || lexer.is(TokenType.RIGHT_PAREN)
+            || lexer.is(TokenType.SEMICOLON) || lexer.is(TokenType.EOF);
+    }
+
+    private void skipElement() {
+        while (!isElementEnd()) {
+            if (lexer.is(TokenType.LEFT_PAREN) || lexer.is(TokenType.LEFT_BRACKET)) {
+                skipGroup();
+            } else {
+                advance();
+            }
+        }
+    }
+
+    // Salta un grupo balanceado de () o []; un ';' siempre corta el grupo
+    private void skipGroup() {
+        int depth = 0;
+        do {
+            if (lexer.is(TokenType.LEFT_PAREN) || lexer.is(TokenType.LEFT_BRACKET)) {
+                depth++;
+            } else if (lexer.is(TokenType.RIGHT_PAREN) || lexer.is(TokenType.RIGHT_BRACKET)) {
+                depth--;
+            }
+            advance();
+        } while (depth > 0 && !lexer.is(TokenType.SEMICOLON) && !lexer.is(TokenType.EOF));
+    }
+
+    private boolean isStatementStart() {
+        return previousType == null || previousType == TokenType.SEMICOLON;
+    }
+
+    // Salta el resto de la sentencia actual sin tokenizarla
+    private void skipStatement() {
+        lexer.skipStatement();
+        previousEnd = lexer.position();
+        previousType = TokenType.SEMICOLON;
+        lexer.next();
+    }
+
+    // COPY ... FROM stdin va seguido de las filas de datos, que no son SQL
+    private void skipCopy() {
+        boolean fromStdin = false;
+        while (!lexer.is(TokenType.SEMICOLON) && !lexer.is(TokenType.EOF)) {
+            fromStdin |= lexer.isKeyword("STDIN");
+            advance();
+        }
+        if (fromStdin && lexer.is(TokenType.SEMICOLON)) {
+            lexer.skipCopyData();
+            previousEnd = lexer.position();
+            previousType = TokenType.SEMICOLON;
+            lexer.next();
+        }
+    }
+
+    private void advance() {
+        previousEnd = lexer.end();
+        previousType = lexer.type();
+        lexer.next();
+    }
+
+    // Reemplaza caracteres no válidos por '_', consolida '_' consecutivos y elimina los de los extremos
+    public static String cleanIdentifier(String name) {
+        if (isClean(name)) {
+            return name;
+        }
+
+        StringBuilder clean = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = isWordChar(name.charAt(i)) ? name.charAt(i) : '_';
+            if (c == '_' && (clean.length() == 0 || clean.charAt(clean.length() - 1) == '_')) {
+                continue;
+            }
+            clean.append(c);
+        }
+        while (clean.length() > 0 && clean.charAt(clean.length() - 1) == '_') {
+            clean.setLength(clean.length() - 1);
+        }
+        return clean.toString();
+    }
+
+    private static boolean isClean(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '_') {
+                if (i == 0 || i == name.length() - 1 || name.charAt(i - 1) == '_') {
+                    return false;
+                }
+            } else if (!isWordChar(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+}
@@ -0,0 +1,46 @@
+package cl.playground.core.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Resultado de parsear un esquema: las sentencias CREATE, ALTER y DROP TABLE en orden y separadas por tipo
+public class DdlScript {
+    final List<DdlStatement> statements = new ArrayList<>();
+    final List<CreateTableStatement> createTables = new ArrayList<>();
+    final List<AlterTableStatement> alterTables = new ArrayList<>();
+    final List<DropTableStatement> dropTables = new ArrayList<>();
+
+    DdlScript() {
+    }
+
+    public List<DdlStatement> getStatements() {
+        return statements;
+    }
+
+    public List<CreateTableStatement> getCreateTables() {
+        return createTables;
+    }
+
+    public List<AlterTableStatement> getAlterTables() {
+        return alterTables;
+    }
+
+    public List<DropTableStatement> getDropTables() {
+        return dropTables;
+    }
+
+    void add(DdlStatement statement) {
+        statements.add(statement);
+        if (statement instanceof CreateTableStatement createTable) {
+            createTables.add(createTable);
+        } else if (statement instanceof AlterTableStatement alterTable) {
+            alterTables.add(alterTable);
+        } else if (statement instanceof DropTableStatement dropTable) {
+            dropTables.add(dropTable);
+        }
+    }
+
+    void addAll(DdlScript other) {
+        other.statements.forEach(this::add);
+    }
+}
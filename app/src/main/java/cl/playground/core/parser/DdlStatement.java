@@ -0,0 +1,5 @@
+package cl.playground.core.parser;
+
+// Sentencia DDL que cambia la estructura del esquema (CREATE, ALTER o DROP TABLE)
+public interface DdlStatement {
+}
@@ -0,0 +1,242 @@
+package cl.playground.core.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+/**
+ * Variante incremental de {@link DdlParser} para entradas que llegan como flujo (stdin, dumps
+ * comprimidos). Lee por bloques, corta la entrada en sentencias con {@link SqlLexer} y solo conserva
+ * el texto de los ALTER y DROP y desde el primer CREATE de cada sentencia; todo lo demás se descarta apenas se lee.
+ */
+public class DdlStreamParser {
+    private static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final int chunkSize;
+    private final char[] chunk;
+    private final StringBuilder buffer = new StringBuilder();
+    private final DdlScript script = new DdlScript();
+    private final StatementListener listener;
+    private int offset; // posición en la entrada del primer carácter del buffer
+    private boolean endOfInput;
+    private boolean unterminatedCopy;
+
+    // Estado de la sentencia en curso; sobrevive entre bloques porque solo cambia con tokens completos
+    private Mode mode = Mode.TOKENS;
+    private int statementStart; // inicio del texto que se conserva de la sentencia en curso
+    private int resume;         // hasta dónde ya se procesó el buffer
+    private boolean firstToken = true;
+    private boolean keepStatement; // la sentencia tiene un CREATE o es un ALTER/DROP y se pasa a DdlParser
+    private int createStep;     // posición tras el primer CREATE mientras aún puede ser CREATE [OR REPLACE] FUNCTION
+    private boolean copy;
+    private boolean copyFromStdin;
+    private final SqlLexer.SkipState skipState = new SqlLexer.SkipState();
+
+    // Igual que en DdlParser: COPY, INSERT, COMMENT ON y cuerpos de funciones se saltan sin tokenizar
+    private enum Mode { TOKENS, SKIP_STATEMENT, SKIP_COPY_DATA }
+
+    // Para IncrementalDdlParser: informa cada sentencia conservada y cada punto donde el parser vuelve al
+    // estado inicial, con posiciones absolutas en la entrada. Si boundary devuelve true se deja de leer ahí
+    interface StatementListener {
+        void statement(int start, int end, DdlScript parsed);
+
+        boolean boundary(int position);
+    }
+
+    public DdlStreamParser(Reader reader) {
+        this(reader, DEFAULT_CHUNK_SIZE);
+    }
+
+    public DdlStreamParser(Reader reader, int chunkSize) {
+        this(reader, chunkSize, 0, null);
+    }
+
+    // offset es la posición en la entrada completa del primer carácter que entrega reader
+    DdlStreamParser(Reader reader, int offset, StatementListener listener) {
+        this(reader, DEFAULT_CHUNK_SIZE, offset, listener);
+    }
+
+    private DdlStreamParser(Reader reader, int chunkSize, int offset, StatementListener listener) {
+        this.reader = reader;
+        this.chunkSize = chunkSize;
+        this.chunk = new char[chunkSize];
+        this.offset = offset;
+        this.listener = listener;
+    }
+
+    public List<CreateTableStatement> parseCreateTables() throws IOException {
+        return parse().getCreateTables();
+    }
+
+    public DdlScript parse() throws IOException {
+        int readSize = chunkSize;
+        fill(readSize);
+
+        while (true) {
+            int resumeBefore = resume;
+            if (scan(new SqlLexer(buffer, resume, buffer.length()))) {
+                return script;
+            }
+
+            // Si no hubo avance (un token o un literal enorme) se lee el doble, así no se relee bloque a bloque
+            readSize = resume > resumeBefore ? chunkSize : readSize * 2;
+
+            // Descartar lo ya procesado antes de leer más
+            buffer.delete(0, statementStart);
+            offset += statementStart;
+            resume -= statementStart;
+            statementStart = 0;
+            fill(readSize);
+        }
+    }
+
+    // Procesa el buffer desde resume; devuelve false si necesita más entrada para continuar
+    private boolean scan(SqlLexer lexer) {
+        while (true) {
+            if (mode == Mode.SKIP_STATEMENT) {
+                boolean terminated = lexer.skipStatement(skipState);
+                // Lo saltado no se conserva: el siguiente bloque sigue desde ahí con el estado de los literales
+                resume = lexer.position();
+                statementStart = resume;
+                if (!terminated && !endOfInput) {
+                    return false;
+                }
+                endStatement(terminated ? resume : buffer.length());
+                // Lo que cortó el fin de la entrada no es un límite: un texto agregado al final lo continúa
+                if (terminated && isBoundary(resume)) {
+                    return true;
+                }
+                continue;
+            }
+            if (mode == Mode.SKIP_COPY_DATA) {
+                boolean terminated = lexer.skipCopyData();
+                resume = lexer.position();
+                statementStart = resume;
+                if (!terminated && !endOfInput) {
+                    return false;
+                }
+                mode = Mode.TOKENS;
+                // Sin "\." la última línea se tokeniza solo porque se acabó la entrada: de ahí en adelante no hay límites
+                unterminatedCopy |= !terminated;
+                if (isBoundary(resume)) {
+                    return true;
+                }
+                continue;
+            }
+
+            TokenType type = lexer.next();
+            // Un token que toca el final del buffer puede estar incompleto: se relee con el siguiente bloque
+            if (!endOfInput && (type == TokenType.EOF || lexer.isTruncated())) {
+                return false;
+            }
+            if (type == TokenType.EOF) {
+                if (keepStatement) {
+                    parseStatement(statementStart, buffer.length());
+                }
+                return true;
+            }
+
+            resume = lexer.end();
+            if (type == TokenType.SEMICOLON) {
+                if (keepStatement) {
+                    parseStatement(statementStart, resume);
+                }
+                boolean copyData = copyFromStdin;
+                endStatement(resume);
+                // Tras COPY ... FROM stdin vienen datos, no una sentencia: el límite queda al final de los datos
+                if (copyData) {
+                    mode = Mode.SKIP_COPY_DATA;
+                } else if (isBoundary(resume)) {
+                    return true;
+                }
+            } else {
+                classify(lexer);
+            }
+        }
+    }
+
+    private void classify(SqlLexer lexer) {
+        boolean first = firstToken;
+        firstToken = false;
+
+        if (first && (lexer.isKeyword("INSERT") || lexer.isKeyword("COMMENT"))) {
+            mode = Mode.SKIP_STATEMENT;
+            statementStart = resume;
+        } else if ((first && lexer.isKeyword("COPY")) || copy) {
+            copy = true;
+            copyFromStdin |= lexer.isKeyword("STDIN");
+            statementStart = resume;
+        } else if (keepStatement) {
+            if (createStep > 0) {
+                nextCreateStep(lexer);
+            }
+        } else if (first && (lexer.isKeyword("ALTER") || lexer.isKeyword("DROP"))) {
+            statementStart = lexer.start();
+            keepStatement = true;
+        } else if (lexer.isKeyword("CREATE")) {
+            // Lo anterior al CREATE no le importa al parser
+            statementStart = lexer.start();
+            keepStatement = true;
+            createStep = 1;
+        } else {
+            statementStart = resume;
+        }
+    }
+
+    private void nextCreateStep(SqlLexer lexer) {
+        if (lexer.isKeyword("FUNCTION") || lexer.isKeyword("PROCEDURE")) {
+            mode = Mode.SKIP_STATEMENT;
+            keepStatement = false;
+            statementStart = resume;
+        } else if (createStep == 1 && lexer.isKeyword("OR")) {
+            createStep = 2;
+        } else if (createStep == 2 && lexer.isKeyword("REPLACE")) {
+            createStep = 3;
+        } else {
+            createStep = 0;
+        }
+    }
+
+    private void endStatement(int end) {
+        resume = end;
+        statementStart = end;
+        mode = Mode.TOKENS;
+        firstToken = true;
+        keepStatement = false;
+        createStep = 0;
+        copy = false;
+        copyFromStdin = false;
+        skipState.reset();
+    }
+
+    // Cuánto de la entrada sigue en memoria; los tests revisan que no crezca con el largo de una sentencia
+    int bufferedLength() {
+        return buffer.length();
+    }
+
+    private boolean isBoundary(int position) {
+        return listener != null && !unterminatedCopy && listener.boundary(offset + position);
+    }
+
+    private void parseStatement(int start, int end) {
+        DdlScript parsed = new DdlParser(buffer.substring(start, end)).parse();
+        script.addAll(parsed);
+        if (listener != null) {
+            listener.statement(offset + start, offset + end, parsed);
+        }
+    }
+
+    private void fill(int size) throws IOException {
+        int remaining = size;
+        while (remaining > 0) {
+            int read = reader.read(chunk, 0, Math.min(remaining, chunk.length));
+            if (read < 0) {
+                endOfInput = true;
+                return;
+            }
+            buffer.append(chunk, 0, read);
+            remaining -= read;
+        }
+    }
+}
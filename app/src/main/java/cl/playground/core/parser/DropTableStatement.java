@@ -0,0 +1,23 @@
+package cl.playground.core.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// DROP TABLE [IF EXISTS] a, b [CASCADE]
+public class DropTableStatement implements DdlStatement {
+    final List<String> tableNames = new ArrayList<>();
+
+    DropTableStatement() {
+    }
+
+    public List<String> getTableNames() {
+        return tableNames;
+    }
+
+    @Override
+    public String toString() {
+        return "DropTableStatement{" +
+                "tableNames=" + tableNames +
+                '}';
+    }
+}
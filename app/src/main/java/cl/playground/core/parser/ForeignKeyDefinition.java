@@ -0,0 +1,36 @@
+package cl.playground.core.parser;
+
+import java.util.List;
+
+public class ForeignKeyDefinition {
+    private final List<String> sourceColumns;
+    private final String targetTable;
+    private final List<String> targetColumns;
+
+    public ForeignKeyDefinition(List<String> sourceColumns, String targetTable, List<String> targetColumns) {
+        this.sourceColumns = sourceColumns;
+        this.targetTable = targetTable;
+        this.targetColumns = targetColumns;
+    }
+
+    public List<String> getSourceColumns() {
+        return sourceColumns;
+    }
+
+    public String getTargetTable() {
+        return targetTable;
+    }
+
+    public List<String> getTargetColumns() {
+        return targetColumns;
+    }
+
+    @Override
+    public String toString() {
+        return "ForeignKeyDefinition{" +
+                "sourceColumns=" + sourceColumns +
+                ", targetTable='" + targetTable + '\'' +
+                ", targetColumns=" + targetColumns +
+                '}';
+    }
+}
@@ -0,0 +1,170 @@
+package cl.playground.core.parser;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parser para un esquema que se vuelve a leer tras cada edición (modo --watch). Recuerda dónde terminó cada
+ * sentencia en la lectura anterior: lo que no cambió al principio y al final del texto se reutiliza ya parseado
+ * y solo se vuelve a tokenizar el tramo editado, hasta reencontrar un límite de sentencia de la lectura anterior.
+ * Las sentencias reutilizadas son las mismas instancias, así que no sirve para migraciones (DdlCatalog las modifica).
+ */
+public class IncrementalDdlParser {
+    private static final int SUFFIX_BLOCK = 4096;
+
+    private char[] content = new char[0];
+    // Posiciones donde el parser volvió al estado inicial, en orden; desde ahí se puede retomar la lectura
+    private int[] boundaries = new int[0];
+    private List<ParsedStatement> statements = new ArrayList<>();
+    private int reparsed;
+
+    private static class ParsedStatement {
+        final int start;
+        final int end;
+        final DdlScript script;
+
+        ParsedStatement(int start, int end, DdlScript script) {
+            this.start = start;
+            this.end = end;
+            this.script = script;
+        }
+    }
+
+    public DdlScript parse(char[] newContent) throws IOException {
+        int prefix = Arrays.mismatch(content, newContent);
+        if (prefix < 0) {
+            reparsed = 0;
+            return assemble();
+        }
+        int suffix = commonSuffix(content, newContent, Math.min(content.length, newContent.length) - prefix);
+        int delta = newContent.length - content.length;
+
+        // Se retoma desde el último límite que cae dentro del prefijo común junto con el carácter que lo sigue:
+        // el fin de los datos de un COPY ("\." y salto de línea) se decide mirando un carácter más allá del límite
+        int kept = lastBoundaryAtOrBefore(prefix - 1);
+        int restart = kept >= 0 ? boundaries[kept] : 0;
+
+        List<ParsedStatement> newStatements = new ArrayList<>(statements.size() + 16);
+        for (ParsedStatement statement : statements) {
+            if (statement.end > restart) {
+                break;
+            }
+            newStatements.add(statement);
+        }
+        int reusedBefore = newStatements.size();
+
+        IntList newBoundaries = new IntList(boundaries.length + 16);
+        newBoundaries.addAll(boundaries, 0, kept + 1);
+
+        // Un límite dentro del sufijo común que también era límite antes marca el fin del tramo editado:
+        // desde ahí el texto y el estado del parser son los mismos de la lectura anterior
+        int[] synced = {-1};
+        DdlStreamParser.StatementListener listener = new DdlStreamParser.StatementListener() {
+            @Override
+            public void statement(int start, int end, DdlScript parsed) {
+                newStatements.add(new ParsedStatement(start, end, parsed));
+            }
+
+            @Override
+            public boolean boundary(int position) {
+                newBoundaries.add(position);
+                if (position >= newContent.length - suffix) {
+                    int previous = Arrays.binarySearch(boundaries, position - delta);
+                    if (previous >= 0) {
+                        synced[0] = previous;
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+        new DdlStreamParser(new CharArrayReader(newContent, restart, newContent.length - restart), restart, listener)
+            .parse();
+        reparsed = newStatements.size() - reusedBefore;
+
+        if (synced[0] >= 0) {
+            int syncPosition = boundaries[synced[0]];
+            for (ParsedStatement statement : statements) {
+                if (statement.start >= syncPosition) {
+                    newStatements.add(new ParsedStatement(statement.start + delta, statement.end + delta,
+                        statement.script));
+                }
+            }
+            for (int i = synced[0] + 1; i < boundaries.length; i++) {
+                newBoundaries.add(boundaries[i] + delta);
+            }
+        }
+
+        content = newContent;
+        boundaries = newBoundaries.toArray();
+        statements = newStatements;
+        return assemble();
+    }
+
+    // Sentencias que se volvieron a parsear en la última lectura; el resto se reutilizó
+    public int getReparsed() {
+        return reparsed;
+    }
+
+    public int getStatementCount() {
+        return statements.size();
+    }
+
+    private DdlScript assemble() {
+        DdlScript script = new DdlScript();
+        statements.forEach(statement -> script.addAll(statement.script));
+        return script;
+    }
+
+    private int lastBoundaryAtOrBefore(int position) {
+        int index = Arrays.binarySearch(boundaries, position);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    // Se compara hacia atrás por bloques: Arrays.equals usa instrucciones vectoriales y solo el bloque
+    // con la diferencia se recorre carácter a carácter
+    private static int commonSuffix(char[] a, char[] b, int max) {
+        int length = 0;
+        while (length < max) {
+            int size = Math.min(SUFFIX_BLOCK, max - length);
+            if (!Arrays.equals(a, a.length - length - size, a.length - length,
+                b, b.length - length - size, b.length - length)) {
+                while (a[a.length - length - 1] == b[b.length - length - 1]) {
+                    length++;
+                }
+                return length;
+            }
+            length += size;
+        }
+        return length;
+    }
+
+    private static class IntList {
+        private int[] values;
+        private int size;
+
+        IntList(int capacity) {
+            this.values = new int[capacity];
+        }
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.max(16, size * 2));
+            }
+            values[size++] = value;
+        }
+
+        void addAll(int[] source, int from, int to) {
+            for (int i = from; i < to; i++) {
+                add(source[i]);
+            }
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
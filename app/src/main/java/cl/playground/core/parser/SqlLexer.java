@@ -0,0 +1,559 @@
+package cl.playground.core.parser;
+
+/**
+ * Tokenizador de SQL de una sola pasada. No crea objetos por token: el token actual
+ * se expone como tipo + rango [start, end) sobre la entrada original.
+ */
+public class SqlLexer {
+    private final CharSequence input;
+    private final int limit;
+    private int position;
+
+    private TokenType type;
+    private int tokenStart;
+    private int tokenEnd;
+    private boolean truncated;
+    private SkipState skipState;
+
+    private enum Inside { CODE, STRING, ESCAPE_STRING, QUOTED_IDENTIFIER, LINE_COMMENT, BLOCK_COMMENT, DOLLAR }
+
+    // Dónde quedó skipStatement al llegar al límite; la lectura por bloques lo conserva entre un bloque y otro
+    static final class SkipState {
+        private Inside inside = Inside.CODE;
+        private String dollarTag;
+        private int depth;
+
+        void reset() {
+            inside = Inside.CODE;
+            dollarTag = null;
+            depth = 0;
+        }
+    }
+
+    public SqlLexer(CharSequence input) {
+        this(input, 0, input.length());
+    }
+
+    public SqlLexer(CharSequence input, int start, int end) {
+        this.input = input;
+        this.position = start;
+        this.limit = end;
+        this.tokenStart = start;
+        this.tokenEnd = start;
+    }
+
+    public TokenType next() {
+        truncated = false;
+        skipWhitespaceAndComments();
+        tokenStart = position;
+
+        if (position >= limit) {
+            tokenEnd = limit;
+            type = TokenType.EOF;
+            return type;
+        }
+
+        char c = input.charAt(position);
+        switch (c) {
+            case '(' -> single(TokenType.LEFT_PAREN);
+            case ')' -> single(TokenType.RIGHT_PAREN);
+            case '[' -> single(TokenType.LEFT_BRACKET);
+            case ']' -> single(TokenType.RIGHT_BRACKET);
+            case ',' -> single(TokenType.COMMA);
+            case ';' -> single(TokenType.SEMICOLON);
+            case '\'' -> readString(position, false);
+            case '"' -> readQuotedIdentifier();
+            case '$' -> readDollar();
+            case '.' -> {
+                if (position + 1 < limit && isDigit(input.charAt(position + 1))) {
+                    readNumber();
+                } else {
+                    single(TokenType.DOT);
+                }
+            }
+            default -> {
+                if (isDigit(c)) {
+                    readNumber();
+                } else if (isIdentifierStart(c)) {
+                    readIdentifier();
+                } else {
+                    single(TokenType.OPERATOR);
+                }
+            }
+        }
+
+        tokenEnd = position;
+        return type;
+    }
+
+    public TokenType type() {
+        return type;
+    }
+
+    public int start() {
+        return tokenStart;
+    }
+
+    public int end() {
+        return tokenEnd;
+    }
+
+    public int position() {
+        return position;
+    }
+
+    // Reposiciona el lexer; el siguiente next() lee desde esa posición
+    public void reset(int newPosition) {
+        position = newPosition;
+    }
+
+    public CharSequence input() {
+        return input;
+    }
+
+    public boolean is(TokenType expected) {
+        return type == expected;
+    }
+
+    // Compara el token actual con una palabra clave (en mayúsculas) sin crear Strings
+    public boolean isKeyword(String keyword) {
+        if (type != TokenType.IDENTIFIER || tokenEnd - tokenStart != keyword.length()) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            if (Character.toUpperCase(input.charAt(tokenStart + i)) != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // true si el token llega al límite de la entrada o se decidió sin poder mirar más allá de él;
+    // con más texto a continuación podría ser otro token (lo usa la lectura por bloques)
+    public boolean isTruncated() {
+        return truncated || tokenEnd >= limit;
+    }
+
+    public boolean isIdentifier() {
+        return type == TokenType.IDENTIFIER || type == TokenType.QUOTED_IDENTIFIER;
+    }
+
+    public String text() {
+        return input.subSequence(tokenStart, tokenEnd).toString();
+    }
+
+    // Nombre del identificador actual, sin comillas y con las comillas dobles escapadas resueltas
+    public String identifier() {
+        if (type != TokenType.QUOTED_IDENTIFIER) {
+            return text();
+        }
+        int contentEnd = tokenEnd - 1;
+        if (contentEnd <= tokenStart || input.charAt(contentEnd) != '"') {
+            contentEnd = tokenEnd;
+        }
+        String name = input.subSequence(tokenStart + 1, contentEnd).toString();
+        return name.indexOf('"') >= 0 ? name.replace("\"\"", "\"") : name;
+    }
+
+    // Avanza hasta después del próximo ';' fuera de literales y comentarios sin generar tokens.
+    // Devuelve false si llega al límite sin encontrarlo
+    public boolean skipStatement() {
+        if (skipState == null) {
+            skipState = new SkipState();
+        }
+        skipState.reset();
+        if (skipStatement(skipState)) {
+            return true;
+        }
+        position = limit;
+        return false;
+    }
+
+    // Variante para la lectura por bloques: si llega al límite devuelve false, state recuerda dentro de qué
+    // literal o comentario quedó y position apunta al primer carácter que aún no se pudo decidir (un ' que
+    // puede ser '', un $ que puede abrir una etiqueta). Con el siguiente bloque se sigue desde ahí, así lo
+    // saltado se puede descartar sin importar el largo de la sentencia
+    boolean skipStatement(SkipState state) {
+        while (position < limit) {
+            if (state.inside != Inside.CODE) {
+                if (!skipInside(state)) {
+                    return false;
+                }
+                continue;
+            }
+            char c = input.charAt(position);
+            if (c == ';') {
+                position++;
+                return true;
+            } else if (c == '\'') {
+                state.inside = Inside.STRING;
+                position++;
+            } else if (c == '"') {
+                state.inside = Inside.QUOTED_IDENTIFIER;
+                position++;
+            } else if (c == '$') {
+                if (!openDollar(state)) {
+                    return false;
+                }
+            } else if (isIdentifierStart(c)) {
+                // Incluye los '$' internos de un identificador y el prefijo de E'...'
+                int identifierEnd = position + 1;
+                while (identifierEnd < limit && isIdentifierPart(input.charAt(identifierEnd))) {
+                    identifierEnd++;
+                }
+                if (identifierEnd >= limit) {
+                    return false;
+                }
+                if (identifierEnd - position == 1 && (c == 'E' || c == 'e') && input.charAt(identifierEnd) == '\'') {
+                    state.inside = Inside.ESCAPE_STRING;
+                    identifierEnd++;
+                }
+                position = identifierEnd;
+            } else if (c == '-' || c == '/') {
+                if (position + 1 >= limit) {
+                    return false;
+                }
+                char next = input.charAt(position + 1);
+                if (c == '-' && next == '-') {
+                    state.inside = Inside.LINE_COMMENT;
+                    position += 2;
+                } else if (c == '/' && next == '*') {
+                    state.inside = Inside.BLOCK_COMMENT;
+                    state.depth = 1;
+                    position += 2;
+                } else {
+                    position++;
+                }
+            } else {
+                position++;
+            }
+        }
+        return false;
+    }
+
+    // Un $ en el código: abre un $tag$ o es un parámetro posicional como $1. false si la etiqueta llega al límite
+    private boolean openDollar(SkipState state) {
+        int tagEnd = position + 1;
+        while (tagEnd < limit && isIdentifierPart(input.charAt(tagEnd)) && input.charAt(tagEnd) != '$') {
+            tagEnd++;
+        }
+        if (tagEnd >= limit) {
+            return false;
+        }
+        if (input.charAt(tagEnd) == '$' && (tagEnd == position + 1 || !isDigit(input.charAt(position + 1)))) {
+            state.inside = Inside.DOLLAR;
+            state.dollarTag = input.subSequence(position, tagEnd + 1).toString();
+            position = tagEnd + 1;
+            return true;
+        }
+        position++;
+        while (position < limit && isDigit(input.charAt(position))) {
+            position++;
+        }
+        return true;
+    }
+
+    // Avanza dentro del literal o comentario de state; true si se cerró, false si hace falta más entrada
+    private boolean skipInside(SkipState state) {
+        switch (state.inside) {
+            case STRING, ESCAPE_STRING, QUOTED_IDENTIFIER -> {
+                char quote = state.inside == Inside.QUOTED_IDENTIFIER ? '"' : '\'';
+                boolean backslashEscapes = state.inside == Inside.ESCAPE_STRING;
+                while (position < limit) {
+                    char c = input.charAt(position);
+                    if (backslashEscapes && c == '\\') {
+                        if (position + 1 >= limit) {
+                            return false;
+                        }
+                        position += 2;
+                    } else if (c == quote) {
+                        // Una comilla al final del bloque puede ser la primera de un par escapado
+                        if (position + 1 >= limit) {
+                            return false;
+                        }
+                        if (input.charAt(position + 1) != quote) {
+                            position++;
+                            state.inside = Inside.CODE;
+                            return true;
+                        }
+                        position += 2;
+                    } else {
+                        position++;
+                    }
+                }
+                return false;
+            }
+            case LINE_COMMENT -> {
+                while (position < limit) {
+                    if (input.charAt(position) == '\n') {
+                        state.inside = Inside.CODE;
+                        return true;
+                    }
+                    position++;
+                }
+                return false;
+            }
+            case BLOCK_COMMENT -> {
+                while (position < limit) {
+                    char c = input.charAt(position);
+                    if (c == '/' || c == '*') {
+                        if (position + 1 >= limit) {
+                            return false;
+                        }
+                        char next = input.charAt(position + 1);
+                        if (c == '/' && next == '*') {
+                            state.depth++;
+                            position += 2;
+                            continue;
+                        }
+                        if (c == '*' && next == '/') {
+                            position += 2;
+                            if (--state.depth == 0) {
+                                state.inside = Inside.CODE;
+                                return true;
+                            }
+                            continue;
+                        }
+                    }
+                    position++;
+                }
+                return false;
+            }
+            case DOLLAR -> {
+                String tag = state.dollarTag;
+                while (position < limit) {
+                    if (input.charAt(position) == '$') {
+                        // La etiqueta de cierre puede quedar cortada por el límite
+                        if (position + tag.length() > limit) {
+                            return false;
+                        }
+                        if (matchesTag(tag)) {
+                            position += tag.length();
+                            state.inside = Inside.CODE;
+                            return true;
+                        }
+                    }
+                    position++;
+                }
+                return false;
+            }
+            default -> {
+                return true;
+            }
+        }
+    }
+
+    private boolean matchesTag(String tag) {
+        for (int i = 0; i < tag.length(); i++) {
+            if (input.charAt(position + i) != tag.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Salta las filas de un COPY ... FROM stdin hasta la línea "\." revisando solo el inicio de cada línea.
+    // Se llama justo después del ';' de la cabecera; si llega al límite devuelve false y queda al
+    // inicio de la última línea, que puede estar incompleta
+    public boolean skipCopyData() {
+        int lineStart = position;
+        while (true) {
+            if (lineStart + 2 < limit && input.charAt(lineStart) == '\\' && input.charAt(lineStart + 1) == '.'
+                && (input.charAt(lineStart + 2) == '\n' || input.charAt(lineStart + 2) == '\r')) {
+                position = lineStart + 2;
+                return true;
+            }
+
+            int lineEnd = indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                position = lineStart;
+                return false;
+            }
+            lineStart = lineEnd + 1;
+        }
+    }
+
+    private int indexOf(char c, int from) {
+        if (input instanceof String text) {
+            // String.indexOf está vectorizado en el JDK
+            int index = text.indexOf(c, from);
+            return index < limit ? index : -1;
+        }
+        for (int i = from; i < limit; i++) {
+            if (input.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void single(TokenType tokenType) {
+        position++;
+        type = tokenType;
+    }
+
+    private void skipWhitespaceAndComments() {
+        while (position < limit) {
+            char c = input.charAt(position);
+            if (c <= ' ') {
+                position++;
+            } else if (c == '-' && position + 1 < limit && input.charAt(position + 1) == '-') {
+                position += 2;
+                while (position < limit && input.charAt(position) != '\n') {
+                    position++;
+                }
+            } else if (c == '/' && position + 1 < limit && input.charAt(position + 1) == '*') {
+                skipBlockComment();
+            } else {
+                return;
+            }
+        }
+    }
+
+    // PostgreSQL permite comentarios de bloque anidados
+    private void skipBlockComment() {
+        int depth = 0;
+        while (position < limit) {
+            char c = input.charAt(position);
+            if (c == '/' && position + 1 < limit && input.charAt(position + 1) == '*') {
+                depth++;
+                position += 2;
+            } else if (c == '*' && position + 1 < limit && input.charAt(position + 1) == '/') {
+                depth--;
+                position += 2;
+                if (depth == 0) {
+                    return;
+                }
+            } else {
+                position++;
+            }
+        }
+    }
+
+    private void readString(int quote, boolean backslashEscapes) {
+        position = quote + 1;
+        while (position < limit) {
+            char c = input.charAt(position++);
+            if (backslashEscapes && c == '\\') {
+                position++;
+            } else if (c == '\'') {
+                if (position < limit && input.charAt(position) == '\'') {
+                    position++;
+                } else {
+                    break;
+                }
+            }
+        }
+        position = Math.min(position, limit);
+        type = TokenType.STRING;
+    }
+
+    private void readQuotedIdentifier() {
+        position++;
+        while (position < limit) {
+            char c = input.charAt(position++);
+            if (c == '"') {
+                if (position < limit && input.charAt(position) == '"') {
+                    position++;
+                } else {
+                    break;
+                }
+            }
+        }
+        type = TokenType.QUOTED_IDENTIFIER;
+    }
+
+    // $tag$ ... $tag$ o parámetros posicionales como $1
+    private void readDollar() {
+        int tagEnd = position + 1;
+        while (tagEnd < limit && isIdentifierPart(input.charAt(tagEnd)) && input.charAt(tagEnd) != '$') {
+            tagEnd++;
+        }
+        truncated = tagEnd >= limit;
+        boolean validTag = tagEnd < limit && input.charAt(tagEnd) == '$'
+            && (tagEnd == position + 1 || !isDigit(input.charAt(position + 1)));
+        if (!validTag) {
+            position++;
+            while (position < limit && isDigit(input.charAt(position))) {
+                position++;
+            }
+            type = TokenType.OPERATOR;
+            return;
+        }
+
+        int tagLength = tagEnd + 1 - position;
+        int bodyStart = tagEnd + 1;
+        position = bodyStart;
+        while (position < limit) {
+            if (input.charAt(position) == '$' && matchesTag(tagEnd + 1 - tagLength, tagLength)) {
+                position += tagLength;
+                type = TokenType.STRING;
+                return;
+            }
+            position++;
+        }
+        type = TokenType.STRING;
+    }
+
+    private boolean matchesTag(int tagStart, int tagLength) {
+        if (position + tagLength > limit) {
+            return false;
+        }
+        for (int i = 0; i < tagLength; i++) {
+            if (input.charAt(position + i) != input.charAt(tagStart + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void readNumber() {
+        while (position < limit && (isDigit(input.charAt(position)) || input.charAt(position) == '.')) {
+            position++;
+        }
+        if (position < limit && (input.charAt(position) == 'e' || input.charAt(position) == 'E')) {
+            int exponent = position + 1;
+            if (exponent < limit && (input.charAt(exponent) == '+' || input.charAt(exponent) == '-')) {
+                exponent++;
+            }
+            truncated = exponent >= limit;
+            if (exponent < limit && isDigit(input.charAt(exponent))) {
+                position = exponent;
+                while (position < limit && isDigit(input.charAt(position))) {
+                    position++;
+                }
+            }
+        }
+        type = TokenType.NUMBER;
+    }
+
+    private void readIdentifier() {
+        int identifierStart = position;
+        position++;
+        while (position < limit && isIdentifierPart(input.charAt(position))) {
+            position++;
+        }
+
+        // Cadenas con escape estilo C: E'...'
+        if (position - identifierStart == 1 && position < limit && input.charAt(position) == '\''
+            && (input.charAt(identifierStart) == 'E' || input.charAt(identifierStart) == 'e')) {
+            readString(position, true);
+            return;
+        }
+        type = TokenType.IDENTIFIER;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        // Como en PostgreSQL, cualquier carácter no ASCII es válido en un identificador; así los bytes
+        // UTF-8 de una entrada mapeada se tratan igual que los caracteres de un String
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c > 127;
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return isIdentifierStart(c) || isDigit(c) || c == '$';
+    }
+}
@@ -0,0 +1,51 @@
+package cl.playground.core.parser;
+
+import java.util.List;
+
+public class TableConstraint {
+    public enum Kind {
+        PRIMARY_KEY,
+        FOREIGN_KEY,
+        UNIQUE,
+        CHECK,
+        OTHER
+    }
+
+    private final Kind kind;
+    private final String name;
+    private final List<String> columns;
+    private final ForeignKeyDefinition foreignKey;
+
+    public TableConstraint(Kind kind, String name, List<String> columns, ForeignKeyDefinition foreignKey) {
+        this.kind = kind;
+        this.name = name;
+        this.columns = columns;
+        this.foreignKey = foreignKey;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public ForeignKeyDefinition getForeignKey() {
+        return foreignKey;
+    }
+
+    @Override
+    public String toString() {
+        return "TableConstraint{" +
+                "kind=" + kind +
+                ", name='" + name + '\'' +
+                ", columns=" + columns +
+                ", foreignKey=" + foreignKey +
+                '}';
+    }
+}
@@ -0,0 +1,17 @@
+package cl.playground.core.parser;
+
+public enum TokenType {
+    IDENTIFIER,
+    QUOTED_IDENTIFIER,
+    STRING,
+    NUMBER,
+    LEFT_PAREN,
+    RIGHT_PAREN,
+    LEFT_BRACKET,
+    RIGHT_BRACKET,
+    COMMA,
+    SEMICOLON,
+    DOT,
+    OPERATOR,
+    EOF
+}
@@ -0,0 +1,53 @@
+package cl.playground.core.reader;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Vista {@link CharSequence} sobre los bytes de un archivo mapeado en memoria. Cada byte se expone
+ * como un char (los tokens de SQL son ASCII) y solo al convertir un fragmento a String se decodifica
+ * como UTF-8, así que los fragmentos son offsets sobre el archivo y no copias en el heap.
+ */
+public class MappedSqlContent implements CharSequence {
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    public MappedSqlContent(ByteBuffer buffer) {
+        this(buffer, 0, buffer.limit());
+    }
+
+    private MappedSqlContent(ByteBuffer buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        return (char) (buffer.get(offset + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+        return new MappedSqlContent(buffer, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
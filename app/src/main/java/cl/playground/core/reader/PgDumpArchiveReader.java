@@ -0,0 +1,192 @@
+package cl.playground.core.reader;
+
+import cl.playground.exception.FileReadException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Lee la tabla de contenidos (TOC) de un archivo de pg_dump en formato custom (-Fc) y la entrega
+ * como texto SQL con solo el DDL de las entradas TABLE, CONSTRAINT y FK CONSTRAINT. La TOC va al
+ * inicio del archivo sin comprimir, así que los bloques de datos que vienen después nunca se leen.
+ */
+class PgDumpArchiveReader extends Reader {
+    static final byte[] MAGIC = {'P', 'G', 'D', 'M', 'P'};
+
+    private static final int FORMAT_CUSTOM = 1;
+    private static final Set<String> SCHEMA_ENTRIES = Set.of("TABLE", "CONSTRAINT", "FK CONSTRAINT");
+
+    // Versiones del formato de archivo, como MAKE_ARCHIVE_VERSION en pg_backup_archiver.h
+    private static final int VERSION_1_10 = version(1, 10);
+    private static final int VERSION_1_11 = version(1, 11);
+    private static final int VERSION_1_14 = version(1, 14);
+    private static final int VERSION_1_15 = version(1, 15);
+    private static final int VERSION_1_16 = version(1, 16);
+
+    private final InputStream input;
+    private final String source;
+    private int version;
+    private int intSize;
+    private int offsetSize;
+    private int remainingEntries;
+
+    private String current = "";
+    private int currentPosition;
+
+    PgDumpArchiveReader(InputStream input, String source) throws IOException {
+        this.input = input;
+        this.source = source;
+        readHeader();
+        remainingEntries = readInt();
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while (currentPosition >= current.length()) {
+            if (!nextSchemaEntry()) {
+                return -1;
+            }
+        }
+
+        int count = Math.min(length, current.length() - currentPosition);
+        current.getChars(currentPosition, currentPosition + count, buffer, offset);
+        currentPosition += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private void readHeader() throws IOException {
+        byte[] magic = input.readNBytes(MAGIC.length);
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (magic.length < MAGIC.length || magic[i] != MAGIC[i]) {
+                throw new FileReadException("Not a pg_dump archive: " + source);
+            }
+        }
+
+        int major = readByte();
+        int minor = readByte();
+        int revision = readByte();
+        version = version(major, minor) | revision;
+        // Desde 1.10 (PostgreSQL 8.4) el encabezado tiene todos los campos que se leen aquí
+        if (version < VERSION_1_10 || version > VERSION_1_16 + 0xFF) {
+            throw new FileReadException(String.format("Unsupported pg_dump archive version %d.%d.%d: %s",
+                major, minor, revision, source));
+        }
+
+        intSize = readByte();
+        offsetSize = readByte();
+        if (readByte() != FORMAT_CUSTOM) {
+            throw new FileReadException("Only custom-format (pg_dump -Fc) archives are supported: " + source);
+        }
+
+        if (version >= VERSION_1_15) {
+            readByte(); // algoritmo de compresión
+        } else {
+            readInt(); // nivel de compresión
+        }
+        for (int i = 0; i < 7; i++) {
+            readInt(); // fecha de creación (struct tm)
+        }
+        readString(); // base de datos
+        readString(); // versión del servidor
+        readString(); // versión de pg_dump
+    }
+
+    // Lee entradas de la TOC hasta encontrar una de esquema; el resto se descarta campo a campo
+    private boolean nextSchemaEntry() throws IOException {
+        while (remainingEntries > 0) {
+            remainingEntries--;
+
+            readInt(); // dumpId
+            readInt(); // hadDumper
+            readString(); // tableoid
+            readString(); // oid
+            readString(); // tag
+            String description = readString();
+            if (version >= VERSION_1_11) {
+                readInt(); // section
+            }
+            String definition = readString();
+            readString(); // dropStmt
+            readString(); // copyStmt
+            readString(); // namespace
+            readString(); // tablespace
+            if (version >= VERSION_1_14) {
+                readString(); // tableam
+            }
+            if (version >= VERSION_1_16) {
+                readInt(); // relkind
+            }
+            readString(); // owner
+            readString(); // withOids
+            while (readString() != null) {
+                // dependencias, terminadas en un string nulo
+            }
+            skip(1 + offsetSize); // posición del bloque de datos (formato custom)
+
+            if (definition != null && !definition.isBlank() && SCHEMA_ENTRIES.contains(description)) {
+                current = definition.endsWith("\n") ? definition : definition + "\n";
+                currentPosition = 0;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int readByte() throws IOException {
+        int value = input.read();
+        if (value < 0) {
+            throw truncated();
+        }
+        return value;
+    }
+
+    // Entero con un byte de signo seguido de intSize bytes little-endian
+    private int readInt() throws IOException {
+        boolean negative = readByte() != 0;
+        long value = 0;
+        for (int i = 0; i < intSize; i++) {
+            value |= (long) readByte() << (i * 8);
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    private String readString() throws IOException {
+        int length = readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = input.readNBytes(length);
+        if (bytes.length < length) {
+            throw truncated();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void skip(int count) throws IOException {
+        try {
+            input.skipNBytes(count);
+        } catch (EOFException e) {
+            throw truncated();
+        }
+    }
+
+    private FileReadException truncated() {
+        return new FileReadException("Truncated pg_dump archive: " + source);
+    }
+
+    private static int version(int major, int minor) {
+        return (major << 16) | (minor << 8);
+    }
+}
@@ -2,33 +2,39 @@ package cl.playground.core.reader;
 
 import cl.playground.exception.FileReadException;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
 
 public class SqlReader {
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+    private static final String STDIN = "-";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String[] STREAM_EXTENSIONS = {".sql", ".sql.gz", ".sql.zst", ".dump"};
+    // Un MappedByteBuffer no puede pasar de 2 GB
+    private static final long MAX_MAPPED_SIZE = Integer.MAX_VALUE;
 
     public static String readSql(String filePath) throws FileReadException {
         try {
-            Path path = Paths.get(filePath);
-
-            // Validaciones básicas
-            if (!Files.exists(path)) {
-                throw new FileReadException("SQL file not found: " + filePath);
-            }
-
-            if (!Files.isRegularFile(path)) {
-                throw new FileReadException("Path is not a file: " + filePath);
-            }
-
-            if (!filePath.toLowerCase().endsWith(".sql")) {
-                throw new FileReadException("File must have .sql extension: " + filePath);
-            }
+            Path path = validatePath(filePath, ".sql");
 
             // Leer el contenido
             String content = Files.readString(path, StandardCharsets.UTF_8);
+            if (!content.isEmpty() && content.charAt(0) == BYTE_ORDER_MARK) {
+                content = content.substring(1);
+            }
 
             // Validar que el contenido no esté vacío
             if (content.trim().isEmpty()) {
@@ -41,4 +47,150 @@ public class SqlReader {
             throw new FileReadException("Error reading SQL file: " + filePath, e);
         }
     }
-}
\ No newline at end of file
+
+    // Mapea el archivo en memoria en lugar de copiarlo al heap; el contenido se lee como UTF-8 bajo demanda
+    public static CharSequence mapSql(String filePath) throws FileReadException {
+        try {
+            Path path = validatePath(filePath, ".sql");
+
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size > MAX_MAPPED_SIZE) {
+                    throw new FileReadException("SQL file is too large to be mapped (max 2 GB): " + filePath);
+                }
+
+                // El mapeo sigue siendo válido después de cerrar el canal
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                CharSequence content = new MappedSqlContent(buffer);
+                if (startsWithUtf8Bom(content)) {
+                    content = content.subSequence(3, content.length());
+                }
+
+                if (isBlank(content)) {
+                    throw new FileReadException("SQL file is empty: " + filePath);
+                }
+
+                return content;
+            }
+
+        } catch (IOException e) {
+            throw new FileReadException("Error reading SQL file: " + filePath, e);
+        }
+    }
+
+    // Abre el esquema como flujo: "-" lee stdin, los dumps gzip/zstd se descomprimen a medida que se leen
+    // y de un archivo de pg_dump -Fc solo se lee el DDL de su TOC
+    public static Reader openSql(String source) throws FileReadException {
+        try {
+            InputStream input = STDIN.equals(source)
+                ? System.in
+                : Files.newInputStream(validatePath(source, STREAM_EXTENSIONS));
+
+            BufferedInputStream buffered = new BufferedInputStream(input, BUFFER_SIZE);
+            if (isPgDumpArchive(buffered)) {
+                return new PgDumpArchiveReader(buffered, source);
+            }
+
+            InputStream decompressed = decompress(buffered, source);
+            PushbackReader reader = new PushbackReader(new InputStreamReader(decompressed, StandardCharsets.UTF_8));
+            int first = reader.read();
+            if (first == -1) {
+                throw new FileReadException("SQL input is empty: " + source);
+            }
+            if (first != BYTE_ORDER_MARK) {
+                reader.unread(first);
+            }
+
+            return reader;
+
+        } catch (IOException e) {
+            throw new FileReadException("Error reading SQL input: " + source, e);
+        }
+    }
+
+    public static boolean isStdin(String source) {
+        return STDIN.equals(source);
+    }
+
+    // Entradas que no se pueden mapear y deben leerse con openSql: stdin, los dumps comprimidos o de
+    // pg_dump -Fc y los .sql de más de 2 GB, como un pg_dump completo en texto plano
+    public static boolean isStream(String source) {
+        return isStream(source, MAX_MAPPED_SIZE);
+    }
+
+    // maxMappedSize: desde qué tamaño un .sql se lee como flujo; los tests lo bajan para no crear archivos de 2 GB
+    static boolean isStream(String source, long maxMappedSize) {
+        String lowerCase = source.toLowerCase();
+        if (STDIN.equals(source) || lowerCase.endsWith(".gz") || lowerCase.endsWith(".zst")
+            || lowerCase.endsWith(".dump")) {
+            return true;
+        }
+        try {
+            return Files.isRegularFile(Paths.get(source)) && Files.size(Paths.get(source)) > maxMappedSize;
+        } catch (IOException e) {
+            // mapSql informa el error al intentar leerlo
+            return false;
+        }
+    }
+
+    private static boolean isPgDumpArchive(BufferedInputStream input) throws IOException {
+        input.mark(PgDumpArchiveReader.MAGIC.length);
+        byte[] magic = input.readNBytes(PgDumpArchiveReader.MAGIC.length);
+        input.reset();
+        return Arrays.equals(magic, PgDumpArchiveReader.MAGIC);
+    }
+
+    // El formato se detecta por los magic bytes, no por la extensión, para que también funcione con stdin
+    private static InputStream decompress(BufferedInputStream input, String source) throws IOException {
+        input.mark(4);
+        byte[] magic = input.readNBytes(4);
+        input.reset();
+
+        if (magic.length >= 2 && (magic[0] & 0xFF) == 0x1F && (magic[1] & 0xFF) == 0x8B) {
+            return new GZIPInputStream(input, BUFFER_SIZE);
+        }
+        if (magic.length == 4 && (magic[0] & 0xFF) == 0x28 && (magic[1] & 0xFF) == 0xB5
+            && (magic[2] & 0xFF) == 0x2F && (magic[3] & 0xFF) == 0xFD) {
+            return new ZstdInputStream(input, source);
+        }
+        return input;
+    }
+
+    private static Path validatePath(String filePath, String... extensions) {
+        Path path = Paths.get(filePath);
+
+        // Validaciones básicas
+        if (!Files.exists(path)) {
+            throw new FileReadException("SQL file not found: " + filePath);
+        }
+
+        if (!Files.isRegularFile(path)) {
+            throw new FileReadException("Path is not a file: " + filePath);
+        }
+
+        String lowerCase = filePath.toLowerCase();
+        boolean validExtension = false;
+        for (String extension : extensions) {
+            validExtension |= lowerCase.endsWith(extension);
+        }
+        if (!validExtension) {
+            throw new FileReadException("File must have " + String.join(", ", extensions) + " extension: " + filePath);
+        }
+
+        return path;
+    }
+
+    private static boolean startsWithUtf8Bom(CharSequence content) {
+        return content.length() >= 3 && content.charAt(0) == 0xEF
+            && content.charAt(1) == 0xBB && content.charAt(2) == 0xBF;
+    }
+
+    private static boolean isBlank(CharSequence content) {
+        for (int i = 0; i < content.length(); i++) {
+            if (!Character.isWhitespace(content.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
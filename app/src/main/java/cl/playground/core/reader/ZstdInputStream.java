@@ -0,0 +1,90 @@
+package cl.playground.core.reader;
+
+import cl.playground.exception.FileReadException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Descomprime zstd delegando en el comando {@code zstd} del sistema (el JDK no trae un decodificador).
+ * Los bytes comprimidos se envían al proceso desde un hilo aparte y la salida se lee como flujo,
+ * así que nunca se guarda el dump completo ni en disco ni en memoria.
+ */
+class ZstdInputStream extends FilterInputStream {
+    private final Process process;
+    private final String source;
+    private boolean checked;
+
+    ZstdInputStream(InputStream compressed, String source) {
+        this(start(source), compressed, source);
+    }
+
+    private ZstdInputStream(Process process, InputStream compressed, String source) {
+        super(process.getInputStream());
+        this.process = process;
+        this.source = source;
+
+        Thread pump = new Thread(() -> {
+            try (compressed; OutputStream stdin = process.getOutputStream()) {
+                compressed.transferTo(stdin);
+            } catch (IOException e) {
+                // Si el proceso terminó antes, el error se informa al revisar su código de salida
+            }
+        }, "sqlift-zstd");
+        pump.setDaemon(true);
+        pump.start();
+    }
+
+    @Override
+    public int read() throws IOException {
+        int value = super.read();
+        if (value == -1) {
+            checkExitCode();
+        }
+        return value;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        int read = super.read(bytes, offset, length);
+        if (read == -1) {
+            checkExitCode();
+        }
+        return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        super.close();
+        process.destroy();
+    }
+
+    // Un dump truncado o corrupto no debe terminar como un esquema incompleto en silencio
+    private void checkExitCode() throws IOException {
+        if (checked) {
+            return;
+        }
+        checked = true;
+        try {
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new IOException("zstd exited with code " + exitCode + " while decompressing " + source);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while decompressing " + source, e);
+        }
+    }
+
+    private static Process start(String source) {
+        try {
+            return new ProcessBuilder("zstd", "-d", "-c", "-q")
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        } catch (IOException e) {
+            throw new FileReadException("Reading zstd input requires the 'zstd' command in PATH: " + source, e);
+        }
+    }
+}
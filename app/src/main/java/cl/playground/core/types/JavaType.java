@@ -0,0 +1,72 @@
+package cl.playground.core.types;
+
+/**
+ * El tipo Java de una columna, tal como lo escribe la entidad, junto con lo que el generador necesita saber del
+ * tipo de PostgreSQL del que viene: si es SERIAL y el largo de un VARCHAR. Inmutable.
+ */
+public final class JavaType {
+    private final String name;
+    private final String importStatement;
+    private final boolean serial;
+    private final Integer length;
+
+    private JavaType(String name, String importStatement, boolean serial, Integer length) {
+        this.name = name;
+        this.importStatement = importStatement;
+        this.serial = serial;
+        this.length = length;
+    }
+
+    // Un nombre calificado (java.time.OffsetDateTime) se escribe por su nombre simple y se importa; los de
+    // java.lang y los primitivos no necesitan import
+    static JavaType of(String type) {
+        int qualifiedEnd = type.length();
+        for (int i = 0; i < type.length(); i++) {
+            if (type.charAt(i) == '<' || type.charAt(i) == '[') {
+                qualifiedEnd = i;
+                break;
+            }
+        }
+        int lastDot = type.lastIndexOf('.', qualifiedEnd - 1);
+        if (lastDot < 0) {
+            return new JavaType(type, null, false, null);
+        }
+        String qualifiedName = type.substring(0, qualifiedEnd);
+        String packageName = type.substring(0, lastDot);
+        String importStatement = packageName.equals("java.lang") ? null : "import " + qualifiedName + ";";
+        return new JavaType(type.substring(lastDot + 1), importStatement, false, null);
+    }
+
+    JavaType arrayOf() {
+        return new JavaType(name + "[]", importStatement, serial, null);
+    }
+
+    JavaType withColumn(boolean serial, Integer length) {
+        return new JavaType(name, importStatement, serial, length);
+    }
+
+    // Como se escribe en la entidad, p. ej. BigDecimal o String[]
+    public String getName() {
+        return name;
+    }
+
+    // null si el tipo no necesita import
+    public String getImportStatement() {
+        return importStatement;
+    }
+
+    // La columna es SERIAL, SMALLSERIAL o BIGSERIAL: su valor lo genera la base de datos
+    public boolean isSerial() {
+        return serial;
+    }
+
+    // El largo de un VARCHAR(n); null en los demás tipos
+    public Integer getLength() {
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,205 @@
+package cl.playground.core.types;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Traduce los tipos de PostgreSQL a tipos Java. Cada tipo distinto del esquema se analiza una sola vez (nombre,
+ * precisión y escala, arreglo) y el resultado queda en una tabla hash, así las consultas siguientes son una
+ * búsqueda que no asigna memoria. Un tipo desconocido se resuelve a Object sin lanzar excepciones. sqlift.yaml
+ * puede reemplazar el tipo Java de cualquier tipo, por su nombre (jsonb) o con su precisión (numeric(10,2)).
+ */
+public class TypeResolver {
+    private static final JavaType OBJECT = JavaType.of("Object");
+    private static final Map<String, JavaType> BUILT_IN = new HashMap<>();
+
+    static {
+        // Numéricos; NUMERIC y DECIMAL dependen de su precisión y escala (ver numericType)
+        builtIn("java.lang.Long", "SERIAL", "SERIAL4", "BIGSERIAL", "SERIAL8", "INT", "BIGINT", "INT8", "OID");
+        builtIn("java.lang.Short", "SMALLSERIAL", "SERIAL2", "SMALLINT", "INT2");
+        builtIn("java.lang.Integer", "INTEGER", "INT4");
+        builtIn("java.lang.Float", "REAL", "FLOAT4");
+        builtIn("java.lang.Double", "DOUBLE", "DOUBLE PRECISION", "FLOAT8", "FLOAT");
+        builtIn("java.math.BigDecimal", "MONEY");
+
+        // Texto
+        builtIn("java.lang.String", "VARCHAR", "CHARACTER VARYING", "CHAR", "CHARACTER", "BPCHAR", "TEXT", "CITEXT",
+            "NAME", "JSON", "JSONB", "XML", "INET", "CIDR", "MACADDR", "MACADDR8", "TSVECTOR", "TSQUERY",
+            "BIT VARYING", "VARBIT");
+
+        // Fecha y tiempo
+        builtIn("java.time.LocalDate", "DATE");
+        builtIn("java.time.LocalTime", "TIME", "TIME WITHOUT TIME ZONE");
+        builtIn("java.time.OffsetTime", "TIMETZ", "TIME WITH TIME ZONE");
+        builtIn("java.time.LocalDateTime", "TIMESTAMP", "TIMESTAMP WITHOUT TIME ZONE");
+        builtIn("java.time.OffsetDateTime", "TIMESTAMPTZ", "TIMESTAMP WITH TIME ZONE");
+        builtIn("java.time.Duration", "INTERVAL");
+
+        // Booleanos, binarios y UUID
+        builtIn("java.lang.Boolean", "BOOLEAN", "BOOL");
+        builtIn("byte[]", "BYTEA");
+        builtIn("java.util.UUID", "UUID");
+    }
+
+    private final Map<String, JavaType> overrides = new HashMap<>();
+    // Los configurados, ordenados: forman parte de la clave de generación
+    private final Map<String, String> configuredOverrides;
+    private final Map<String, JavaType> resolved = new ConcurrentHashMap<>();
+
+    public TypeResolver() {
+        this(Collections.emptyMap());
+    }
+
+    // overrides: tipo de PostgreSQL -> tipo Java, simple (Double) o calificado (com.example.Money)
+    public TypeResolver(Map<String, String> overrides) {
+        Map<String, String> configured = new TreeMap<>();
+        for (Map.Entry<String, String> override : overrides.entrySet()) {
+            String key = new ParsedType(override.getKey()).key();
+            this.overrides.put(key, JavaType.of(override.getValue().trim()));
+            configured.put(key, override.getValue().trim());
+        }
+        this.configuredOverrides = Collections.unmodifiableMap(configured);
+    }
+
+    public Map<String, String> getConfiguredOverrides() {
+        return configuredOverrides;
+    }
+
+    public JavaType resolve(String postgresType) {
+        if (postgresType == null) {
+            return OBJECT;
+        }
+        JavaType type = resolved.get(postgresType);
+        return type != null ? type : resolved.computeIfAbsent(postgresType, this::analyze);
+    }
+
+    private JavaType analyze(String postgresType) {
+        ParsedType parsed = new ParsedType(postgresType);
+
+        // Primero el tipo con su precisión, después solo el nombre
+        JavaType element = overrides.get(parsed.key());
+        if (element == null) {
+            element = overrides.get(parsed.name);
+        }
+        if (element == null) {
+            element = builtInType(parsed);
+        }
+
+        boolean varying = parsed.name.equals("VARCHAR") || parsed.name.equals("CHARACTER VARYING");
+        element = element.withColumn(parsed.isSerial(), varying && parsed.precision >= 0 ? parsed.precision : null);
+        return parsed.array ? element.arrayOf() : element;
+    }
+
+    private static JavaType builtInType(ParsedType parsed) {
+        switch (parsed.name) {
+            case "NUMERIC":
+            case "DECIMAL":
+                return numericType(parsed.precision, parsed.scale);
+            case "BIT":
+                // BIT o BIT(1) es un flag; BIT(n) una cadena de bits
+                return parsed.precision <= 1 ? BUILT_IN.get("BOOL") : BUILT_IN.get("VARBIT");
+            default:
+                break;
+        }
+        // INTERVAL DAY TO SECOND y demás variantes de INTERVAL
+        if (parsed.name.startsWith("INTERVAL ")) {
+            return BUILT_IN.get("INTERVAL");
+        }
+        JavaType type = BUILT_IN.get(parsed.name);
+        return type != null ? type : OBJECT;
+    }
+
+    // Sin escala, los enteros que caben en Integer o Long; con decimales o sin precisión, BigDecimal
+    private static JavaType numericType(int precision, int scale) {
+        if (precision < 0 || scale > 0) {
+            return JavaType.of("java.math.BigDecimal");
+        }
+        if (precision <= 9) {
+            return BUILT_IN.get("INTEGER");
+        }
+        if (precision <= 18) {
+            return BUILT_IN.get("BIGINT");
+        }
+        return JavaType.of("java.math.BigInteger");
+    }
+
+    private static void builtIn(String javaType, String... postgresTypes) {
+        JavaType type = JavaType.of(javaType);
+        for (String postgresType : postgresTypes) {
+            BUILT_IN.put(postgresType, type);
+        }
+    }
+
+    // Un tipo tal como viene del esquema, separado en sus partes: NUMERIC(10, 2)[] -> NUMERIC, 10, 2, arreglo
+    private static class ParsedType {
+        private final String name;
+        private final int precision;
+        private final int scale;
+        private final boolean array;
+
+        ParsedType(String postgresType) {
+            String type = postgresType.trim().toUpperCase(Locale.ROOT);
+            boolean isArray = false;
+            while (type.endsWith("[]")) {
+                type = type.substring(0, type.length() - 2).trim();
+                isArray = true;
+            }
+            if (type.endsWith(" ARRAY")) {
+                type = type.substring(0, type.length() - " ARRAY".length()).trim();
+                isArray = true;
+            }
+
+            // La precisión puede ir en medio del nombre: TIMESTAMP(3) WITH TIME ZONE
+            int typePrecision = -1;
+            int typeScale = -1;
+            int open = type.indexOf('(');
+            int close = open < 0 ? -1 : type.indexOf(')', open);
+            if (close > open) {
+                String modifiers = type.substring(open + 1, close);
+                int comma = modifiers.indexOf(',');
+                typePrecision = parseNumber(comma < 0 ? modifiers : modifiers.substring(0, comma));
+                typeScale = comma < 0 ? -1 : parseNumber(modifiers.substring(comma + 1));
+                type = type.substring(0, open) + " " + type.substring(close + 1);
+            }
+
+            this.name = type.trim().replaceAll("\\s+", " ");
+            this.precision = typePrecision;
+            this.scale = typeScale;
+            this.array = isArray;
+        }
+
+        // El nombre con su precisión y escala, sin espacios: NUMERIC(10,2)
+        String key() {
+            if (precision < 0) {
+                return name;
+            }
+            return name + "(" + precision + (scale >= 0 ? "," + scale : "") + ")";
+        }
+
+        boolean isSerial() {
+            return name.endsWith("SERIAL") || name.equals("SERIAL2") || name.equals("SERIAL4")
+                || name.equals("SERIAL8");
+        }
+
+        // -1 si no es un número
+        private static int parseNumber(String text) {
+            String digits = text.trim();
+            if (digits.isEmpty() || digits.length() > 9) {
+                return -1;
+            }
+            int number = 0;
+            for (int i = 0; i < digits.length(); i++) {
+                char c = digits.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                number = number * 10 + (c - '0');
+            }
+            return number;
+        }
+    }
+}
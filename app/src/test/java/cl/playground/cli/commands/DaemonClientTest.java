@@ -0,0 +1,69 @@
+package cl.playground.cli.commands;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DaemonClientTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void privateSocketDirectoryTest() throws IOException {
+        Path directory = tempDir.resolve("sqlift-user");
+        DaemonClient.createPrivateDirectory(directory);
+
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(directory)));
+        assertTrue(DaemonClient.isOwnedByCurrentUser(directory));
+
+        // Un directorio que ya existe se reutiliza solo si sigue siendo privado
+        DaemonClient.createPrivateDirectory(directory);
+        Files.setPosixFilePermissions(directory, PosixFilePermissions.fromString("rwxrwxrwx"));
+        IOException e = assertThrows(IOException.class, () -> DaemonClient.createPrivateDirectory(directory));
+        assertTrue(e.getMessage().startsWith("Socket directory is accessible by other users"));
+    }
+
+    @Test
+    void symlinkedSocketDirectoryTest() throws IOException {
+        Path target = Files.createDirectory(tempDir.resolve("target"),
+            PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        Path link = Files.createSymbolicLink(tempDir.resolve("sqlift-user"), target);
+
+        assertThrows(IOException.class, () -> DaemonClient.createPrivateDirectory(link));
+    }
+
+    @Test
+    void argumentCountTest() throws IOException {
+        assertEquals(List.of("generate", "schema.sql"),
+            Arrays.asList(DaemonCommand.readArguments(request(2, "generate", "schema.sql"))));
+        assertEquals(0, DaemonCommand.readArguments(request(0)).length);
+
+        // Una cantidad negativa o enorme se rechaza sin reservar el arreglo
+        assertNull(DaemonCommand.readArguments(request(-1)));
+        assertNull(DaemonCommand.readArguments(request(Integer.MAX_VALUE)));
+        assertNull(DaemonCommand.readArguments(request(DaemonClient.MAX_ARGUMENTS + 1)));
+    }
+
+    private static DataInputStream request(int count, String... args) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(count);
+        for (String arg : args) {
+            output.writeUTF(arg);
+        }
+        return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+}
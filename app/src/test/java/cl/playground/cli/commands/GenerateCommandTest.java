@@ -0,0 +1,63 @@
+package cl.playground.cli.commands;
+
+import cl.playground.core.engine.PostgresEngine;
+import cl.playground.core.engine.SchemaProcessor;
+import cl.playground.core.generator.EntityWriter;
+import cl.playground.core.generator.factory.NamingService;
+import cl.playground.core.types.TypeResolver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenerateCommandTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void watchSurvivesIoErrorsTest() throws IOException {
+        Path schema = tempDir.resolve("schema.sql");
+        Files.writeString(schema, "CREATE TABLE item (id BIGINT PRIMARY KEY, name TEXT);");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        GenerateCommand command = new GenerateCommand(tempDir, print(out), print(err), null);
+        PostgresEngine engine = new PostgresEngine();
+        GenerationSession session = new GenerationSession(engine, new SchemaProcessor(engine, 1), new EntityWriter(1),
+            new NamingService(), new TypeResolver(), tempDir, "schema.sql", "com.example", false);
+
+        command.regenerate(session);
+        Path entity = tempDir.resolve("src/main/java/com/example/Item.java");
+        assertTrue(Files.isRegularFile(entity));
+
+        // El editor borra el archivo antes de escribir el nuevo
+        Files.delete(schema);
+        command.regenerate(session);
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("schema.sql"), err.toString(StandardCharsets.UTF_8));
+
+        // Un paquete de salida que no se puede escribir tampoco detiene la vigilancia
+        Files.writeString(schema, "CREATE TABLE item (id BIGINT PRIMARY KEY, name TEXT, price NUMERIC);");
+        Files.delete(entity);
+        Files.delete(entity.getParent());
+        Files.writeString(entity.getParent(), "no es un directorio");
+        err.reset();
+        command.regenerate(session);
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("I/O Error"), err.toString(StandardCharsets.UTF_8));
+
+        // Resuelto el problema, el siguiente cambio vuelve a generar
+        Files.delete(entity.getParent());
+        command.regenerate(session);
+        assertTrue(Files.readString(entity).contains("private BigDecimal price;"));
+    }
+
+    private static PrintStream print(ByteArrayOutputStream output) {
+        return new PrintStream(output, true, StandardCharsets.UTF_8);
+    }
+}
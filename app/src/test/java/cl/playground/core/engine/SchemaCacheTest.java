@@ -0,0 +1,70 @@
+package cl.playground.core.engine;
+
+import cl.playground.core.model.SchemaCatalog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaCacheTest {
+
+    private static final String SCHEMA = """
+        CREATE TABLE users (id BIGSERIAL PRIMARY KEY, email VARCHAR(320) NOT NULL UNIQUE, nick TEXT DEFAULT 'anon');
+        CREATE TABLE orders (id BIGINT, user_id BIGINT REFERENCES users (id), reviewer_id BIGINT REFERENCES users (id),
+            PRIMARY KEY (id, user_id));
+        """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readWhatWasWrittenTest() throws IOException {
+        Path schema = write("schema.sql", SCHEMA);
+        SchemaCache cache = new SchemaCache(tempDir.resolve(".sqlift/schema.cache"), "1.0.0");
+        long fingerprint = SchemaCache.fingerprint(schema);
+        assertNull(cache.read("schema.sql", fingerprint));
+
+        SchemaCatalog catalog = new SchemaProcessor(new PostgresEngine()).processSchema(SCHEMA);
+        cache.write("schema.sql", fingerprint, catalog);
+        SchemaCatalog cached = cache.read("schema.sql", fingerprint);
+
+        assertEquals(catalog.toString(), cached.toString());
+        assertEquals("'anon'", cached.getColumn("users", "nick").getDefaultValue());
+        assertTrue(cached.getColumn("users", "email").isUnique());
+        // Los valores compartidos siguen compartidos después de leerlos
+        assertSame(cached.getTable("users").getTableName(), cached.getTable("orders").getRelations().get(0).getTargetTable());
+    }
+
+    @Test
+    void invalidationTest() throws IOException {
+        Path schema = write("schema.sql", SCHEMA);
+        Path cacheFile = tempDir.resolve("schema.cache");
+        SchemaCatalog catalog = new SchemaProcessor(new PostgresEngine()).processSchema(SCHEMA);
+        long fingerprint = SchemaCache.fingerprint(schema);
+        new SchemaCache(cacheFile, "1.0.0").write("schema.sql", fingerprint, catalog);
+
+        // Otro contenido, otra versión de la herramienta u otro archivo no usan el caché
+        write("schema.sql", SCHEMA.replace("nick TEXT", "nick VARCHAR(30)"));
+        assertNotEquals(fingerprint, SchemaCache.fingerprint(schema));
+        assertNull(new SchemaCache(cacheFile, "1.0.0").read("schema.sql", SchemaCache.fingerprint(schema)));
+        assertNull(new SchemaCache(cacheFile, "1.1.0").read("schema.sql", fingerprint));
+        assertNull(new SchemaCache(cacheFile, "1.0.0").read("other.sql", fingerprint));
+        assertNotNull(new SchemaCache(cacheFile, "1.0.0").read("schema.sql", fingerprint));
+
+        // Un caché dañado se ignora
+        byte[] bytes = Files.readAllBytes(cacheFile);
+        Files.write(cacheFile, Arrays.copyOf(bytes, bytes.length / 2));
+        assertNull(new SchemaCache(cacheFile, "1.0.0").read("schema.sql", fingerprint));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        Path file = tempDir.resolve(name);
+        Files.writeString(file, content);
+        return file;
+    }
+}
@@ -2,11 +2,18 @@ package cl.playground.core.engine;
 
 import cl.playground.core.model.ColumnMetadata;
 import cl.playground.core.model.RelationMetadata;
+import cl.playground.core.model.SchemaCatalog;
 import cl.playground.core.model.TableMetadata;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 
 class SchemaProcessorTest {
@@ -255,4 +262,173 @@ class SchemaProcessorTest {
             System.out.println("=================================\n");
         }
     }
+
+    @Test
+    void processAlterTableConstraints() {
+        String dump = """
+            CREATE TABLE public.autores (id integer NOT NULL, nombre text);
+            CREATE TABLE public.libros (id integer NOT NULL, autor_id integer NOT NULL);
+            CREATE TABLE public.libros_2024 PARTITION OF public.libros FOR VALUES FROM (1) TO (100);
+            ALTER TABLE ONLY public.autores
+                ADD CONSTRAINT autores_pkey PRIMARY KEY (id);
+            ALTER TABLE ONLY public.libros
+                ADD CONSTRAINT libros_pkey PRIMARY KEY (id);
+            ALTER TABLE ONLY public.libros
+                ADD CONSTRAINT libros_autor_id_fkey FOREIGN KEY (autor_id) REFERENCES public.autores(id);
+            ALTER TABLE ONLY public.otra
+                ADD CONSTRAINT otra_pkey PRIMARY KEY (id);
+            """;
+
+        List<TableMetadata> tables = schemaProcessor.processSchema(dump);
+        TableMetadata autores = tables.get(0);
+        TableMetadata libros = tables.get(1);
+
+        assertEquals(List.of("id"), autores.getPrimaryKeys());
+        assertEquals(List.of("id"), libros.getPrimaryKeys());
+
+        RelationMetadata relation = libros.getRelations().get(0);
+        assertEquals("autor_id", relation.getSourceColumn());
+        assertEquals("public.autores", relation.getTargetTable());
+        assertTrue(relation.isManyToOne());
+
+        RelationMetadata inverse = autores.getRelations().get(0);
+        assertEquals("public.libros", inverse.getTargetTable());
+        assertFalse(inverse.isManyToOne());
+
+        String invalid = """
+            CREATE TABLE a (id integer);
+            ALTER TABLE ONLY a ADD CONSTRAINT a_pkey PRIMARY KEY (codigo);
+            """;
+        assertThrows(IllegalArgumentException.class, () -> new SchemaProcessor(postgresEngine).processSchema(invalid));
+    }
+
+    @Test
+    void parallelMatchesSequentialTest() {
+        // Suficientes tablas para superar el umbral secuencial, con FKs hacia atrás y hacia adelante
+        StringBuilder schema = new StringBuilder();
+        int tableCount = 2000;
+        for (int i = 0; i < tableCount; i++) {
+            schema.append("CREATE TABLE t").append(i).append(" (id BIGINT PRIMARY KEY, name TEXT NOT NULL");
+            if (i > 0) {
+                schema.append(", parent_id BIGINT REFERENCES t").append(i / 2).append(" (id)");
+            }
+            schema.append(", next_id BIGINT REFERENCES t").append((i * 7 + 3) % tableCount).append(" (id));\n");
+        }
+
+        String sequential = new SchemaProcessor(postgresEngine, 1).processSchema(schema).toString();
+        for (int parallelism : new int[]{2, 4, 16}) {
+            assertEquals(sequential, new SchemaProcessor(postgresEngine, parallelism).processSchema(schema).toString());
+        }
+
+        // Con varias tablas inválidas se informa siempre la primera, como en la ejecución secuencial
+        schema.append("CREATE TABLE bad_a (id INT, PRIMARY KEY (missing_a));\n");
+        schema.append("CREATE TABLE bad_b (id INT, PRIMARY KEY (missing_b));\n");
+        for (int parallelism : new int[]{1, 8}) {
+            IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> new SchemaProcessor(postgresEngine, parallelism).processSchema(schema));
+            assertTrue(error.getMessage().contains("missing_a"), error.getMessage());
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> new SchemaProcessor(postgresEngine, 0));
+    }
+
+    @Test
+    void reusableProcessorTest() throws Exception {
+        String schema = """
+            CREATE TABLE users (id BIGINT PRIMARY KEY);
+            CREATE TABLE orders (id BIGINT PRIMARY KEY, user_id BIGINT REFERENCES users (id));
+            ALTER TABLE orders ADD COLUMN reviewer_id BIGINT;
+            ALTER TABLE ONLY orders ADD CONSTRAINT orders_reviewer_fk FOREIGN KEY (reviewer_id) REFERENCES users (id);
+            """;
+        SchemaProcessor processor = new SchemaProcessor(postgresEngine, 4);
+        String expected = processor.processSchema(schema).toString();
+
+        // Las relaciones inversas de una llamada no se acumulan en la siguiente
+        List<TableMetadata> again = processor.processSchema(schema);
+        assertEquals(expected, again.toString());
+        assertEquals(2, again.get(0).getRelations().size());
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                results.add(executor.submit(() -> processor.processSchema(schema).toString()));
+            }
+            for (Future<String> result : results) {
+                assertEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void schemaCatalogTest() {
+        SchemaCatalog catalog = new SchemaProcessor(postgresEngine).processSchema("""
+            CREATE TABLE Users (id BIGSERIAL PRIMARY KEY, Email VARCHAR(100) NOT NULL);
+            CREATE TABLE orders (id BIGINT, user_id BIGINT REFERENCES users (id));
+            ALTER TABLE ONLY orders ADD CONSTRAINT orders_pkey PRIMARY KEY (id);
+            """);
+
+        assertEquals(2, catalog.size());
+        assertSame(catalog.get(0), catalog.getTable("users"));
+        assertTrue(catalog.containsTable("orders"));
+        assertFalse(catalog.containsTable("Users"), "El catálogo usa los nombres normalizados");
+        assertEquals("VARCHAR(100)", catalog.getColumn("users", "email").getColumnType());
+        assertNull(catalog.getColumn("users", "missing"));
+        assertNull(catalog.getColumn("missing", "id"));
+        assertSame(catalog.getColumn("orders", "user_id"), catalog.getTable("orders").getColumn("user_id"));
+
+        // El modelo es inmutable
+        TableMetadata orders = catalog.getTable("orders");
+        assertThrows(UnsupportedOperationException.class,
+            () -> orders.getColumns().add(new ColumnMetadata("total", "NUMERIC")));
+        assertThrows(UnsupportedOperationException.class, () -> orders.getRelations().clear());
+    }
+
+    @Test
+    void invalidPrimaryKeyTest() {
+        IllegalArgumentException created = assertThrows(IllegalArgumentException.class,
+            () -> new SchemaProcessor(postgresEngine).processSchema(
+                "CREATE TABLE t (a INT, b INT, PRIMARY KEY (a, c));"));
+        assertEquals("La clave primaria 'c' no coincide con ninguna columna en la tabla 't'. Columnas disponibles: a, b",
+            created.getMessage());
+
+        IllegalArgumentException altered = assertThrows(IllegalArgumentException.class,
+            () -> new SchemaProcessor(postgresEngine).processSchema("""
+                CREATE TABLE t (a INT, b INT);
+                ALTER TABLE ONLY t ADD CONSTRAINT t_pkey PRIMARY KEY (B, missing);
+                """));
+        assertTrue(altered.getMessage().startsWith("La clave primaria 'missing' no coincide"), altered.getMessage());
+    }
+
+    @Test
+    void compactModelTest() {
+        StringBuilder wide = new StringBuilder("CREATE TABLE wide (id BIGSERIAL PRIMARY KEY");
+        for (int i = 0; i < 20; i++) {
+            wide.append(", c").append(i).append(" INT");
+        }
+        wide.append(");\n");
+        SchemaCatalog catalog = new SchemaProcessor(postgresEngine).processSchema(wide + """
+            CREATE TABLE a (ID BIGSERIAL PRIMARY KEY, created_at TIMESTAMP NOT NULL DEFAULT now(), wide_id BIGINT REFERENCES wide (id));
+            CREATE TABLE b (id BIGSERIAL PRIMARY KEY, Created_At TIMESTAMP NOT NULL DEFAULT now(), wide_id BIGINT REFERENCES Wide (ID));
+            """);
+
+        TableMetadata a = catalog.getTable("a");
+        TableMetadata b = catalog.getTable("b");
+        // Columnas y relaciones declaradas igual en varias tablas son la misma instancia
+        assertSame(a.getColumn("created_at"), b.getColumn("created_at"));
+        assertSame(a.getColumn("id"), catalog.getColumn("wide", "id"));
+        assertSame(a.getRelations().get(0), b.getRelations().get(0));
+        assertSame(a.getTableName(), catalog.getTable("wide").getRelations().get(0).getTargetTable());
+        assertTrue(a.getColumn("created_at").isNotNull());
+        assertFalse(a.getColumn("created_at").isUnique());
+
+        // Tablas anchas usan el índice por nombre
+        TableMetadata wideTable = catalog.getTable("wide");
+        for (ColumnMetadata column : wideTable.getColumns()) {
+            assertSame(column, wideTable.getColumn(column.getColumnName()));
+        }
+        assertNull(wideTable.getColumn("c20"));
+    }
 }
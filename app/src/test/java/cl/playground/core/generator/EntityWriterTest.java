@@ -0,0 +1,102 @@
+package cl.playground.core.generator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityWriterTest {
+
+    private static final FileTime OLD = FileTime.fromMillis(1_000_000_000_000L);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void unchangedFilesKeepTheirTimestampTest() throws IOException {
+        Path directory = tempDir.resolve("src/main/java/com/example");
+        Path users = directory.resolve("Users.java");
+        Path orders = directory.resolve("Orders.java");
+        EntityWriter writer = new EntityWriter(1);
+
+        assertEquals(2, writer.write(sources(Map.of(users, "class Users {}", orders, "class Orders {}"))));
+        Files.setLastModifiedTime(users, OLD);
+        Files.setLastModifiedTime(orders, OLD);
+
+        // Solo se reemplaza el archivo cuyo contenido cambió
+        assertEquals(1, writer.write(sources(Map.of(users, "class Users {}", orders, "class Orders { int id; }"))));
+        assertEquals(OLD, Files.getLastModifiedTime(users));
+        assertNotEquals(OLD, Files.getLastModifiedTime(orders));
+        assertEquals("class Orders { int id; }", Files.readString(orders));
+        assertEquals(List.of("Orders.java", "Users.java"), fileNames(directory), "No quedan temporales");
+    }
+
+    @Test
+    void parallelWriteTest() throws IOException {
+        Path directory = tempDir.resolve("entities");
+        Map<Path, String> files = new LinkedHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            files.put(directory.resolve("Table" + i + ".java"), "class Table" + i + " {}");
+        }
+        EntityWriter writer = new EntityWriter(4);
+
+        assertEquals(1000, writer.write(sources(files)));
+        assertEquals(0, writer.write(sources(files)));
+        files.put(directory.resolve("Table500.java"), "class Table500 { String name; }");
+        assertEquals(1, writer.write(sources(files)));
+
+        assertEquals(1000, fileNames(directory).size());
+        for (Map.Entry<Path, String> file : files.entrySet()) {
+            assertEquals(file.getValue(), Files.readString(file.getKey()));
+        }
+    }
+
+    @Test
+    void parallelArchiveKeepsTheOrderTest() throws IOException {
+        List<Map.Entry<String, EntitySource>> entities = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String className = "Table" + i;
+            entities.add(Map.entry(className, buffer -> buffer.append("class ").append(className).append(" {}")));
+        }
+        Path sequential = tempDir.resolve("sequential.zip");
+        Path parallel = tempDir.resolve("parallel.zip");
+        writeArchive(new EntityWriter(1), sequential, entities);
+        writeArchive(new EntityWriter(4), parallel, entities);
+
+        // Generadas en paralelo, las entradas quedan en el mismo orden y con el mismo contenido
+        assertArrayEquals(Files.readAllBytes(sequential), Files.readAllBytes(parallel));
+    }
+
+    private void writeArchive(EntityWriter writer, Path file, List<Map.Entry<String, EntitySource>> entities)
+            throws IOException {
+        try (SourceArchive archive = new SourceArchive(file)) {
+            writer.write(archive, "com.example", entities);
+            archive.commit();
+        }
+    }
+
+    private Map<Path, EntitySource> sources(Map<Path, String> files) {
+        Map<Path, EntitySource> sources = new LinkedHashMap<>();
+        for (Map.Entry<Path, String> file : files.entrySet()) {
+            sources.put(file.getKey(), buffer -> buffer.append(file.getValue()));
+        }
+        return sources;
+    }
+
+    private List<String> fileNames(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+}
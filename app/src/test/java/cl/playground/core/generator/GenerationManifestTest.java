@@ -0,0 +1,105 @@
+package cl.playground.core.generator;
+
+import cl.playground.core.engine.PostgresEngine;
+import cl.playground.core.engine.SchemaProcessor;
+import cl.playground.core.model.SchemaCatalog;
+import cl.playground.core.model.TableMetadata;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenerationManifestTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void changedTablesTest() {
+        int tableCount = 3000;
+        StringBuilder schema = new StringBuilder();
+        for (int i = 0; i < tableCount; i++) {
+            schema.append("CREATE TABLE t").append(i).append(" (id BIGINT PRIMARY KEY, name TEXT");
+            if (i > 0) {
+                schema.append(", parent_id BIGINT REFERENCES t").append(i / 2).append(" (id)");
+            }
+            schema.append(");\n");
+        }
+        String original = schema.toString();
+
+        assertEquals(List.of(), changedTables(original, original));
+
+        // Una columna sin FK solo cambia su propia tabla
+        assertEquals(List.of("t10"), changedTables(original,
+            original.replace("CREATE TABLE t10 (id BIGINT PRIMARY KEY, name TEXT", "CREATE TABLE t10 (id BIGINT PRIMARY KEY, name VARCHAR(80)")));
+
+        // Una FK nueva también cambia la tabla destino, que gana un OneToMany
+        assertEquals(List.of("t7", "t2999"), changedTables(original,
+            original.replace("CREATE TABLE t2999 (id BIGINT PRIMARY KEY, name TEXT",
+                "CREATE TABLE t2999 (id BIGINT PRIMARY KEY, name TEXT, owner_id BIGINT REFERENCES t7 (id)")));
+
+        // Quitar una tabla cambia las tablas a las que apuntaba
+        assertEquals(List.of("t1499"), changedTables(original,
+            original.replace("CREATE TABLE t2999 (id BIGINT PRIMARY KEY, name TEXT, parent_id BIGINT REFERENCES t1499 (id));\n", "")));
+    }
+
+    @Test
+    void manifestTest() throws IOException {
+        Path manifestFile = tempDir.resolve(".sqlift/entities.manifest");
+        Path users = tempDir.resolve("Users.java");
+        Path orders = tempDir.resolve("Orders.java");
+        Files.writeString(users, "class Users {}");
+
+        GenerationManifest manifest = new GenerationManifest("1.0.0\ncom.example\ntrue");
+        manifest.put(users, 42L);
+        manifest.put(orders, 7L);
+        manifest.write(manifestFile);
+
+        GenerationManifest previous = GenerationManifest.read(manifestFile, "1.0.0\ncom.example\ntrue");
+        assertEquals(2, previous.size());
+        assertTrue(previous.isUpToDate(users, 42L));
+        assertFalse(previous.isUpToDate(users, 43L));
+        assertFalse(previous.isUpToDate(orders, 7L), "Un archivo borrado se vuelve a generar");
+
+        // Otra configuración de salida invalida todo el manifiesto
+        assertEquals(0, GenerationManifest.read(manifestFile, "1.0.0\ncom.example\nfalse").size());
+
+        Files.writeString(manifestFile, "SQLIFT-ENTITIES?");
+        assertEquals(0, GenerationManifest.read(manifestFile, "1.0.0\ncom.example\ntrue").size());
+    }
+
+    @Test
+    void projectRelativeTest() throws IOException {
+        // Las rutas se guardan relativas al proyecto: el manifiesto sigue valiendo si el proyecto se ve desde otra ruta
+        Path project = Files.createDirectories(tempDir.resolve("project"));
+        Path users = Files.createDirectories(project.resolve("src")).resolve("Users.java");
+        Files.writeString(users, "class Users {}");
+        GenerationManifest manifest = new GenerationManifest(project, "1.0.0\ncom.example\ntrue");
+        manifest.put(users, 42L);
+        manifest.write(project.resolve(".sqlift/entities.manifest"));
+
+        Path moved = Files.move(project, tempDir.resolve("moved"));
+        GenerationManifest previous = GenerationManifest.read(moved, moved.resolve(".sqlift/entities.manifest"),
+            "1.0.0\ncom.example\ntrue");
+        assertTrue(previous.isUpToDate(moved.resolve("src/Users.java"), 42L));
+    }
+
+    private List<String> changedTables(String before, String after) {
+        SchemaProcessor processor = new SchemaProcessor(new PostgresEngine());
+        SchemaCatalog previous = processor.processSchema(before);
+        List<String> changed = new ArrayList<>();
+        for (TableMetadata table : processor.processSchema(after)) {
+            TableMetadata old = previous.getTable(table.getTableName());
+            if (old == null || GenerationManifest.fingerprint(old) != GenerationManifest.fingerprint(table)) {
+                changed.add(table.getTableName());
+            }
+        }
+        return changed;
+    }
+}
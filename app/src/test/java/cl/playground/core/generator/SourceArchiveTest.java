@@ -0,0 +1,76 @@
+package cl.playground.core.generator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SourceArchiveTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writeSourcesJarTest() throws IOException {
+        Path jar = tempDir.resolve("build/entities-sources.jar");
+        write(jar);
+
+        List<String> names = new ArrayList<>();
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            zip.stream().forEach(entry -> names.add(entry.getName()));
+            ZipEntry users = zip.getEntry("com/example/Users.java");
+            assertEquals("class Users {}", new String(zip.getInputStream(users).readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(List.of("META-INF/MANIFEST.MF", "com/example/Users.java", "com/example/Orders.java"), names);
+
+        // El mismo contenido produce exactamente el mismo archivo
+        byte[] first = Files.readAllBytes(jar);
+        write(jar);
+        assertArrayEquals(first, Files.readAllBytes(jar));
+        assertEquals(List.of("entities-sources.jar"), fileNames(jar.getParent()));
+    }
+
+    @Test
+    void uncommittedArchiveIsDiscardedTest() throws IOException {
+        Path zip = tempDir.resolve("entities.zip");
+        write(zip);
+        byte[] previous = Files.readAllBytes(zip);
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            try (SourceArchive archive = new SourceArchive(zip)) {
+                archive.addEntity("com.example", "Users", buffer -> buffer.append("class Users { int id; }"));
+                archive.addEntity("com.example", "Users", buffer -> buffer.append("class Users {}"));
+                archive.commit();
+            }
+        });
+        // Un error deja el archivo anterior intacto y no deja temporales
+        assertArrayEquals(previous, Files.readAllBytes(zip));
+        assertEquals(List.of("entities.zip"), fileNames(tempDir));
+    }
+
+    private void write(Path file) throws IOException {
+        try (SourceArchive archive = new SourceArchive(file)) {
+            archive.addEntity("com.example", "Users", buffer -> buffer.append("class Users {}"));
+            archive.addEntity("com.example", "Orders", buffer -> buffer.append("class Orders {}"));
+            archive.commit();
+        }
+    }
+
+    private List<String> fileNames(Path directory) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> names.add(file.getFileName().toString()));
+        }
+        return names;
+    }
+}
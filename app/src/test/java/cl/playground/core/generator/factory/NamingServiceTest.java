@@ -0,0 +1,39 @@
+package cl.playground.core.generator.factory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NamingServiceTest {
+
+    @Test
+    void namesTest() {
+        NamingService naming = new NamingService();
+
+        assertEquals("OrderItem", naming.className("order_item"));
+        assertEquals("ComplexNamedTable", naming.className("Complex.named_table"));
+        assertEquals("id", naming.fieldName("id"));
+        assertEquals("customerId", naming.fieldName("customer_id"));
+        assertEquals("createdAt", naming.fieldName("CREATED_AT"));
+        assertEquals("people", naming.plural("person"));
+        assertEquals("luces", naming.plural("luz"));
+        assertEquals("ordenes", naming.plural("orden"));
+        assertEquals("products", naming.plural("products"));
+
+        // Cada identificador se convierte una sola vez
+        assertSame(naming.className("order_item"), naming.className("order_item"));
+        assertSame(naming.fieldName("customer_id"), naming.fieldName("customer_id"));
+    }
+
+    @Test
+    void configuredPluralsTest() {
+        NamingService naming = new NamingService(Map.of("Cactus", "cacti", "person", "persons"));
+
+        assertEquals("cacti", naming.plural("cactus"));
+        assertEquals("persons", naming.plural("person"));
+        assertEquals("children", naming.plural("child"));
+        assertEquals(Map.of("cactus", "cacti", "person", "persons"), naming.getConfiguredPlurals());
+    }
+}
@@ -0,0 +1,95 @@
+package cl.playground.core.generator.factory;
+
+import cl.playground.core.generator.factory.TableAnalysis.ColumnAnalysis;
+import cl.playground.core.generator.factory.TableAnalysis.RelationAnalysis;
+import cl.playground.core.model.ColumnMetadata;
+import cl.playground.core.model.RelationMetadata;
+import cl.playground.core.model.TableMetadata;
+import cl.playground.core.types.TypeResolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableAnalysisTest {
+
+    @Test
+    void analyzeTableTest() {
+        TableMetadata table = new TableMetadata("order_item",
+            List.of(
+                new ColumnMetadata("id", "SERIAL"),
+                new ColumnMetadata("order_id", "INTEGER"),
+                new ColumnMetadata("created_at", "TIMESTAMP"),
+                new ColumnMetadata("code", "VARCHAR(20)", true, true, null)),
+            List.of("id"),
+            List.of(
+                new RelationMetadata("order_id", "orders", "id", true),
+                new RelationMetadata("id", "shipment", "order_item_id", false),
+                new RelationMetadata("id", "shipment", "return_item_id", false)));
+
+        TableAnalysis analysis = new TableAnalysis(table, new NamingService(), new TypeResolver());
+
+        assertEquals("OrderItem", analysis.getClassName());
+        assertFalse(analysis.hasCompositeKey());
+        assertTrue(analysis.hasSerialPrimaryKey());
+        assertTrue(analysis.hasManyToOne());
+        assertTrue(analysis.hasOneToMany());
+        assertFalse(analysis.hasManyToOneInPrimaryKey());
+        assertTrue(analysis.hasUniqueColumns());
+        assertEquals(Set.of("import java.time.LocalDateTime;"), analysis.getTypeImports());
+
+        ColumnAnalysis id = analysis.getColumns().get(0);
+        ColumnAnalysis orderId = analysis.getColumns().get(1);
+        assertTrue(id.isPrimaryKey());
+        assertFalse(id.isForeignKey());
+        assertTrue(orderId.isForeignKey());
+        assertEquals("orderId", orderId.getFieldName());
+        assertEquals("createdAt", analysis.getColumns().get(2).getFieldName());
+        assertEquals("LocalDateTime", analysis.getColumns().get(2).getJavaType());
+        assertNull(orderId.getLength());
+        assertEquals(Integer.valueOf(20), analysis.getColumns().get(3).getLength());
+        assertSame(id, analysis.getPrimaryKeyColumns().get(0));
+
+        RelationAnalysis order = analysis.getRelations().get(0);
+        assertEquals("Orders", order.getTargetClass());
+        assertEquals("orderId", order.getFieldName());
+
+        // Dos OneToMany hacia la misma tabla declaran un solo campo
+        RelationAnalysis shipments = analysis.getRelations().get(1);
+        assertEquals("shipments", shipments.getFieldName());
+        assertEquals("orderItemId", shipments.getMappedBy());
+        assertFalse(shipments.isRepeated());
+        assertTrue(analysis.getRelations().get(2).isRepeated());
+    }
+
+    @Test
+    void compositeKeyWithMissingColumnTest() {
+        TableMetadata table = new TableMetadata("enrollment",
+            List.of(new ColumnMetadata("student_id", "INTEGER"), new ColumnMetadata("course_id", "INTEGER")),
+            List.of("student_id", "term_id"),
+            List.of(new RelationMetadata("student_id", "student", "id", true)));
+
+        TableAnalysis analysis = new TableAnalysis(table, new NamingService(), new TypeResolver());
+
+        assertTrue(analysis.hasCompositeKey());
+        assertTrue(analysis.hasManyToOneInPrimaryKey());
+        assertEquals("studentId", analysis.getPrimaryKeyColumns().get(0).getFieldName());
+        assertNull(analysis.getPrimaryKeyColumns().get(1));
+    }
+
+    @Test
+    void fieldCollisionTest() {
+        TableMetadata table = new TableMetadata("customer",
+            List.of(new ColumnMetadata("id", "SERIAL"), new ColumnMetadata("full_name", "TEXT"),
+                new ColumnMetadata("FULL_NAME", "TEXT")),
+            List.of("id"),
+            List.of());
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> new TableAnalysis(table, new NamingService(), new TypeResolver()));
+        assertEquals("En la tabla customer, la columna full_name y la columna FULL_NAME generan el mismo campo: fullName",
+            e.getMessage());
+    }
+}
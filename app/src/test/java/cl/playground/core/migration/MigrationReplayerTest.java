@@ -0,0 +1,113 @@
+package cl.playground.core.migration;
+
+import cl.playground.core.engine.PostgresEngine;
+import cl.playground.core.engine.SchemaProcessor;
+import cl.playground.core.model.TableMetadata;
+import cl.playground.core.parser.DdlScript;
+import cl.playground.exception.FileReadException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MigrationReplayerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void versionOrderTest() throws IOException {
+        Path migrations = tempDir.resolve("db/migration");
+        write(migrations.resolve("V10__c.sql"), "");
+        write(migrations.resolve("V2__b.sql"), "");
+        write(migrations.resolve("nested/V1_1__a2.sql"), "");
+        write(migrations.resolve("V1__a.sql"), "");
+        write(migrations.resolve("R__views.sql"), "CREATE TABLE nope (id INT);");
+        write(migrations.resolve("afterMigrate.sql"), "");
+        write(migrations.resolve("README.md"), "");
+
+        assertEquals(List.of("V1__a.sql", "nested/V1_1__a2.sql", "V2__b.sql", "V10__c.sql"),
+            MigrationDirectory.scan(migrations).stream().map(Migration::getName).toList());
+
+        write(migrations.resolve("V1.0__duplicate.sql"), "");
+        assertThrows(FileReadException.class, () -> MigrationDirectory.scan(migrations));
+
+        // Sin archivos V__ se ordena por ruta, como includeAll de Liquibase
+        Path changelog = tempDir.resolve("changelog");
+        write(changelog.resolve("002-orders.sql"), "");
+        write(changelog.resolve("001-users.sql"), "");
+        assertEquals(List.of("001-users.sql", "002-orders.sql"),
+            MigrationDirectory.scan(changelog).stream().map(Migration::getName).toList());
+    }
+
+    @Test
+    void snapshotTest() throws IOException {
+        Path migrations = tempDir.resolve("migrations");
+        Path snapshot = tempDir.resolve(".sqlift/migrations.snapshot");
+        write(migrations.resolve("V1__users.sql"), "CREATE TABLE users (id BIGINT PRIMARY KEY, name TEXT);");
+        write(migrations.resolve("V2__orders.sql"), """
+            CREATE TABLE orders (id BIGINT PRIMARY KEY, user_id BIGINT);
+            ALTER TABLE ONLY orders ADD CONSTRAINT orders_user_fk FOREIGN KEY (user_id) REFERENCES users (id);
+            """);
+
+        MigrationReplayer replayer = new MigrationReplayer(new PostgresEngine(), snapshot);
+        replayer.replay(migrations);
+        assertEquals(2, replayer.getReplayed());
+        assertTrue(Files.exists(snapshot));
+
+        replayer.replay(migrations);
+        assertEquals(0, replayer.getReplayed());
+        assertEquals(2, replayer.getTotal());
+
+        write(migrations.resolve("V3__drop_name.sql"), "ALTER TABLE users DROP COLUMN name, ADD COLUMN email TEXT;");
+        DdlScript incremental = replayer.replay(migrations);
+        assertEquals(1, replayer.getReplayed());
+        assertEquals(replayFromScratch(migrations).toString(), process(incremental).toString());
+
+        // Un checkout cambia las fechas pero no el contenido: el snapshot sigue sirviendo
+        Files.setLastModifiedTime(migrations.resolve("V1__users.sql"), FileTime.fromMillis(0));
+        replayer.replay(migrations);
+        assertEquals(0, replayer.getReplayed());
+
+        // Una migración ya aplicada que cambió invalida el snapshot
+        write(migrations.resolve("V1__users.sql"), "CREATE TABLE users (id BIGINT PRIMARY KEY, nick TEXT);");
+        List<TableMetadata> tables = process(replayer.replay(migrations));
+        assertEquals(3, replayer.getReplayed());
+        assertEquals("nick", tables.get(0).getColumns().get(1).getColumnName());
+        assertEquals("users", tables.get(1).getRelations().get(0).getTargetTable());
+    }
+
+    @Test
+    void corruptSnapshotTest() throws IOException {
+        Path migrations = tempDir.resolve("migrations");
+        Path snapshot = tempDir.resolve("migrations.snapshot");
+        write(migrations.resolve("V1__users.sql"), "CREATE TABLE users (id BIGINT PRIMARY KEY);");
+        write(snapshot, "SQLIFT-MIGRATIONS but not really");
+
+        MigrationReplayer replayer = new MigrationReplayer(new PostgresEngine(), snapshot);
+        assertEquals(1, replayer.replay(migrations).getCreateTables().size());
+        assertEquals(1, replayer.getReplayed());
+
+        replayer.replay(migrations);
+        assertEquals(0, replayer.getReplayed(), "El snapshot dañado se reemplaza por uno válido");
+    }
+
+    private List<TableMetadata> replayFromScratch(Path migrations) {
+        return process(new MigrationReplayer(new PostgresEngine(), tempDir.resolve("fresh.snapshot")).replay(migrations));
+    }
+
+    private List<TableMetadata> process(DdlScript script) {
+        return new SchemaProcessor(new PostgresEngine()).processSchema(script);
+    }
+
+    private void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+}
@@ -0,0 +1,124 @@
+package cl.playground.core.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DdlCatalogTest {
+
+    private final String[] MIGRATIONS = {
+        """
+        CREATE TABLE public.users (
+            id BIGSERIAL PRIMARY KEY,
+            Email VARCHAR(100) NOT NULL UNIQUE,
+            legacy TEXT
+        );
+        CREATE TABLE orders (
+            id BIGINT,
+            user_id BIGINT REFERENCES users (id),
+            CONSTRAINT orders_pk PRIMARY KEY (id)
+        );
+        CREATE TABLE audit (id INT PRIMARY KEY, order_id INT REFERENCES orders (id));
+        """,
+        """
+        ALTER TABLE users DROP COLUMN legacy, ADD COLUMN name TEXT DEFAULT 'n/a';
+        ALTER TABLE users ALTER COLUMN email TYPE VARCHAR(320), ALTER COLUMN name SET NOT NULL;
+        ALTER TABLE orders RENAME COLUMN user_id TO owner_id;
+        ALTER TABLE public.users RENAME TO accounts;
+        CREATE TABLE IF NOT EXISTS orders (id INT);
+        """,
+        """
+        ALTER TABLE orders DROP CONSTRAINT orders_user_id_fkey;
+        ALTER TABLE orders ADD CONSTRAINT orders_owner_fk FOREIGN KEY (owner_id) REFERENCES accounts (id);
+        ALTER TABLE accounts DROP CONSTRAINT users_email_key;
+        DROP TABLE audit;
+        ALTER TABLE audit ADD COLUMN ignored INT;
+        """
+    };
+
+    @Test
+    void replayTest() {
+        DdlCatalog catalog = replay(MIGRATIONS);
+
+        assertEquals(2, catalog.size());
+        CreateTableStatement accounts = catalog.getTable("accounts");
+        assertEquals("public.accounts", accounts.getTableName(), "El esquema se conserva al renombrar");
+        assertSame(accounts, catalog.getTable("PUBLIC.Accounts"));
+        assertEquals(List.of("id", "email", "name"), accounts.getColumns().stream().map(ColumnDefinition::getName).toList());
+        assertEquals("VARCHAR(320)", accounts.getColumns().get(1).getType());
+        assertFalse(accounts.getColumns().get(1).isUnique());
+        assertTrue(accounts.getColumns().get(2).isNotNull());
+        assertEquals("'n/a'", accounts.getColumns().get(2).getDefaultValue());
+        assertEquals(List.of("id"), accounts.getPrimaryKeys());
+
+        CreateTableStatement orders = catalog.getTable("orders");
+        assertEquals(2, orders.getColumns().size(), "CREATE TABLE IF NOT EXISTS no reemplaza la tabla");
+        assertEquals(List.of("id"), orders.getPrimaryKeys());
+        assertEquals(1, orders.getForeignKeys().size());
+        ForeignKeyDefinition foreignKey = orders.getForeignKeys().get(0);
+        assertEquals(List.of("owner_id"), foreignKey.getSourceColumns());
+        assertEquals("accounts", foreignKey.getTargetTable());
+
+        DdlScript script = catalog.toScript();
+        assertEquals(2, script.getCreateTables().size());
+        assertEquals("public.accounts", orders.getForeignKeys().get(0).getTargetTable(),
+            "Las FKs apuntan al nombre con que se creó la tabla");
+    }
+
+    @Test
+    void dropCascadesTest() {
+        DdlCatalog catalog = replay("""
+            CREATE TABLE a (id INT PRIMARY KEY, code INT UNIQUE);
+            CREATE TABLE b (id INT PRIMARY KEY, a_id INT REFERENCES a, a_code INT,
+                FOREIGN KEY (a_code) REFERENCES a (code));
+            CREATE TABLE c (id INT, b_id INT CONSTRAINT c_b REFERENCES b (id));
+            """, """
+            ALTER TABLE a DROP COLUMN id;
+            DROP TABLE b;
+            """);
+
+        assertNull(catalog.getTable("b"));
+        assertTrue(catalog.getTable("a").getPrimaryKeys().isEmpty());
+        assertTrue(catalog.getTable("c").getForeignKeys().isEmpty());
+        assertNull(catalog.getTable("c").getColumns().get(1).getReferences());
+
+        DdlCatalog renamed = replay("""
+            CREATE TABLE a (id INT CONSTRAINT a_id_pk PRIMARY KEY);
+            ALTER TABLE a RENAME CONSTRAINT a_id_pk TO a_pkey2;
+            ALTER TABLE a DROP CONSTRAINT a_pkey2;
+            """);
+        assertTrue(renamed.getTable("a").getPrimaryKeys().isEmpty());
+        assertFalse(renamed.getTable("a").getColumns().get(0).isPrimaryKey());
+    }
+
+    @Test
+    void writeAndReadTest() throws IOException {
+        DdlCatalog catalog = replay(MIGRATIONS);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        catalog.write(new DataOutputStream(bytes));
+
+        DdlCatalog restored = DdlCatalog.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(catalog.toScript().getCreateTables().toString(), restored.toScript().getCreateTables().toString());
+        assertEquals(List.of("id"), restored.getTable("orders").getPrimaryKeys());
+
+        // Las FKs restauradas siguen enlazadas con su restricción: se pueden borrar por nombre
+        restored.apply(new DdlParser("ALTER TABLE orders DROP CONSTRAINT orders_owner_fk;").parse());
+        assertTrue(restored.getTable("orders").getForeignKeys().isEmpty());
+    }
+
+    private DdlCatalog replay(String... migrations) {
+        DdlCatalog catalog = new DdlCatalog();
+        for (String migration : migrations) {
+            catalog.apply(new DdlParser(migration).parse());
+        }
+        return catalog;
+    }
+}
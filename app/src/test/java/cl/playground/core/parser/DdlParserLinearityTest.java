@@ -0,0 +1,231 @@
+package cl.playground.core.parser;
+
+import cl.playground.core.engine.PostgresEngine;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Entradas adversarias (identificadores largos, paréntesis profundos, ';' dentro de literales y
+ * cuerpos $$) para asegurar que el parseo crece linealmente con el tamaño de la entrada.
+ */
+class DdlParserLinearityTest {
+
+    private static final int BASE_SIZE = 50_000;
+    private static final int GROWTH = 16;
+    // Un crecimiento cuadrático daría GROWTH^2 = 256; lineal con ruido de JIT/GC queda muy por debajo
+    private static final double TOLERANCE = 4.0;
+    private static final int RUNS = 7;
+    private static final Duration DEADLINE = Duration.ofSeconds(10);
+
+    private final PostgresEngine engine = new PostgresEngine();
+
+    @Test
+    void longIdentifiersTest() {
+        assertLinear("identificadores largos", n -> "CREATE TABLE " + "t".repeat(n) + " (\n    "
+            + "c".repeat(n) + " VARCHAR(10) NOT NULL,\n    \"" + "q\"\"".repeat(n / 3) + "\" INTEGER PRIMARY KEY\n);\n");
+    }
+
+    @Test
+    void qualifiedNamesTest() {
+        assertLinear("nombres calificados", n -> "CREATE TABLE " + "s.".repeat(n / 2) + "t (id INTEGER);\n");
+    }
+
+    @Test
+    void deepParenthesesTest() {
+        assertLinear("paréntesis profundos", n -> "CREATE TABLE t (\n    id INTEGER DEFAULT "
+            + "(".repeat(n) + "1" + ")".repeat(n) + " CHECK " + "(".repeat(n) + "id > 0" + ")".repeat(n) + "\n);\n");
+    }
+
+    @Test
+    void unbalancedParenthesesTest() {
+        assertLinear("paréntesis sin cerrar", n -> "CREATE TABLE t (id INTEGER CHECK " + "(".repeat(n) + ";\n"
+            + "CREATE TABLE u (a INTEGER, b " + "x ".repeat(n) + "\n");
+    }
+
+    @Test
+    void semicolonsInLiteralsTest() {
+        assertLinear("';' en literales", n -> "CREATE TABLE t (\n    a TEXT DEFAULT '" + "x;''".repeat(n / 4) + "',\n"
+            + "    b TEXT DEFAULT E'" + "\\\\;\\';".repeat(n / 6) + "',\n    \"c;\" INTEGER\n);\n");
+    }
+
+    @Test
+    void dollarQuotedBodiesTest() {
+        assertLinear("cuerpos $$", n -> "CREATE FUNCTION f() RETURNS void AS $fn$\n"
+            + "CREATE TABLE fake (id INT); $f$ $fn ".repeat(n / 40) + "\n$fn$ LANGUAGE sql;\n"
+            + "CREATE TABLE t (id INTEGER DEFAULT $$" + ";$".repeat(n / 2) + "$$);\n"
+            + "$" + "a".repeat(n) + " $1 $2$ " + "$x".repeat(n / 2) + "\n");
+    }
+
+    @Test
+    void commentsTest() {
+        assertLinear("comentarios", n -> "/*".repeat(n / 4) + "*/".repeat(n / 4) + "\n"
+            + "-- CREATE TABLE x (\n".repeat(n / 20) + "CREATE TABLE t (id INTEGER /* ; */ -- ;\n);\n"
+            + "/* sin cerrar " + "CREATE TABLE y (id INT);".repeat(n / 24));
+    }
+
+    @Test
+    void dataSectionsTest() {
+        assertLinear("secciones de datos", n -> "CREATE TABLE t (id INTEGER);\nCOPY t (id, note) FROM stdin;\n"
+            + "1\tit's ( $$ \"\n".repeat(n / 16) + "\\.\n"
+            + "INSERT INTO t VALUES (1, '" + "x;''(".repeat(n / 5) + "');\n"
+            + "COMMENT ON TABLE t IS '" + ";".repeat(n) + "';\n"
+            + "CREATE FUNCTION f() RETURNS void AS $$" + " ; ".repeat(n / 3) + "$$ LANGUAGE sql;\n");
+    }
+
+    @Test
+    void wideTablesTest() {
+        assertLinear("tablas anchas", n -> {
+            StringBuilder sql = new StringBuilder("CREATE TABLE wide (\n");
+            for (int i = 0; i < n / 40; i++) {
+                sql.append("    col_").append(i).append(" INTEGER NOT NULL REFERENCES other (id),\n");
+            }
+            sql.append("    PRIMARY KEY (");
+            for (int i = 0; i < n / 40; i++) {
+                sql.append(i > 0 ? ", " : "").append("col_").append(i);
+            }
+            return sql.append(")\n);\n").toString();
+        });
+    }
+
+    @Test
+    void manyStatementsTest() {
+        assertLinear("muchas sentencias", n -> {
+            StringBuilder sql = new StringBuilder();
+            for (int i = 0; i < n / 100; i++) {
+                sql.append("CREATE TABLE t").append(i).append(" (id SERIAL PRIMARY KEY, ref_id INT, ")
+                    .append("FOREIGN KEY (ref_id) REFERENCES t0 (id));\nCREATE CREATE INDEX;\n");
+            }
+            return sql.toString();
+        });
+    }
+
+    @Test
+    void randomizedSchemaTest() {
+        Random random = new Random(20241018L);
+
+        for (int iteration = 0; iteration < 200; iteration++) {
+            int tables = 1 + random.nextInt(6);
+            StringBuilder sql = new StringBuilder();
+            for (int t = 0; t < tables; t++) {
+                sql.append(randomNoise(random));
+                sql.append("CREATE TABLE table_").append(t).append(" (\n");
+                int columns = 1 + random.nextInt(5);
+                for (int c = 0; c < columns; c++) {
+                    sql.append("    col_").append(c).append(' ').append(randomType(random))
+                        .append(randomColumnTail(random)).append(c < columns - 1 ? ",\n" : "\n");
+                }
+                sql.append(");\n");
+            }
+            sql.append(randomNoise(random));
+
+            String schema = sql.toString();
+            List<CreateTableStatement> statements = assertTimeoutPreemptively(DEADLINE,
+                () -> engine.parseCreateTableStatements(schema));
+
+            assertEquals(tables, statements.size(), () -> "Tablas no detectadas en:\n" + schema);
+            int previousEnd = 0;
+            for (int t = 0; t < tables; t++) {
+                CreateTableStatement statement = statements.get(t);
+                assertEquals("table_" + t, statement.getTableName());
+                assertTrue(statement.getStart() >= previousEnd && statement.getEnd() <= schema.length());
+                previousEnd = statement.getEnd();
+                statement.getColumns().forEach(column -> assertTrue(column.getName().startsWith("col_"),
+                    () -> "Columna inesperada " + column + " en:\n" + schema));
+            }
+        }
+    }
+
+    @Test
+    void randomBytesTest() {
+        Random random = new Random(42L);
+        String alphabet = "abcXYZ_019 \n\t'\"$;,.()[]-/*E\\:";
+
+        for (int iteration = 0; iteration < 500; iteration++) {
+            StringBuilder sql = new StringBuilder(random.nextBoolean() ? "CREATE TABLE t (" : "");
+            int length = random.nextInt(2_000);
+            for (int i = 0; i < length; i++) {
+                sql.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            String schema = sql.toString();
+            assertTimeoutPreemptively(DEADLINE, () -> {
+                for (CreateTableStatement statement : engine.parseCreateTableStatements(schema)) {
+                    engine.extractPrimaryKeyColumns(statement);
+                    engine.extractTableRelations(statement);
+                    assertTrue(statement.getEnd() <= schema.length());
+                }
+            });
+        }
+    }
+
+    private void assertLinear(String scenario, IntFunction<String> generator) {
+        String small = generator.apply(BASE_SIZE);
+        String large = generator.apply(BASE_SIZE * GROWTH);
+
+        // Calentar el JIT con ambos tamaños antes de medir
+        for (int i = 0; i < RUNS * 4; i++) {
+            parse(small);
+        }
+        assertTimeoutPreemptively(DEADLINE, () -> parse(large));
+
+        long smallTime = Math.max(measure(small), 1);
+        long largeTime = assertTimeoutPreemptively(DEADLINE, () -> measure(large));
+        double sizeRatio = (double) large.length() / small.length();
+        double timeRatio = (double) largeTime / smallTime;
+
+        System.out.printf("%s: %d chars -> %.2f ms, %d chars -> %.2f ms (x%.1f)%n",
+            scenario, small.length(), smallTime / 1e6, large.length(), largeTime / 1e6, timeRatio);
+
+        assertTrue(timeRatio <= sizeRatio * TOLERANCE, String.format(
+            "El parseo de '%s' no es lineal: la entrada creció x%.1f y el tiempo x%.1f",
+            scenario, sizeRatio, timeRatio));
+    }
+
+    private long measure(String sql) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            // Partir sin basura de la corrida anterior para no medir el GC
+            System.gc();
+            long start = System.nanoTime();
+            parse(sql);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private int parse(String sql) {
+        int count = 0;
+        for (CreateTableStatement statement : engine.parseCreateTableStatements(sql)) {
+            count += engine.extractPrimaryKeyColumns(statement).size();
+            count += engine.extractTableRelations(statement).size();
+        }
+        return count;
+    }
+
+    private String randomType(Random random) {
+        String[] types = {"INTEGER", "SERIAL", "VARCHAR(100)", "NUMERIC(10, 2)", "TEXT[]", "TIMESTAMP WITH TIME ZONE",
+            "DOUBLE PRECISION", "UUID", "VARCHAR(20) ARRAY[3]"};
+        return types[random.nextInt(types.length)];
+    }
+
+    private String randomColumnTail(Random random) {
+        String[] tails = {"", " NOT NULL", " UNIQUE", " DEFAULT 'a;b)c'", " DEFAULT $q$ ); $q$",
+            " DEFAULT ((1 + (2)))", " CHECK (length(x) > 0 OR x IS NOT NULL)", " /* ; ) */", " -- ; )\n",
+            " REFERENCES other (id) ON DELETE CASCADE", " DEFAULT E'\\';'", " DEFAULT now()"};
+        return tails[random.nextInt(tails.length)];
+    }
+
+    private String randomNoise(Random random) {
+        String[] noise = {"", "-- CREATE TABLE nope (\n", "/* CREATE TABLE nope (id INT); */\n",
+            "COMMENT ON TABLE x IS 'CREATE TABLE nope (id INT);';\n",
+            "CREATE FUNCTION f() RETURNS int AS $$ SELECT 1; CREATE TABLE nope (id INT); $$ LANGUAGE sql;\n",
+            "INSERT INTO x VALUES ('(', ';', $$ ) $$);\n", "CREATE INDEX idx ON x (a);\n"};
+        return noise[random.nextInt(noise.length)];
+    }
+}
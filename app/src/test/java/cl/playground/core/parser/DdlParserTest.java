@@ -0,0 +1,217 @@
+package cl.playground.core.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DdlParserTest {
+
+    private final String TEST_SCHEMA = """
+        -- CREATE TABLE comentada (no debe procesarse);
+        /* CREATE TABLE bloque ( id INT ); /* anidado */ */
+        CREATE TABLE IF NOT EXISTS public.users (
+            id BIGSERIAL PRIMARY KEY,
+            unique_code VARCHAR(20) NOT NULL UNIQUE,
+            notes TEXT DEFAULT 'a; b, (c)',
+            is_default BOOLEAN DEFAULT false,
+            score NUMERIC(10, 2) DEFAULT -1.5 CHECK (score IS NOT NULL),
+            tags TEXT[]
+        );
+
+        CREATE FUNCTION touch() RETURNS trigger AS $body$
+        BEGIN
+            EXECUTE 'CREATE TABLE fake (id INT);';
+        END;
+        $body$ LANGUAGE plpgsql;
+
+        CREATE UNLOGGED TABLE "Order Lines" (
+            "order.id" INTEGER NOT NULL REFERENCES orders (id),
+            product_id INT CONSTRAINT fk_product REFERENCES products(id) ON DELETE CASCADE,
+            quantity INTEGER DEFAULT nextval('seq'::regclass),
+            CONSTRAINT pk_lines PRIMARY KEY ("order.id", product_id),
+            FOREIGN KEY (product_id) REFERENCES public.products (id)
+        );
+        """;
+
+    @Test
+    void parseCreateTablesTest() {
+        List<CreateTableStatement> statements = new DdlParser(TEST_SCHEMA).parseCreateTables();
+
+        assertEquals(2, statements.size(), "Solo deben detectarse las CREATE TABLE reales");
+
+        CreateTableStatement users = statements.get(0);
+        assertEquals("public.users", users.getTableName());
+        assertTrue(users.getText().startsWith("CREATE TABLE IF NOT EXISTS"));
+        assertTrue(users.getText().endsWith(");"));
+        assertEquals(List.of("id", "unique_code", "notes", "is_default", "score", "tags"),
+            users.getColumns().stream().map(ColumnDefinition::getName).toList());
+        assertEquals(List.of("id"), users.getPrimaryKeys());
+
+        ColumnDefinition uniqueCode = users.getColumns().get(1);
+        assertEquals("VARCHAR(20)", uniqueCode.getType());
+        assertTrue(uniqueCode.isNotNull());
+        assertTrue(uniqueCode.isUnique());
+
+        assertEquals("'a; b, (c)'", users.getColumns().get(2).getDefaultValue());
+        assertEquals("false", users.getColumns().get(3).getDefaultValue());
+
+        ColumnDefinition score = users.getColumns().get(4);
+        assertEquals("NUMERIC(10, 2)", score.getType());
+        assertEquals("-1.5", score.getDefaultValue());
+        assertFalse(score.isNotNull(), "El NOT NULL dentro de CHECK no aplica a la columna");
+
+        assertEquals("TEXT[]", users.getColumns().get(5).getType());
+    }
+
+    @Test
+    void parseConstraintsTest() {
+        CreateTableStatement lines = new DdlParser(TEST_SCHEMA).parseCreateTables().get(1);
+
+        assertEquals("Order Lines", lines.getTableName());
+        assertEquals(List.of("order_id", "product_id"), lines.getPrimaryKeys());
+        assertEquals("nextval('seq'::regclass)", lines.getColumns().get(2).getDefaultValue());
+
+        List<ForeignKeyDefinition> foreignKeys = lines.getForeignKeys();
+        assertEquals(3, foreignKeys.size());
+        assertEquals(List.of("order_id"), foreignKeys.get(0).getSourceColumns());
+        assertEquals("orders", foreignKeys.get(0).getTargetTable());
+        assertEquals("products", foreignKeys.get(1).getTargetTable());
+        assertEquals("public.products", foreignKeys.get(2).getTargetTable());
+        assertEquals(List.of("id"), foreignKeys.get(2).getTargetColumns());
+
+        assertEquals(2, lines.getConstraints().size());
+        assertEquals(TableConstraint.Kind.PRIMARY_KEY, lines.getConstraints().get(0).getKind());
+        assertEquals("pk_lines", lines.getConstraints().get(0).getName());
+    }
+
+    @Test
+    void skipDataSectionsTest() {
+        String dump = """
+            CREATE TABLE public.a (id integer NOT NULL);
+            COPY public.a (id, note) FROM stdin;
+            1\tit's ( CREATE TABLE fake (id INT);
+            2\t$$ "unbalanced
+            \\.
+            INSERT INTO public.a VALUES (3, 'CREATE TABLE fake2 (x INT); '' $$');
+            COMMENT ON TABLE public.a IS 'tabla ''a''; CREATE TABLE fake3 (y INT);';
+            CREATE OR REPLACE FUNCTION public.f() RETURNS void LANGUAGE plpgsql AS $_$
+            BEGIN CREATE TABLE fake4 (z INT); END; $_$;
+            COPY public.a TO '/tmp/a.csv';
+            CREATE TABLE public.b (id integer PRIMARY KEY, a_id integer REFERENCES public.a (id));
+            """;
+
+        List<CreateTableStatement> statements = new DdlParser(dump).parseCreateTables();
+
+        assertEquals(List.of("public.a", "public.b"),
+            statements.stream().map(CreateTableStatement::getTableName).toList());
+        assertEquals("public.a", statements.get(1).getForeignKeys().get(0).getTargetTable());
+    }
+
+    @Test
+    void parseAlterTableTest() {
+        String dump = """
+            ALTER TABLE public.a OWNER TO postgres;
+            ALTER TABLE ONLY public.a
+                ADD CONSTRAINT a_pkey PRIMARY KEY (id);
+            ALTER TABLE IF EXISTS ONLY "Order Lines"
+                ADD COLUMN note TEXT DEFAULT 'x, y',
+                ADD CONSTRAINT fk_a FOREIGN KEY ("a.id") REFERENCES public.a(id) ON DELETE CASCADE,
+                ADD CONSTRAINT uq_note UNIQUE (note);
+            ALTER TABLE ONLY public.a ALTER COLUMN id SET DEFAULT nextval('a_id_seq'::regclass);
+            """;
+
+        List<AlterTableStatement> statements = new DdlParser(dump).parse().getAlterTables();
+
+        assertEquals(3, statements.size(), "OWNER TO no cambia la estructura y no se conserva");
+        assertEquals("public.a", statements.get(0).getTableName());
+        assertEquals(TableConstraint.Kind.PRIMARY_KEY, statements.get(0).getConstraints().get(0).getKind());
+        assertEquals(List.of("id"), statements.get(0).getConstraints().get(0).getColumns());
+
+        AlterTableStatement lines = statements.get(1);
+        assertEquals("Order Lines", lines.getTableName());
+        assertEquals(2, lines.getConstraints().size());
+        ForeignKeyDefinition foreignKey = lines.getConstraints().get(0).getForeignKey();
+        assertEquals(List.of("a_id"), foreignKey.getSourceColumns());
+        assertEquals("public.a", foreignKey.getTargetTable());
+        assertEquals(TableConstraint.Kind.UNIQUE, lines.getConstraints().get(1).getKind());
+        assertEquals(AlterTableAction.Kind.ADD_COLUMN, lines.getActions().get(0).getKind());
+        assertEquals("'x, y'", lines.getActions().get(0).getColumn().getDefaultValue());
+
+        AlterTableAction setDefault = statements.get(2).getActions().get(0);
+        assertEquals(AlterTableAction.Kind.SET_DEFAULT, setDefault.getKind());
+        assertEquals("nextval('a_id_seq'::regclass)", setDefault.getValue());
+    }
+
+    @Test
+    void parseMigrationStatementsTest() {
+        String migration = """
+            ALTER TABLE users
+                DROP COLUMN IF EXISTS legacy CASCADE,
+                ALTER COLUMN email SET DATA TYPE VARCHAR(320) USING email::varchar,
+                ALTER name SET NOT NULL,
+                ALTER COLUMN name DROP DEFAULT,
+                RENAME CONSTRAINT "users-pk" TO users_pkey;
+            ALTER TABLE users RENAME COLUMN "user.name" TO full_name;
+            ALTER TABLE IF EXISTS public.users RENAME TO accounts;
+            DROP TABLE IF EXISTS old_a, public.old_b CASCADE;
+            DROP INDEX idx_users;
+            """;
+
+        DdlScript script = new DdlParser(migration).parse();
+
+        assertEquals(4, script.getStatements().size());
+        List<AlterTableAction> actions = script.getAlterTables().get(0).getActions();
+        assertEquals(List.of(AlterTableAction.Kind.DROP_COLUMN, AlterTableAction.Kind.ALTER_COLUMN_TYPE,
+                AlterTableAction.Kind.SET_NOT_NULL, AlterTableAction.Kind.DROP_DEFAULT, AlterTableAction.Kind.RENAME_CONSTRAINT),
+            actions.stream().map(AlterTableAction::getKind).toList());
+        assertEquals("legacy", actions.get(0).getName());
+        assertEquals("VARCHAR(320)", actions.get(1).getValue());
+        assertEquals("users-pk", actions.get(4).getName(), "Los nombres de restricciones no se limpian");
+
+        AlterTableAction renameColumn = script.getAlterTables().get(1).getActions().get(0);
+        assertEquals("user_name", renameColumn.getName());
+        assertEquals("full_name", renameColumn.getValue());
+        assertEquals("accounts", script.getAlterTables().get(2).getActions().get(0).getValue());
+
+        assertEquals(List.of("old_a", "public.old_b"), script.getDropTables().get(0).getTableNames());
+    }
+
+    @Test
+    void parseColumnDefinitionTest() {
+        ColumnDefinition column = new DdlParser("precio DECIMAL(10,2) NOT NULL DEFAULT 0").parseColumnDefinition();
+
+        assertNotNull(column);
+        assertEquals("precio", column.getName());
+        assertEquals("DECIMAL(10,2)", column.getType());
+        assertTrue(column.isNotNull());
+        assertEquals("0", column.getDefaultValue());
+
+        assertNull(new DdlParser("PRIMARY KEY (id)").parseColumnDefinition(),
+            "Una restricción de tabla no es una columna");
+    }
+
+    @Test
+    void parseMultiWordTypesTest() {
+        assertEquals("CHARACTER VARYING(100)", type("nombre character varying(100) NOT NULL"));
+        assertEquals("TIMESTAMP(3) WITH TIME ZONE", type("creado timestamp(3) with time zone DEFAULT now()"));
+        assertEquals("TIME WITHOUT TIME ZONE", type("hora time without time zone"));
+        assertEquals("DOUBLE PRECISION", type("total double precision"));
+        assertEquals("INTERVAL DAY TO SECOND", type("duracion interval day to second"));
+        assertEquals("CHAR", type("letra \"char\" NOT NULL"));
+        assertEquals("VARCHAR(20)[]", type("tags varchar(20)[]"));
+    }
+
+    private String type(String columnDefinition) {
+        return new DdlParser(columnDefinition).parseColumnDefinition().getType();
+    }
+
+    @Test
+    void cleanIdentifierTest() {
+        assertEquals("user_id", DdlParser.cleanIdentifier("user.id"));
+        assertEquals("special_column", DdlParser.cleanIdentifier("special-column"));
+        assertEquals("a_b", DdlParser.cleanIdentifier("__a..b__"));
+        assertEquals("plain_name", DdlParser.cleanIdentifier("plain_name"));
+    }
+}
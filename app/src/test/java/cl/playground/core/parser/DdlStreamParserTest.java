@@ -0,0 +1,154 @@
+package cl.playground.core.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DdlStreamParserTest {
+
+    private static final String[] RESOURCES = {"alumnos.sql", "impossible.sql", "impossible2.sql", "schema.sql",
+        "schema2.sql", "schema3.sql", "tenant.sql"};
+
+    private final String TEST_SCHEMA = """
+        INSERT INTO x VALUES ('CREATE TABLE nope (id INT);', $$ ; $$);
+        /* CREATE TABLE bloque ( id INT ); /* anidado */ */
+        CREATE TABLE users (
+            id BIGSERIAL PRIMARY KEY,
+            notes TEXT DEFAULT E'a\\'; b',
+            "Weird ""name""\" VARCHAR(20) --; comentario
+        );
+        CREATE FUNCTION f() RETURNS int AS $body$ CREATE TABLE fake (id INT); $body$ LANGUAGE sql;
+        CREATE INDEX idx ON users (id); CREATE TABLE orders (id INT, user_id INT REFERENCES users (id))
+        """;
+
+    private final String FULL_DUMP = """
+        CREATE TABLE public.a (id integer NOT NULL);
+        COPY public.a (id, note) FROM stdin;
+        1\tit's ( CREATE TABLE fake (id INT);
+        2\t$$ "unbalanced
+        \\.
+        INSERT INTO public.a VALUES (3, 'CREATE TABLE fake2 (x INT); '' $$');
+        COMMENT ON TABLE public.a IS 'tabla ''a''; CREATE TABLE fake3 (y INT);';
+        CREATE OR REPLACE FUNCTION public.f() RETURNS void LANGUAGE plpgsql AS $_$
+        BEGIN CREATE TABLE fake4 (z INT); END; $_$;
+        COPY public.a TO '/tmp/a.csv';
+        CREATE TABLE public.b (id integer PRIMARY KEY, a_id integer REFERENCES public.a (id));
+        COPY public.b FROM stdin;
+        1\t1
+        \\.
+        ALTER TABLE ONLY public.a ADD CONSTRAINT a_pkey PRIMARY KEY (id);
+        ALTER TABLE public.a OWNER TO postgres;
+        DROP TABLE IF EXISTS public.c;
+        ALTER TABLE ONLY public.b
+            ADD CONSTRAINT b_a_fkey FOREIGN KEY (a_id) REFERENCES public.a(id)
+        """;
+
+    @Test
+    void matchesDdlParserTest() throws IOException {
+        assertSameStatements(TEST_SCHEMA);
+        assertSameStatements(FULL_DUMP);
+        for (String resource : RESOURCES) {
+            assertSameStatements(readResource(resource));
+        }
+    }
+
+    @Test
+    void randomChunkBoundariesTest() throws IOException {
+        Random random = new Random(7L);
+        String alphabet = "abcE_01 \n'\"$;,.()-/*\\";
+        String[] keywords = {"CREATE TABLE t (", "COPY t FROM stdin;\n", "\n\\.\n", "INSERT ", "COMMENT ",
+            "CREATE FUNCTION ", "ALTER TABLE t ADD CONSTRAINT c PRIMARY KEY (", "ADD FOREIGN KEY (", "DROP TABLE "};
+
+        for (int iteration = 0; iteration < 300; iteration++) {
+            StringBuilder sql = new StringBuilder();
+            for (int i = 0; i < random.nextInt(400); i++) {
+                sql.append(random.nextInt(8) == 0 ? keywords[random.nextInt(keywords.length)] : "")
+                    .append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertSameStatements(sql.toString());
+        }
+    }
+
+    @Test
+    void shortReadsTest() throws IOException {
+        // Un Reader que entrega de a un carácter, como un pipe lento
+        Reader slowReader = new StringReader(TEST_SCHEMA) {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(length, 1));
+            }
+        };
+
+        List<CreateTableStatement> statements = new DdlStreamParser(slowReader, 5).parseCreateTables();
+
+        assertEquals(2, statements.size());
+        assertEquals("users", statements.get(0).getTableName());
+        assertEquals("Weird_name", statements.get(0).getColumns().get(2).getName());
+        assertEquals("orders", statements.get(1).getTableName());
+        assertEquals("users", statements.get(1).getForeignKeys().get(0).getTargetTable());
+    }
+
+    @Test
+    void skippedStatementsStayBoundedTest() throws IOException {
+        int chunkSize = 1024;
+        // Un INSERT de muchas filas y el cuerpo de una función, cada uno cientos de veces el tamaño del bloque
+        String rows = "(1, 'it''s; fine', E'\\'; x', \"a;b\" /* ; */ -- ;\n), ";
+        String body = "BEGIN PERFORM ';'; /* $x$ */ RETURN 1; END; ";
+        String sql = "INSERT INTO a VALUES " + rows.repeat(20_000) + "(2, 'x');\n"
+            + "CREATE FUNCTION f() RETURNS int AS $fn$ " + body.repeat(20_000) + "$fn$ LANGUAGE plpgsql;\n"
+            + "CREATE TABLE b (id INT PRIMARY KEY);\n";
+
+        int[] peak = new int[1];
+        DdlStreamParser[] parser = new DdlStreamParser[1];
+        Reader reader = new StringReader(sql) {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                peak[0] = Math.max(peak[0], parser[0].bufferedLength());
+                return super.read(buffer, offset, length);
+            }
+        };
+        parser[0] = new DdlStreamParser(reader, chunkSize);
+
+        List<CreateTableStatement> statements = parser[0].parseCreateTables();
+
+        assertEquals(1, statements.size());
+        assertEquals("b", statements.get(0).getTableName());
+        assertTrue(sql.length() > 1000 * chunkSize);
+        assertTrue(peak[0] <= 2 * chunkSize, "Se retuvieron " + peak[0] + " caracteres");
+    }
+
+    private void assertSameStatements(String sql) throws IOException {
+        DdlScript expectedScript = new DdlParser(sql).parse();
+        List<CreateTableStatement> expected = expectedScript.getCreateTables();
+
+        for (int chunkSize : new int[]{1, 2, 3, 7, 64, 64 * 1024}) {
+            DdlScript actualScript = new DdlStreamParser(new StringReader(sql), chunkSize).parse();
+            List<CreateTableStatement> actual = actualScript.getCreateTables();
+            assertEquals(expectedScript.getAlterTables().toString(), actualScript.getAlterTables().toString());
+            assertEquals(expectedScript.getDropTables().toString(), actualScript.getDropTables().toString());
+
+            assertEquals(expected.size(), actual.size(), () -> "Sentencias distintas con bloques de " + chunkSize + ":\n" + sql);
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).toString(), actual.get(i).toString());
+                assertEquals(expected.get(i).getPrimaryKeys(), actual.get(i).getPrimaryKeys());
+                assertEquals(expected.get(i).getForeignKeys().toString(), actual.get(i).getForeignKeys().toString());
+                assertEquals(expected.get(i).getText(), actual.get(i).getText());
+            }
+        }
+    }
+
+    private String readResource(String name) throws IOException {
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(name)) {
+            assertNotNull(input, "Recurso no encontrado: " + name);
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package cl.playground.core.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalDdlParserTest {
+
+    @Test
+    void onlyEditedStatementIsReparsedTest() throws IOException {
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sql.append("CREATE TABLE t").append(i).append(" (id INT PRIMARY KEY, name VARCHAR(50));\n");
+            if (i % 100 == 0) {
+                sql.append("COPY t").append(i).append(" FROM stdin;\n1\tCREATE TABLE fake (x INT);\n\\.\n");
+            }
+        }
+        IncrementalDdlParser parser = new IncrementalDdlParser();
+        assertEquals(1000, parser.parse(sql.toString().toCharArray()).getCreateTables().size());
+        assertEquals(1000, parser.getReparsed());
+
+        // Sin cambios no se parsea nada
+        parser.parse(sql.toString().toCharArray());
+        assertEquals(0, parser.getReparsed());
+
+        String edited = sql.toString().replace("CREATE TABLE t500 (id INT PRIMARY KEY,",
+            "CREATE TABLE t500 (id INT PRIMARY KEY, email TEXT,");
+        List<CreateTableStatement> tables = parser.parse(edited.toCharArray()).getCreateTables();
+        assertEquals(1, parser.getReparsed());
+        assertEquals(3, tables.get(500).getColumns().size());
+        assertEquals("t999", tables.get(999).getTableName());
+        assertSameStatements(edited, parser.parse(edited.toCharArray()));
+
+        String appended = edited + "ALTER TABLE t1 ADD COLUMN extra INT;\n";
+        assertEquals(1, parser.parse(appended.toCharArray()).getAlterTables().size());
+        assertEquals(1, parser.getReparsed());
+    }
+
+    @Test
+    void randomEditsTest() throws IOException {
+        Random random = new Random(11L);
+        String alphabet = "abcE_01 \n'\"$;,.()-/*\\";
+        String[] fragments = {"CREATE TABLE t (", "id INT);\n", "COPY t FROM stdin;\n", "\n\\.\n", "INSERT ",
+            "COMMENT ", "CREATE FUNCTION ", "ALTER TABLE t ADD CONSTRAINT c PRIMARY KEY (", "DROP TABLE ", "$$", "/*", "*/"};
+
+        for (int iteration = 0; iteration < 50; iteration++) {
+            StringBuilder sql = new StringBuilder();
+            for (int i = 0; i < 200; i++) {
+                sql.append(random.nextInt(3) == 0 ? fragments[random.nextInt(fragments.length)] : "")
+                    .append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            IncrementalDdlParser parser = new IncrementalDdlParser();
+            for (int edit = 0; edit < 20; edit++) {
+                assertSameStatements(sql.toString(), parser.parse(sql.toString().toCharArray()));
+
+                // Borra, inserta o reemplaza un tramo corto en cualquier posición
+                int start = random.nextInt(sql.length() + 1);
+                int end = Math.min(sql.length(), start + random.nextInt(4));
+                String insert = random.nextBoolean() ? fragments[random.nextInt(fragments.length)]
+                    : String.valueOf(alphabet.charAt(random.nextInt(alphabet.length())));
+                sql.replace(start, end, random.nextInt(3) == 0 ? "" : insert);
+            }
+        }
+    }
+
+    private void assertSameStatements(String sql, DdlScript actual) throws IOException {
+        DdlScript expected = new DdlStreamParser(new StringReader(sql)).parse();
+        assertEquals(expected.getStatements().size(), actual.getStatements().size(), () -> "Sentencias distintas:\n" + sql);
+        assertEquals(expected.getAlterTables().toString(), actual.getAlterTables().toString());
+        assertEquals(expected.getDropTables().toString(), actual.getDropTables().toString());
+        for (int i = 0; i < expected.getCreateTables().size(); i++) {
+            CreateTableStatement expectedTable = expected.getCreateTables().get(i);
+            CreateTableStatement actualTable = actual.getCreateTables().get(i);
+            assertEquals(expectedTable.toString(), actualTable.toString());
+            assertEquals(expectedTable.getText(), actualTable.getText());
+        }
+    }
+}
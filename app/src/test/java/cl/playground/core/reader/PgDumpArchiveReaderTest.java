@@ -0,0 +1,132 @@
+package cl.playground.core.reader;
+
+import cl.playground.core.engine.PostgresEngine;
+import cl.playground.core.engine.SchemaProcessor;
+import cl.playground.core.model.ColumnMetadata;
+import cl.playground.core.model.TableMetadata;
+import cl.playground.exception.FileReadException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Los fixtures son archivos pg_dump -Fc pequeños con dos tablas, sus constraints, una secuencia,
+ * un índice, un comentario y un bloque de datos comprimido: biblioteca.dump tiene la versión de
+ * formato 1.15 (pg_dump 16) y biblioteca_pg15.dump la 1.14 (pg_dump 12 a 15).
+ */
+class PgDumpArchiveReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readSchemaEntriesTest() throws IOException {
+        for (String fixture : new String[]{"biblioteca.dump", "biblioteca_pg15.dump"}) {
+            String ddl;
+            try (Reader reader = new PgDumpArchiveReader(new ByteArrayInputStream(readResource(fixture)), fixture)) {
+                ddl = readAll(reader);
+            }
+
+            assertTrue(ddl.startsWith("CREATE TABLE public.autores ("), ddl);
+            assertTrue(ddl.contains("CREATE TABLE public.libros ("));
+            assertTrue(ddl.contains("ADD CONSTRAINT autores_pkey PRIMARY KEY (id);"));
+            assertTrue(ddl.contains("ADD CONSTRAINT libros_autor_id_fkey FOREIGN KEY (autor_id) REFERENCES public.autores(id);"));
+            // Solo entradas TABLE, CONSTRAINT y FK CONSTRAINT
+            assertFalse(ddl.contains("SEQUENCE"));
+            assertFalse(ddl.contains("CREATE INDEX"));
+            assertFalse(ddl.contains("COMMENT ON"));
+            assertFalse(ddl.contains("client_encoding"));
+        }
+    }
+
+    @Test
+    void dataBlocksAreNotReadTest() throws IOException {
+        byte[] archive = readResource("biblioteca.dump");
+        long[] bytesRead = {0};
+        InputStream counting = new FilterInputStream(new ByteArrayInputStream(archive)) {
+            @Override
+            public int read() throws IOException {
+                int value = super.read();
+                bytesRead[0] += value < 0 ? 0 : 1;
+                return value;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int read = super.read(buffer, offset, length);
+                bytesRead[0] += Math.max(read, 0);
+                return read;
+            }
+        };
+
+        try (Reader reader = new PgDumpArchiveReader(counting, "biblioteca.dump")) {
+            readAll(reader);
+        }
+
+        // La TOC termina donde empieza el bloque de datos (1 byte de tipo + dumpId + fragmentos zlib)
+        assertTrue(bytesRead[0] < archive.length - 1000,
+            "Se leyeron " + bytesRead[0] + " de " + archive.length + " bytes");
+    }
+
+    @Test
+    void openSqlArchiveTest() throws IOException {
+        Path file = tempDir.resolve("biblioteca.dump");
+        Files.write(file, readResource("biblioteca.dump"));
+        assertTrue(SqlReader.isStream(file.toString()));
+
+        List<TableMetadata> tables;
+        try (Reader reader = SqlReader.openSql(file.toString())) {
+            tables = new SchemaProcessor(new PostgresEngine()).processSchema(reader);
+        }
+
+        assertEquals(List.of("public.autores", "public.libros"),
+            tables.stream().map(TableMetadata::getTableName).toList());
+        assertEquals(List.of("id", "titulo", "autor_id", "publicado"),
+            tables.get(1).getColumns().stream().map(ColumnMetadata::getColumnName).toList());
+        assertTrue(tables.get(1).getColumns().get(2).isNotNull());
+        assertEquals("'Chile'", tables.get(0).getColumns().get(2).getDefaultValue());
+    }
+
+    @Test
+    void invalidArchivesTest() throws IOException {
+        byte[] archive = readResource("biblioteca.dump");
+
+        byte[] truncated = Arrays.copyOf(archive, 200);
+        assertThrows(FileReadException.class, () -> readAll(new PgDumpArchiveReader(new ByteArrayInputStream(truncated), "t")));
+
+        byte[] tarFormat = archive.clone();
+        tarFormat[10] = 3;
+        assertThrows(FileReadException.class, () -> new PgDumpArchiveReader(new ByteArrayInputStream(tarFormat), "t"));
+
+        byte[] oldVersion = archive.clone();
+        oldVersion[6] = 9;
+        assertThrows(FileReadException.class, () -> new PgDumpArchiveReader(new ByteArrayInputStream(oldVersion), "t"));
+    }
+
+    private byte[] readResource(String name) throws IOException {
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(name)) {
+            assertNotNull(input, "Recurso no encontrado: " + name);
+            return input.readAllBytes();
+        }
+    }
+
+    private String readAll(Reader reader) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] buffer = new char[256];
+        for (int read; (read = reader.read(buffer, 0, buffer.length)) != -1; ) {
+            text.append(buffer, 0, read);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,170 @@
+package cl.playground.core.reader;
+
+import cl.playground.core.engine.PostgresEngine;
+import cl.playground.core.engine.SchemaProcessor;
+import cl.playground.core.model.ColumnMetadata;
+import cl.playground.core.model.TableMetadata;
+import cl.playground.exception.FileReadException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlReaderTest {
+
+    private static final String SCHEMA = """
+        -- Esquema con identificadores no ASCII
+        CREATE TABLE "categoría" (
+            id SERIAL PRIMARY KEY,
+            "descripción" VARCHAR(100) NOT NULL DEFAULT 'sin descripción',
+            año INTEGER
+        );
+        CREATE TABLE productos (
+            id SERIAL PRIMARY KEY,
+            categoria_id INTEGER NOT NULL REFERENCES "categoría" (id),
+            "nombre ""corto""\" VARCHAR(20) UNIQUE
+        );
+        """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void mapSqlMatchesReadSqlTest() throws Exception {
+        Path file = tempDir.resolve("schema.sql");
+        byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        byte[] body = SCHEMA.getBytes(StandardCharsets.UTF_8);
+        byte[] content = new byte[bom.length + body.length];
+        System.arraycopy(bom, 0, content, 0, bom.length);
+        System.arraycopy(body, 0, content, bom.length, body.length);
+        Files.write(file, content);
+
+        String read = SqlReader.readSql(file.toString());
+        CharSequence mapped = SqlReader.mapSql(file.toString());
+        assertEquals(SCHEMA, read);
+        assertEquals(SCHEMA, mapped.toString());
+
+        SchemaProcessor processor = new SchemaProcessor(new PostgresEngine());
+        List<TableMetadata> fromString = processor.processSchema(read);
+        List<TableMetadata> fromMapping = new SchemaProcessor(new PostgresEngine()).processSchema(mapped);
+
+        assertEquals(2, fromMapping.size());
+        assertEquals("categoría", fromMapping.get(0).getTableName());
+        for (int i = 0; i < fromString.size(); i++) {
+            TableMetadata expected = fromString.get(i);
+            TableMetadata actual = fromMapping.get(i);
+            assertEquals(expected.getTableName(), actual.getTableName());
+            assertEquals(expected.getPrimaryKeys(), actual.getPrimaryKeys());
+            assertEquals(expected.getColumns().size(), actual.getColumns().size());
+            for (int c = 0; c < expected.getColumns().size(); c++) {
+                ColumnMetadata expectedColumn = expected.getColumns().get(c);
+                ColumnMetadata actualColumn = actual.getColumns().get(c);
+                assertEquals(expectedColumn.getColumnName(), actualColumn.getColumnName());
+                assertEquals(expectedColumn.getColumnType(), actualColumn.getColumnType());
+                assertEquals(expectedColumn.getDefaultValue(), actualColumn.getDefaultValue());
+            }
+            assertEquals(expected.getRelations().size(), actual.getRelations().size());
+        }
+    }
+
+    @Test
+    void mapSqlSubSequenceTest() throws Exception {
+        Path file = tempDir.resolve("slice.sql");
+        Files.writeString(file, "CREATE TABLE año (id INT);", StandardCharsets.UTF_8);
+
+        CharSequence mapped = SqlReader.mapSql(file.toString());
+        // Los offsets son bytes: 'ñ' ocupa dos
+        assertEquals(27, mapped.length());
+        assertEquals("año", mapped.subSequence(13, 17).toString());
+    }
+
+    @Test
+    void openSqlGzipTest() throws Exception {
+        byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bom);
+            gzip.write(SCHEMA.getBytes(StandardCharsets.UTF_8));
+        }
+        Path file = tempDir.resolve("schema.sql.gz");
+        Files.write(file, compressed.toByteArray());
+
+        List<TableMetadata> tables;
+        try (Reader reader = SqlReader.openSql(file.toString())) {
+            tables = new SchemaProcessor(new PostgresEngine()).processSchema(reader);
+        }
+        List<TableMetadata> expected = new SchemaProcessor(new PostgresEngine()).processSchema(SCHEMA);
+
+        assertEquals(expected.toString(), tables.toString());
+        assertTrue(SqlReader.isStream(file.toString()));
+        assertTrue(SqlReader.isStream("-"));
+        assertFalse(SqlReader.isStream("schema.sql"));
+    }
+
+    @Test
+    void openSqlPlainTest() throws Exception {
+        // Un .sql sin comprimir también se puede leer como flujo
+        Path file = tempDir.resolve("plain.sql");
+        Files.writeString(file, SCHEMA, StandardCharsets.UTF_8);
+
+        try (Reader reader = SqlReader.openSql(file.toString())) {
+            List<TableMetadata> tables = new SchemaProcessor(new PostgresEngine()).processSchema(reader);
+            assertEquals(2, tables.size());
+            assertEquals("productos", tables.get(1).getTableName());
+        }
+
+        Path empty = tempDir.resolve("empty.sql.gz");
+        Files.write(empty, new byte[0]);
+        assertThrows(FileReadException.class, () -> SqlReader.openSql(empty.toString()));
+        assertThrows(FileReadException.class, () -> SqlReader.openSql(tempDir.resolve("schema.gz").toString()));
+    }
+
+    @Test
+    void largePlainDumpIsStreamedTest() throws Exception {
+        // Un pg_dump completo en texto plano: los .sql que superan el límite del mapeo se leen como flujo
+        Path file = tempDir.resolve("full_dump.sql");
+        Files.writeString(file, SCHEMA + """
+            COPY productos (id, categoria_id) FROM stdin;
+            1\t1
+            \\.
+            INSERT INTO productos VALUES (2, 1, 'CREATE TABLE falsa (id INT);');
+            """, StandardCharsets.UTF_8);
+        long size = Files.size(file);
+
+        assertFalse(SqlReader.isStream(file.toString()));
+        assertFalse(SqlReader.isStream(file.toString(), size));
+        assertTrue(SqlReader.isStream(file.toString(), size - 1));
+        assertFalse(SqlReader.isStream(tempDir.resolve("missing.sql").toString(), 0));
+
+        List<TableMetadata> streamed;
+        try (Reader reader = SqlReader.openSql(file.toString())) {
+            streamed = new SchemaProcessor(new PostgresEngine()).processSchema(reader);
+        }
+        List<TableMetadata> mapped = new SchemaProcessor(new PostgresEngine()).processSchema(
+            SqlReader.mapSql(file.toString()));
+        assertEquals(2, streamed.size());
+        assertEquals(mapped.toString(), streamed.toString());
+    }
+
+    @Test
+    void invalidFilesTest() throws Exception {
+        Path empty = tempDir.resolve("empty.sql");
+        Files.writeString(empty, " \n\t\n");
+        Path wrongExtension = tempDir.resolve("schema.txt");
+        Files.writeString(wrongExtension, "CREATE TABLE t (id INT);");
+
+        assertThrows(FileReadException.class, () -> SqlReader.mapSql(empty.toString()));
+        assertThrows(FileReadException.class, () -> SqlReader.readSql(empty.toString()));
+        assertThrows(FileReadException.class, () -> SqlReader.mapSql(wrongExtension.toString()));
+        assertThrows(FileReadException.class, () -> SqlReader.mapSql(tempDir.resolve("missing.sql").toString()));
+        assertThrows(FileReadException.class, () -> SqlReader.mapSql(tempDir.toString()));
+    }
+}
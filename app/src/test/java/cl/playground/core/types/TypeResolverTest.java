@@ -0,0 +1,98 @@
+package cl.playground.core.types;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TypeResolverTest {
+
+    private final TypeResolver types = new TypeResolver();
+
+    @Test
+    void builtInTypesTest() {
+        assertEquals("Long", name("BIGINT"));
+        assertEquals("Short", name("int2"));
+        assertEquals("Integer", name("INTEGER"));
+        assertEquals("Double", name("DOUBLE PRECISION"));
+        assertEquals("String", name("CHARACTER VARYING(100)"));
+        assertEquals("String", name("JSONB"));
+        assertEquals("LocalDateTime", name("TIMESTAMP(3) WITHOUT TIME ZONE"));
+        assertEquals("OffsetDateTime", name("TIMESTAMPTZ"));
+        assertEquals("OffsetTime", name("TIME(6) WITH TIME ZONE"));
+        assertEquals("Duration", name("INTERVAL DAY TO SECOND"));
+        assertEquals("byte[]", name("BYTEA"));
+        assertEquals("Boolean", name("BIT"));
+        assertEquals("String", name("BIT(8)"));
+        assertEquals("Object", name("GEOMETRY"));
+        assertEquals("Object", name("NUMERIC(abc"));
+
+        JavaType uuid = types.resolve("UUID");
+        assertEquals("import java.util.UUID;", uuid.getImportStatement());
+        assertNull(types.resolve("TEXT").getImportStatement());
+    }
+
+    @Test
+    void numericPrecisionTest() {
+        assertEquals("BigDecimal", name("NUMERIC"));
+        assertEquals("BigDecimal", name("NUMERIC(10, 2)"));
+        assertEquals("Integer", name("DECIMAL(5)"));
+        assertEquals("Long", name("NUMERIC(18,0)"));
+        assertEquals("BigInteger", name("NUMERIC(30)"));
+        assertEquals("import java.math.BigDecimal;", types.resolve("MONEY").getImportStatement());
+    }
+
+    @Test
+    void serialAndLengthTest() {
+        assertTrue(types.resolve("BIGSERIAL").isSerial());
+        assertTrue(types.resolve("SERIAL4").isSerial());
+        assertFalse(types.resolve("BIGINT").isSerial());
+
+        assertEquals(Integer.valueOf(100), types.resolve("VARCHAR(100)").getLength());
+        assertEquals(Integer.valueOf(100), types.resolve("CHARACTER VARYING(100)").getLength());
+        assertNull(types.resolve("VARCHAR").getLength());
+        assertNull(types.resolve("CHAR(2)").getLength());
+        assertNull(types.resolve("VARCHAR(20)[]").getLength());
+    }
+
+    @Test
+    void arrayTypesTest() {
+        assertEquals("String[]", name("TEXT[]"));
+        assertEquals("Integer[]", name("INTEGER[][]"));
+        assertEquals("String[]", name("VARCHAR(20) ARRAY"));
+        assertEquals("import java.time.LocalDate;", types.resolve("DATE[]").getImportStatement());
+    }
+
+    @Test
+    void overridesTest() {
+        TypeResolver custom = new TypeResolver(Map.of(
+            "jsonb", "com.fasterxml.jackson.databind.JsonNode",
+            "numeric", "Double",
+            "NUMERIC(12, 4)", "java.math.BigDecimal",
+            "serial", "Integer"));
+
+        JavaType json = custom.resolve("JSONB[]");
+        assertEquals("JsonNode[]", json.getName());
+        assertEquals("import com.fasterxml.jackson.databind.JsonNode;", json.getImportStatement());
+
+        assertEquals("Double", custom.resolve("NUMERIC(10,2)").getName());
+        assertEquals("BigDecimal", custom.resolve("NUMERIC(12,4)").getName());
+
+        // El reemplazo cambia el tipo Java, pero la columna sigue siendo SERIAL
+        assertEquals("Integer", custom.resolve("SERIAL").getName());
+        assertTrue(custom.resolve("SERIAL").isSerial());
+
+        assertEquals(Map.of("JSONB", "com.fasterxml.jackson.databind.JsonNode", "NUMERIC", "Double",
+            "NUMERIC(12,4)", "java.math.BigDecimal", "SERIAL", "Integer"), custom.getConfiguredOverrides());
+    }
+
+    @Test
+    void cachedResolutionTest() {
+        assertSame(types.resolve("VARCHAR(50)"), types.resolve("VARCHAR(50)"));
+    }
+
+    private String name(String postgresType) {
+        return types.resolve(postgresType).getName();
+    }
+}
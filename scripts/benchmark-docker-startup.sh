@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# Tiempo hasta la primera entidad de la imagen Docker, sin y con el archivo AppCDS.
+# Cada ejecución usa un proyecto nuevo, como un job de CI. Uso: scripts/benchmark-docker-startup.sh [imagen] [ejecuciones]
+set -euo pipefail
+
+image="${1:-sqlift}"
+runs="${2:-15}"
+schema="$(cd "$(dirname "$0")/.." && pwd)/app/src/test/resources/schema2.sql"
+
+# Mediana en ms desde el docker run hasta que se escribe el primer .java
+time_to_first_entity() {
+  local times=()
+  for _ in $(seq "$runs"); do
+    local project
+    project="$(mktemp -d)"
+    cp "$schema" "$project/schema.sql"
+    printf 'version: "1.0"\nsql:\n  engine: "postgres"\n  schema: "schema.sql"\n  output:\n    package: "com.example.benchmark"\n    lombok: true\n' > "$project/sqlift.yaml"
+
+    local start
+    start=$(date +%s%N)
+    docker run --rm --user "$(id -u):$(id -g)" -v "$project:/workspace" "$@" generate > /dev/null
+    times+=("$(find "$project/src" -name '*.java' -exec stat -c %.9Y {} + | sort -n | head -1 |
+      awk -v start="$start" '{ printf "%d", $1 * 1000 - start / 1000000 }')")
+    rm -rf "$project"
+  done
+  printf '%s\n' "${times[@]}" | sort -n | awk '{ t[NR] = $1 } END { print t[int((NR + 1) / 2)] }'
+}
+
+before=$(time_to_first_entity --entrypoint java "$image" -jar /app.jar)
+after=$(time_to_first_entity "$image")
+echo "Time to first entity (median of $runs runs): ${before} ms without AppCDS, ${after} ms with AppCDS"